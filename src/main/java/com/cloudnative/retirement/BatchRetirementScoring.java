@@ -0,0 +1,60 @@
+package com.cloudnative.retirement;
+
+import com.cloudnative.retirement.modules.BatchRetirementScorer;
+import com.cloudnative.retirement.modules.UtilityAssessmentModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Command-line batch scoring of a metrics CSV.
+ * Scores every row in parallel and reports summary statistics plus the best retirement
+ * candidates, without logging a line per service.
+ *
+ * Usage: BatchRetirementScoring <csv-file> [top-k] [utility-threshold] [parallelism]
+ */
+public class BatchRetirementScoring {
+    private static final Logger logger = LoggerFactory.getLogger(BatchRetirementScoring.class);
+
+    private static final int DEFAULT_TOP_K = 20;
+    private static final double DEFAULT_THRESHOLD = 0.30;
+
+    // Normalization for real-world exports (see RealWorldDataTest)
+    private static final double MAX_REQUESTS = 2000.0;
+    private static final double MAX_DEPENDENTS = 15.0;
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            logger.error("Usage: BatchRetirementScoring <csv-file> [top-k] [utility-threshold] [parallelism]");
+            System.exit(2);
+        }
+
+        try {
+            String filename = args[0];
+            int topK = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_TOP_K;
+            double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD;
+            int parallelism = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+            BatchRetirementScorer scorer = new BatchRetirementScorer(
+                new UtilityAssessmentModule(MAX_REQUESTS, MAX_DEPENDENTS), threshold, topK);
+            BatchRetirementScorer.Summary summary = scorer.scoreCSV(filename, parallelism);
+
+            logger.info("Services Analyzed: {}", summary.getScoredCount());
+            logger.info("Retirement Candidates: {} (utility < {}, no dependents)", summary.getRetirementCount(), threshold);
+            logger.info("Services Retained: {}", summary.getRetainedCount());
+            logger.info("Utility: mean {}, min {}, max {}",
+                       String.format("%.3f", summary.getMeanUtility()),
+                       String.format("%.3f", summary.getMinUtility()),
+                       String.format("%.3f", summary.getMaxUtility()));
+            logger.info("Total CPU Freed: {} units", String.format("%.1f", summary.getCpuFreed()));
+            logger.info("Top {} Retirement Candidates:", summary.getTopCandidates().size());
+            for (BatchRetirementScorer.Candidate candidate : summary.getTopCandidates()) {
+                logger.info(String.format("  %-30s | utility %.3f | %10d requests | SLA %.3f",
+                                          candidate.getServiceId(), candidate.getUtility(),
+                                          candidate.getRequestCount(), candidate.getSlaScore()));
+            }
+        } catch (Exception e) {
+            logger.error("Batch scoring failed", e);
+            System.exit(1);
+        }
+    }
+}
@@ -22,11 +22,13 @@ public class MicroserviceRetirementSimulator {
             int numServices = 12;
             int totalCycles = 40;
             String logDirectory = "./retirement_logs";
+            int parallelism = Runtime.getRuntime().availableProcessors();
 
             logger.info("Configuration:");
             logger.info("  - Number of Microservices: {}", numServices);
             logger.info("  - Simulation Cycles: {}", totalCycles);
             logger.info("  - Log Directory: {}", logDirectory);
+            logger.info("  - Parallelism: {}", parallelism);
             logger.info("");
 
             // Initialize and run simulation
@@ -34,7 +36,8 @@ public class MicroserviceRetirementSimulator {
             MicroserviceRetirementSimulation simulation = new MicroserviceRetirementSimulation(
                 numServices,
                 totalCycles,
-                logDirectory
+                logDirectory,
+                parallelism
             );
 
             simulation.run();
@@ -56,6 +59,7 @@ public class MicroserviceRetirementSimulator {
             logger.info("  - Service Sprawl Reduction: {:.1f}% of services retired",
                        (metrics.retiredServices * 100.0) / metrics.totalServices);
             logger.info("  - Active Service Count: {}/{}", metrics.activeServices, metrics.totalServices);
+            logger.info("  - Retiring (draining) Service Count: {}/{}", metrics.retiringServices, metrics.totalServices);
             logger.info("");
             logger.info(repeatString("=", 80));
             logger.info("Simulation Results: SUCCESS");
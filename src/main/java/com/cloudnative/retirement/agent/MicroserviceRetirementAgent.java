@@ -8,10 +8,14 @@ import com.cloudnative.retirement.modules.UtilityAssessmentModule;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Microservice Retirement Agent (MRA)
  * Embedded within each microservice; controls self-evaluation and retirement decisions.
  * Autonomously decides when a service should retire based on learned utility and lifecycle intelligence.
+ * Retirement is asynchronous: a RETIRE decision is returned as soon as draining starts, and the
+ * event's whenDrained() future completes when the service reaches RETIRED.
  */
 public class MicroserviceRetirementAgent {
     private static final Logger logger = LoggerFactory.getLogger(MicroserviceRetirementAgent.class);
@@ -20,6 +24,7 @@ public class MicroserviceRetirementAgent {
     private final UtilityAssessmentModule utilityModule;
     private final LifecycleLearningEngine learningEngine;
     private final DependencyAwarenessModule dependencyModule;
+    private final RetirementDrainScheduler drainScheduler;
     
     private final double utilityThreshold; // Below this threshold, consider retirement
     private final int retentionWindowSize; // Number of cycles to check threshold
@@ -33,12 +38,24 @@ public class MicroserviceRetirementAgent {
                                        DependencyAwarenessModule dependencyModule,
                                        double utilityThreshold,
                                        int retentionWindowSize) {
+        this(microservice, utilityModule, learningEngine, dependencyModule,
+             utilityThreshold, retentionWindowSize, RetirementDrainScheduler.shared());
+    }
+
+    public MicroserviceRetirementAgent(Microservice microservice, 
+                                       UtilityAssessmentModule utilityModule,
+                                       LifecycleLearningEngine learningEngine,
+                                       DependencyAwarenessModule dependencyModule,
+                                       double utilityThreshold,
+                                       int retentionWindowSize,
+                                       RetirementDrainScheduler drainScheduler) {
         this.microservice = microservice;
         this.utilityModule = utilityModule;
         this.learningEngine = learningEngine;
         this.dependencyModule = dependencyModule;
         this.utilityThreshold = utilityThreshold;
         this.retentionWindowSize = retentionWindowSize;
+        this.drainScheduler = drainScheduler;
         this.lowUtilityCount = 0;
     }
 
@@ -47,7 +64,7 @@ public class MicroserviceRetirementAgent {
      * @return RetirementEvent if decision was made, null otherwise
      */
     public RetirementEvent evaluateRetirement() {
-        if (microservice.isRetired()) {
+        if (!microservice.isActive()) {
             return null;
         }
 
@@ -74,6 +91,7 @@ public class MicroserviceRetirementAgent {
         // Service continues operation
         RetirementEvent retainEvent = new RetirementEvent(
             microservice.getServiceId(),
+            microservice.getClock().now(),
             utilityScore,
             microservice.getDependentServiceCount(),
             "RETAIN",
@@ -97,6 +115,7 @@ public class MicroserviceRetirementAgent {
             
             RetirementEvent retainEvent = new RetirementEvent(
                 microservice.getServiceId(),
+                microservice.getClock().now(),
                 utilityScore,
                 microservice.getDependentServiceCount(),
                 "RETAIN",
@@ -109,16 +128,18 @@ public class MicroserviceRetirementAgent {
 
         // Safe to retire
         logger.info("Initiating safe retirement for service {}", microservice.getServiceId());
-        executeRetirement();
+        CompletableFuture<Void> drained = executeRetirement();
 
         double cpuFreed = calculateCpuFreed();
         RetirementEvent retirementEvent = new RetirementEvent(
             microservice.getServiceId(),
+            microservice.getClock().now(),
             utilityScore,
             0,
             "RETIRE",
             cpuFreed,
-            "Low utility sustained for " + lowUtilityCount + " cycles with no critical dependencies"
+            "Low utility sustained for " + lowUtilityCount + " cycles with no critical dependencies",
+            drained
         );
         
         this.lastRetirementEvent = retirementEvent;
@@ -126,32 +147,27 @@ public class MicroserviceRetirementAgent {
     }
 
     /**
-     * Executes graceful shutdown and retirement of the microservice.
+     * Starts graceful shutdown of the microservice without blocking the caller.
+     * The service drains in the RETIRING state and is marked RETIRED by the drain scheduler.
      */
-    private void executeRetirement() {
-        try {
-            logger.info("Executing graceful shutdown for service {}", microservice.getServiceId());
-            
-            // Simulate graceful shutdown: drain requests, notify dependents
-            Thread.sleep(50); // Simulate graceful period
-            
-            // Mark service as retired
-            microservice.retire();
-            
-            logger.info("Service {} successfully retired", microservice.getServiceId());
-        } catch (InterruptedException e) {
-            logger.error("Retirement execution interrupted for service {}", 
-                        microservice.getServiceId(), e);
-            Thread.currentThread().interrupt();
-        }
+    private CompletableFuture<Void> executeRetirement() {
+        logger.info("Executing graceful shutdown for service {}", microservice.getServiceId());
+        return drainScheduler.drain(microservice);
     }
 
     /**
      * Estimates CPU resources freed by retiring this service.
      */
     private double calculateCpuFreed() {
+        return estimateCpuFreed(microservice.getUtilizationRate());
+    }
+
+    /**
+     * Estimates CPU resources freed by retiring a service with the given utilization.
+     */
+    public static double estimateCpuFreed(double utilizationRate) {
         // Estimated CPU freed (in arbitrary units)
-        return (1.0 - microservice.getUtilizationRate()) * 20.0;
+        return (1.0 - utilizationRate) * 20.0;
     }
 
     public Microservice getMicroservice() {
@@ -175,7 +191,7 @@ public class MicroserviceRetirementAgent {
         return "MicroserviceRetirementAgent{" +
                 "serviceId='" + microservice.getServiceId() + '\'' +
                 ", lowUtilityCount=" + lowUtilityCount +
-                ", retired=" + microservice.isRetired() +
+                ", state=" + microservice.getLifecycleState() +
                 '}';
     }
 }
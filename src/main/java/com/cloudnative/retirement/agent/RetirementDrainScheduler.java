@@ -0,0 +1,108 @@
+package com.cloudnative.retirement.agent;
+
+import com.cloudnative.retirement.model.Microservice;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives graceful retirement as an asynchronous RETIRING → RETIRED state machine.
+ * Draining services wait on a shared timer instead of the evaluating thread, so a wave of
+ * retirements never blocks evaluation of the rest of the fleet.
+ */
+public class RetirementDrainScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(RetirementDrainScheduler.class);
+
+    private static final long DEFAULT_DRAIN_MILLIS = 50; // Graceful period for request draining
+
+    private final ScheduledExecutorService timer;
+    private final long drainMillis;
+
+    /**
+     * @param timer executor that completes drains; null completes them on the calling thread
+     * @param drainMillis graceful period before a draining service is marked retired
+     */
+    public RetirementDrainScheduler(ScheduledExecutorService timer, long drainMillis) {
+        if (drainMillis < 0) {
+            throw new IllegalArgumentException("Drain period must not be negative: " + drainMillis);
+        }
+        this.timer = timer;
+        this.drainMillis = drainMillis;
+    }
+
+    /**
+     * Gets the process-wide scheduler backed by a single daemon timer thread.
+     */
+    public static RetirementDrainScheduler shared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    /**
+     * Gets a scheduler that retires services immediately, without a drain period.
+     */
+    public static RetirementDrainScheduler immediate() {
+        return ImmediateHolder.INSTANCE;
+    }
+
+    /**
+     * Moves the service to RETIRING and schedules its transition to RETIRED.
+     * @return a future completed once the service is retired
+     */
+    public CompletableFuture<Void> drain(Microservice service) {
+        if (!service.beginRetirement()) {
+            logger.warn("Service {} is already {}, ignoring drain request",
+                       service.getServiceId(), service.getLifecycleState());
+            return CompletableFuture.completedFuture(null);
+        }
+
+        if (timer == null || drainMillis == 0) {
+            completeRetirement(service);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<Void> drained = new CompletableFuture<>();
+        try {
+            timer.schedule(() -> {
+                completeRetirement(service);
+                drained.complete(null);
+            }, drainMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Drain timer unavailable, retiring service {} immediately", service.getServiceId());
+            completeRetirement(service);
+            drained.complete(null);
+        }
+        return drained;
+    }
+
+    private void completeRetirement(Microservice service) {
+        service.retire();
+        logger.info("Service {} successfully retired", service.getServiceId());
+    }
+
+    public long getDrainMillis() {
+        return drainMillis;
+    }
+
+    private static final class SharedHolder {
+        static final RetirementDrainScheduler INSTANCE = new RetirementDrainScheduler(createTimer(), DEFAULT_DRAIN_MILLIS);
+
+        private static ScheduledExecutorService createTimer() {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "retirement-drain");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.setRemoveOnCancelPolicy(true);
+            return executor;
+        }
+    }
+
+    private static final class ImmediateHolder {
+        static final RetirementDrainScheduler INSTANCE = new RetirementDrainScheduler(null, 0);
+    }
+}
@@ -191,7 +191,7 @@ public class AWSIntegrationExample {
         
         if (awsFactory.isAwsEnabled()) {
             // Access individual services directly
-            CloudWatchMetricsPublisher metrics = awsFactory.getMetricsPublisher();
+            RetirementMetricsSink metrics = awsFactory.getMetricsSink();
             DynamoDBDecisionStore store = awsFactory.getDecisionStore();
             SNSEventPublisher snsPub = awsFactory.getEventPublisher();
             
@@ -5,6 +5,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.file.Path;
+import java.nio.file.Paths;
 
 /**
  * Unified AWS integration facade combining all AWS services.
@@ -13,18 +14,27 @@ public class AWSIntegrationFactory {
     private static final Logger logger = LoggerFactory.getLogger(AWSIntegrationFactory.class);
 
     private final AWSServiceConfig config;
-    private final CloudWatchMetricsPublisher metricsPublisher;
+    private final RetirementMetricsSink metricsSink;
     private final DynamoDBDecisionStore decisionStore;
     private final SNSEventPublisher eventPublisher;
     private final S3LogArchiver logArchiver;
     private final ParameterStoreConfigManager configManager;
 
     public AWSIntegrationFactory(AWSServiceConfig config) {
+        this(config, config.isAwsEnabled() ? createMetricsSink(config) : null);
+    }
+
+    /**
+     * Creates the integration with an explicit metrics destination, e.g. an EmfMetricsWriter
+     * writing to a given directory. The sink is used and closed on shutdown even when AWS is
+     * disabled, so metrics can be written locally without the other AWS services.
+     */
+    public AWSIntegrationFactory(AWSServiceConfig config, RetirementMetricsSink metricsSink) {
         this.config = config;
+        this.metricsSink = metricsSink;
         
         if (config.isAwsEnabled()) {
             logger.info("Initializing AWS Integration...");
-            this.metricsPublisher = new CloudWatchMetricsPublisher(config);
             this.decisionStore = new DynamoDBDecisionStore(config);
             this.eventPublisher = new SNSEventPublisher(config);
             this.logArchiver = new S3LogArchiver(config);
@@ -32,7 +42,6 @@ public class AWSIntegrationFactory {
             logger.info("AWS Integration initialized successfully");
         } else {
             logger.info("AWS Integration disabled");
-            this.metricsPublisher = null;
             this.decisionStore = null;
             this.eventPublisher = null;
             this.logArchiver = null;
@@ -40,11 +49,27 @@ public class AWSIntegrationFactory {
         }
     }
 
+    /**
+     * Creates the metrics destination selected by AWSServiceConfig.getMetricsOutput.
+     */
+    private static RetirementMetricsSink createMetricsSink(AWSServiceConfig config) {
+        if (!AWSServiceConfig.METRICS_OUTPUT_EMF.equals(config.getMetricsOutput())) {
+            return new CloudWatchMetricsPublisher(config);
+        }
+        if (config.getEmfLogDirectory().isEmpty()) {
+            logger.info("Writing retirement metrics as EMF to stdout");
+            return new EmfMetricsWriter(config);
+        }
+        logger.info("Writing retirement metrics as EMF to {}", config.getEmfLogDirectory());
+        return new EmfMetricsWriter(config, Paths.get(config.getEmfLogDirectory()), "retirement_metrics",
+                EmfMetricsWriter.DEFAULT_MAX_FILE_BYTES);
+    }
+
     /**
      * Process a retirement event with all AWS integrations.
      */
     public void processRetirementEvent(RetirementEvent event) {
-        if (!config.isAwsEnabled()) {
+        if (!config.isAwsEnabled() && metricsSink == null) {
             return;
         }
 
@@ -54,14 +79,9 @@ public class AWSIntegrationFactory {
                 decisionStore.storeRetirementDecision(event);
             }
 
-            // Publish metrics to CloudWatch
-            if (metricsPublisher != null) {
-                metricsPublisher.publishUtilityScore(event.getServiceId(), event.getUtilityScore());
-                metricsPublisher.publishRetirementDecision(event.getServiceId(), 
-                        "RETIRE".equals(event.getDecision()), event.getReason());
-                metricsPublisher.publishDependencyCount(event.getServiceId(), event.getDependencyCount());
-                metricsPublisher.publishCpuFreed(event.getServiceId(), event.getCpuFreed());
-                metricsPublisher.flush();
+            // Publish metrics to CloudWatch or EMF
+            if (metricsSink != null) {
+                metricsSink.publishRetirementEvent(event);
             }
 
             // Publish event to SNS
@@ -127,7 +147,7 @@ public class AWSIntegrationFactory {
      */
     public void shutdown() {
         try {
-            if (metricsPublisher != null) metricsPublisher.close();
+            if (metricsSink != null) metricsSink.close();
             if (decisionStore != null) decisionStore.close();
             if (eventPublisher != null) eventPublisher.close();
             if (logArchiver != null) logArchiver.close();
@@ -139,8 +159,15 @@ public class AWSIntegrationFactory {
     }
 
     // Getters
+    public RetirementMetricsSink getMetricsSink() {
+        return metricsSink;
+    }
+
+    /**
+     * Gets the CloudWatch publisher, or null when metrics go to another sink.
+     */
     public CloudWatchMetricsPublisher getMetricsPublisher() {
-        return metricsPublisher;
+        return metricsSink instanceof CloudWatchMetricsPublisher ? (CloudWatchMetricsPublisher) metricsSink : null;
     }
 
     public DynamoDBDecisionStore getDecisionStore() {
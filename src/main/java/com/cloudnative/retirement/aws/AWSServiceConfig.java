@@ -10,6 +10,9 @@ import software.amazon.awssdk.regions.Region;
 public class AWSServiceConfig {
     private static final Logger logger = LoggerFactory.getLogger(AWSServiceConfig.class);
 
+    public static final String METRICS_OUTPUT_CLOUDWATCH = "cloudwatch";
+    public static final String METRICS_OUTPUT_EMF = "emf";
+
     private final Region region;
     private final String cloudWatchNamespace;
     private final String dynamoDBTableName;
@@ -17,6 +20,10 @@ public class AWSServiceConfig {
     private final String s3BucketName;
     private final String parameterStorePrefix;
     private final boolean awsEnabled;
+    private final double serviceMetricSampleRate;
+    private final String metricsOutput;
+    private final String emfLogDirectory;
+    private final boolean dynamoDBWriteCoalescing;
 
     public AWSServiceConfig() {
         this.region = Region.US_EAST_1; // Default region
@@ -26,12 +33,28 @@ public class AWSServiceConfig {
         this.s3BucketName = getEnvOrDefault("S3_BUCKET", "");
         this.parameterStorePrefix = "/microservice-retirement/";
         this.awsEnabled = Boolean.parseBoolean(getEnvOrDefault("AWS_ENABLED", "true"));
+        this.serviceMetricSampleRate = parseSampleRate(getEnvOrDefault("CLOUDWATCH_SERVICE_SAMPLE_RATE", "0"));
+        this.metricsOutput = getEnvOrDefault("METRICS_OUTPUT", METRICS_OUTPUT_CLOUDWATCH).toLowerCase();
+        this.emfLogDirectory = getEnvOrDefault("EMF_LOG_DIR", "");
+        this.dynamoDBWriteCoalescing = Boolean.parseBoolean(getEnvOrDefault("DYNAMODB_COALESCE_WRITES", "false"));
 
         logger.info("AWS Configuration initialized - Region: {}, AWS Enabled: {}", region, awsEnabled);
     }
 
     public AWSServiceConfig(Region region, String dynamoDBTableName, String snsTopicArn, 
                            String s3BucketName, boolean awsEnabled) {
+        this(region, dynamoDBTableName, snsTopicArn, s3BucketName, awsEnabled, 0.0);
+    }
+
+    /**
+     * @param serviceMetricSampleRate fraction of services, 0.0 to 1.0, that also get CloudWatch
+     *                                series with a ServiceId dimension
+     */
+    public AWSServiceConfig(Region region, String dynamoDBTableName, String snsTopicArn,
+                           String s3BucketName, boolean awsEnabled, double serviceMetricSampleRate) {
+        if (serviceMetricSampleRate < 0.0 || serviceMetricSampleRate > 1.0) {
+            throw new IllegalArgumentException("Sample rate must be between 0 and 1: " + serviceMetricSampleRate);
+        }
         this.region = region;
         this.cloudWatchNamespace = "MicroserviceRetirementSystem";
         this.dynamoDBTableName = dynamoDBTableName;
@@ -39,6 +62,10 @@ public class AWSServiceConfig {
         this.s3BucketName = s3BucketName;
         this.parameterStorePrefix = "/microservice-retirement/";
         this.awsEnabled = awsEnabled;
+        this.serviceMetricSampleRate = serviceMetricSampleRate;
+        this.metricsOutput = METRICS_OUTPUT_CLOUDWATCH;
+        this.emfLogDirectory = "";
+        this.dynamoDBWriteCoalescing = false;
     }
 
     private static String getEnvOrDefault(String envVar, String defaultValue) {
@@ -46,6 +73,19 @@ public class AWSServiceConfig {
         return value != null ? value : defaultValue;
     }
 
+    private static double parseSampleRate(String value) {
+        try {
+            double rate = Double.parseDouble(value);
+            if (rate >= 0.0 && rate <= 1.0) {
+                return rate;
+            }
+        } catch (NumberFormatException e) {
+            // Fall through to the warning
+        }
+        logger.warn("Ignoring CLOUDWATCH_SERVICE_SAMPLE_RATE={}, expected a fraction between 0 and 1", value);
+        return 0.0;
+    }
+
     public Region getRegion() {
         return region;
     }
@@ -73,4 +113,47 @@ public class AWSServiceConfig {
     public boolean isAwsEnabled() {
         return awsEnabled;
     }
+
+    /**
+     * Gets the fraction of services whose CloudWatch metrics also carry a ServiceId dimension.
+     * 0 by default, which publishes fleet-wide series only.
+     */
+    public double getServiceMetricSampleRate() {
+        return serviceMetricSampleRate;
+    }
+
+    /**
+     * Whether a service's metrics also carry a ServiceId dimension.
+     * Services are picked by a hash of their id, so the same ones are tracked in every period.
+     */
+    public boolean isServiceMetricSampled(String serviceId) {
+        if (serviceMetricSampleRate <= 0.0) {
+            return false;
+        }
+        int h = serviceId.hashCode() * 0x9E3779B9;
+        h ^= h >>> 16;
+        return (h & 0x7fffffff) / (double) (1L << 31) < serviceMetricSampleRate;
+    }
+
+    /**
+     * Gets where retirement metrics go: METRICS_OUTPUT_CLOUDWATCH (PutMetricData, the default)
+     * or METRICS_OUTPUT_EMF (Embedded Metric Format lines for the log agent).
+     */
+    public String getMetricsOutput() {
+        return metricsOutput;
+    }
+
+    /**
+     * Gets the directory for rolling EMF files, or an empty string to write EMF lines to stdout.
+     */
+    public String getEmfLogDirectory() {
+        return emfLogDirectory;
+    }
+
+    /**
+     * Whether DynamoDBDecisionStore stores only decision transitions instead of every decision.
+     */
+    public boolean isDynamoDBWriteCoalescing() {
+        return dynamoDBWriteCoalescing;
+    }
 }
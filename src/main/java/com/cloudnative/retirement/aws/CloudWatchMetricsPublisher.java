@@ -3,151 +3,299 @@ package com.cloudnative.retirement.aws;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.services.cloudwatch.CloudWatchClient;
+import software.amazon.awssdk.services.cloudwatch.model.Dimension;
 import software.amazon.awssdk.services.cloudwatch.model.MetricDatum;
 import software.amazon.awssdk.services.cloudwatch.model.PutMetricDataRequest;
 import software.amazon.awssdk.services.cloudwatch.model.StandardUnit;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Publishes microservice retirement metrics to AWS CloudWatch.
+ * The publish methods only enqueue and never block: a background thread rolls the samples up
+ * into one StatisticSet per metric series and minute (see MetricAggregator) and sends them once
+ * MAX_BATCH_SIZE series are pending or the oldest sample has waited the maximum latency, so
+ * request volume follows the number of series rather than the number of decisions.
+ * Series are fleet-wide by default; a ServiceId dimension is added only for the fraction of
+ * services selected by AWSServiceConfig.getServiceMetricSampleRate.
+ * The queue is bounded; when it is full, new samples are dropped and counted.
  */
-public class CloudWatchMetricsPublisher {
+public class CloudWatchMetricsPublisher implements RetirementMetricsSink {
     private static final Logger logger = LoggerFactory.getLogger(CloudWatchMetricsPublisher.class);
 
     private final AWSServiceConfig config;
     private final CloudWatchClient cloudWatchClient;
-    private final List<MetricDatum> metricBuffer;
-    private static final int BATCH_SIZE = 20; // CloudWatch API limit
+    private static final int MAX_BATCH_SIZE = 1000; // PutMetricData limit per request
+    private static final int DRAIN_BATCH = 1024;
+    private static final long AGGREGATION_PERIOD_MILLIS = 60_000; // Standard CloudWatch resolution
+    private static final int DEFAULT_QUEUE_CAPACITY = 50_000;
+    private static final long DEFAULT_MAX_LATENCY_MILLIS = 1000;
+
+    private final BlockingQueue<MetricDatum> queue;
+    private final int queueCapacity;
+    private final long maxLatencyMillis;
+    private final MetricAggregator aggregator = new MetricAggregator(AGGREGATION_PERIOD_MILLIS);
+    private final Thread flusher;
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder publishedCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder requestCount = new LongAdder();
+    private volatile boolean closed;
+    private volatile boolean dropWarned;
 
     public CloudWatchMetricsPublisher(AWSServiceConfig config) {
-        this.config = config;
-        this.cloudWatchClient = CloudWatchClient.builder()
+        this(config, CloudWatchClient.builder()
                 .region(config.getRegion())
-                .build();
-        this.metricBuffer = new ArrayList<>();
+                .build(), DEFAULT_QUEUE_CAPACITY, DEFAULT_MAX_LATENCY_MILLIS);
     }
 
     /**
-     * Publish utility score metric for a microservice.
+     * @param queueCapacity samples that may wait for the flusher before publishing drops them
+     * @param maxLatencyMillis longest a queued sample waits before the pending series are sent
      */
-    public void publishUtilityScore(String serviceId, double utilityScore) {
-        if (!config.isAwsEnabled()) {
-            return;
+    CloudWatchMetricsPublisher(AWSServiceConfig config, CloudWatchClient cloudWatchClient,
+                               int queueCapacity, long maxLatencyMillis) {
+        if (queueCapacity < 1 || maxLatencyMillis < 1) {
+            throw new IllegalArgumentException("Queue capacity and max latency must be positive");
         }
+        this.config = config;
+        this.cloudWatchClient = cloudWatchClient;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.queueCapacity = queueCapacity;
+        this.maxLatencyMillis = maxLatencyMillis;
+        if (config.isAwsEnabled()) {
+            this.flusher = new Thread(this::runFlusher, "cloudwatch-flusher");
+            this.flusher.setDaemon(true);
+            this.flusher.start();
+        } else {
+            this.flusher = null;
+        }
+    }
 
-        MetricDatum metric = MetricDatum.builder()
-                .metricName("ServiceUtilityScore")
-                .value(utilityScore)
-                .unit(StandardUnit.NONE)
-                .timestamp(Instant.now())
-                .dimensions(d -> d.name("ServiceId").value(serviceId))
-                .build();
-
-        addMetricToBuffer(metric);
-        logger.debug("Queued utility score metric for service: {}", serviceId);
+    /**
+     * Publish utility score metric for a microservice.
+     */
+    @Override
+    public void publishUtilityScore(String serviceId, double utilityScore) {
+        record("ServiceUtilityScore", StandardUnit.NONE, utilityScore, serviceId);
     }
 
     /**
      * Publish retirement decision metric.
+     * The reason is free text and is not sent as a dimension, since every distinct reason would
+     * become its own metric series.
      */
+    @Override
     public void publishRetirementDecision(String serviceId, boolean retired, String reason) {
-        if (!config.isAwsEnabled()) {
-            return;
-        }
-
-        MetricDatum metric = MetricDatum.builder()
-                .metricName("RetirementDecision")
-                .value(retired ? 1.0 : 0.0)
-                .unit(StandardUnit.COUNT)
-                .timestamp(Instant.now())
-                .dimensions(d -> {
-                    d.name("ServiceId").value(serviceId);
-                    d.name("Decision").value(retired ? "RETIRED" : "RETAINED");
-                    d.name("Reason").value(reason);
-                })
-                .build();
-
-        addMetricToBuffer(metric);
-        logger.debug("Queued retirement decision metric for service: {}", serviceId);
+        record("RetirementDecision", StandardUnit.COUNT, retired ? 1.0 : 0.0, serviceId,
+                Dimension.builder().name("Decision").value(retired ? "RETIRED" : "RETAINED").build());
     }
 
     /**
      * Publish CPU freed metric.
      */
+    @Override
     public void publishCpuFreed(String serviceId, double cpuFreed) {
-        if (!config.isAwsEnabled()) {
-            return;
-        }
-
-        MetricDatum metric = MetricDatum.builder()
-                .metricName("CPUFreed")
-                .value(cpuFreed)
-                .unit(StandardUnit.PERCENT)
-                .timestamp(Instant.now())
-                .dimensions(d -> d.name("ServiceId").value(serviceId))
-                .build();
-
-        addMetricToBuffer(metric);
-        logger.debug("Queued CPU freed metric for service: {}", serviceId);
+        record("CPUFreed", StandardUnit.PERCENT, cpuFreed, serviceId);
     }
 
     /**
      * Publish dependency count metric.
      */
+    @Override
     public void publishDependencyCount(String serviceId, int dependencyCount) {
+        record("DependencyCount", StandardUnit.COUNT, dependencyCount, serviceId);
+    }
+
+    /**
+     * Queues a fleet-level sample and, for sampled services, a second one with a ServiceId dimension.
+     */
+    private void record(String metricName, StandardUnit unit, double value, String serviceId, Dimension... dimensions) {
         if (!config.isAwsEnabled()) {
             return;
         }
 
-        MetricDatum metric = MetricDatum.builder()
-                .metricName("DependencyCount")
-                .value((double)dependencyCount)
-                .unit(StandardUnit.COUNT)
-                .timestamp(Instant.now())
-                .dimensions(d -> d.name("ServiceId").value(serviceId))
-                .build();
+        Instant now = Instant.now();
+        addMetricToBuffer(MetricDatum.builder()
+                .metricName(metricName)
+                .value(value)
+                .unit(unit)
+                .timestamp(now)
+                .dimensions(dimensions)
+                .build());
 
-        addMetricToBuffer(metric);
-        logger.debug("Queued dependency count metric for service: {}", serviceId);
+        if (config.isServiceMetricSampled(serviceId)) {
+            Dimension[] serviceDimensions = Arrays.copyOf(dimensions, dimensions.length + 1);
+            serviceDimensions[dimensions.length] = Dimension.builder().name("ServiceId").value(serviceId).build();
+            addMetricToBuffer(MetricDatum.builder()
+                    .metricName(metricName)
+                    .value(value)
+                    .unit(unit)
+                    .timestamp(now)
+                    .dimensions(serviceDimensions)
+                    .build());
+        }
+        logger.debug("Queued {} metric for service: {}", metricName, serviceId);
     }
 
     private void addMetricToBuffer(MetricDatum metric) {
-        metricBuffer.add(metric);
-        if (metricBuffer.size() >= BATCH_SIZE) {
-            flush();
+        if (!queue.offer(metric)) {
+            droppedCount.increment();
+            if (!dropWarned) {
+                dropWarned = true;
+                logger.warn("CloudWatch queue is full ({} metrics), dropping metrics until it drains", queueCapacity);
+            }
         }
     }
 
     /**
-     * Flush all buffered metrics to CloudWatch.
+     * Aggregates every sample queued so far and sends the pending series on the calling thread.
+     * Not needed for delivery, since the background flusher sends on size or on its latency timer;
+     * use it where the caller must know the metrics have been handed to CloudWatch.
      */
+    @Override
     public void flush() {
-        if (metricBuffer.isEmpty() || !config.isAwsEnabled()) {
-            return;
+        List<MetricDatum> samples = new ArrayList<>(Math.min(DRAIN_BATCH, queueCapacity));
+        while (queue.drainTo(samples, DRAIN_BATCH) > 0) {
+            aggregator.addAll(samples);
+            samples.clear();
         }
+        sendAggregated();
+    }
 
+    /**
+     * Background loop: waits for a first sample, then keeps aggregating until a full request of
+     * series is pending or the oldest sample has waited maxLatencyMillis.
+     */
+    private void runFlusher() {
+        List<MetricDatum> samples = new ArrayList<>(Math.min(DRAIN_BATCH, queueCapacity));
+        try {
+            while (!closed) {
+                MetricDatum first = queue.poll(maxLatencyMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                aggregator.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxLatencyMillis);
+                int pending;
+                while ((pending = aggregator.size()) < MAX_BATCH_SIZE && !closed) {
+                    // Each sample adds at most one series, so this cannot overfill a request
+                    if (queue.drainTo(samples, Math.min(DRAIN_BATCH, MAX_BATCH_SIZE - pending)) > 0) {
+                        aggregator.addAll(samples);
+                        samples.clear();
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    MetricDatum next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        aggregator.add(next);
+                    }
+                }
+                sendAggregated();
+            }
+        } catch (InterruptedException e) {
+            logger.warn("CloudWatch flusher interrupted, stopping");
+        } finally {
+            sendAggregated();
+        }
+    }
+
+    private void sendAggregated() {
+        List<MetricDatum> datums = aggregator.drain();
+        for (int from = 0; from < datums.size(); from += MAX_BATCH_SIZE) {
+            send(datums.subList(from, Math.min(datums.size(), from + MAX_BATCH_SIZE)));
+        }
+    }
+
+    private void send(List<MetricDatum> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
         try {
             PutMetricDataRequest request = PutMetricDataRequest.builder()
                     .namespace(config.getCloudWatchNamespace())
-                    .metricData(metricBuffer)
+                    .metricData(batch)
                     .build();
 
             cloudWatchClient.putMetricData(request);
-            logger.info("Published {} metrics to CloudWatch", metricBuffer.size());
-            metricBuffer.clear();
+            publishedCount.add(batch.size());
+            requestCount.increment();
+            logger.debug("Published {} metrics to CloudWatch", batch.size());
         } catch (Exception e) {
-            logger.error("Failed to publish metrics to CloudWatch", e);
+            failedCount.add(batch.size());
+            logger.error("Failed to publish {} metrics to CloudWatch", batch.size(), e);
         }
     }
 
     /**
-     * Close the CloudWatch client.
+     * Gets the number of samples waiting for the flusher.
      */
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    /**
+     * Gets the number of samples rejected because the queue was full.
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * Gets the number of samples rolled up into series so far.
+     */
+    public long getAggregatedCount() {
+        return aggregator.getSampleCount();
+    }
+
+    /**
+     * Gets the number of aggregated datums sent to CloudWatch.
+     */
+    public long getPublishedCount() {
+        return publishedCount.sum();
+    }
+
+    /**
+     * Gets the number of aggregated datums in PutMetricData calls that failed.
+     */
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+
+    /**
+     * Gets the number of successful PutMetricData calls.
+     */
+    public long getRequestCount() {
+        return requestCount.sum();
+    }
+
+    /**
+     * Stops the flusher, sends everything still queued and closes the CloudWatch client.
+     */
+    @Override
     public void close() {
+        closed = true;
+        if (flusher != null) {
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warn("Interrupted while waiting for the CloudWatch flusher to finish");
+            }
+        }
         flush();
+        logger.info("Published {} samples as {} series datums in {} CloudWatch requests (dropped: {}, failed: {})",
+                getAggregatedCount(), getPublishedCount(), getRequestCount(), getDroppedCount(), getFailedCount());
         if (cloudWatchClient != null) {
             cloudWatchClient.close();
         }
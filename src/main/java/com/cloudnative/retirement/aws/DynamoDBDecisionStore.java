@@ -3,33 +3,202 @@ package com.cloudnative.retirement.aws;
 import com.cloudnative.retirement.model.RetirementEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.core.exception.SdkServiceException;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
 import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutRequest;
 import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
-import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Stores microservice retirement decisions in AWS DynamoDB.
+ * Decisions are buffered into BatchWriteItem requests of up to MAX_BATCH_ITEMS and written by a
+ * small pool of writer threads; at most maxInFlightBatches batches are queued or running, and
+ * callers block once that limit is reached. A partial batch is written once its oldest item has
+ * waited maxBatchLatencyMillis, so quiet periods do not hold decisions back. Unprocessed items and
+ * throttled requests are resubmitted with jittered exponential backoff. Call flush() to wait for
+ * everything stored so far.
+ *
+ * In write-coalescing mode (AWSServiceConfig.isDynamoDBWriteCoalescing) only transitions are
+ * stored: a decision is skipped when its decision, reason and utility bucket match the service's
+ * last written state. Each service keeps that state in a LATEST item whose version attribute
+ * guards a conditional put, so concurrent writers re-read instead of overwriting a state they
+ * have not seen. The put also requires the stored decidedAt to be older, and a decision older than
+ * the service's stored state is dropped, so transitions that race on the writer threads cannot
+ * roll a service back to an earlier state. Up to MAX_TRACKED_SERVICES states are cached in memory, and a history item is
+ * batched for every transition that wins. A writer's cache only learns of other writers' changes
+ * through conflicts, so services are best decided by one writer each.
+ *
+ * Reads return typed RetirementEvents: queryDecisions pages lazily through a time range,
+ * queryDecisionsForService serves repeated lookups from a small LRU cache whose entries expire
+ * after a TTL, and scanDecisions exports the whole table with a parallel scan. This store's own
+ * writes drop a service's entry at once; writes by other processes show up once it expires.
  */
 public class DynamoDBDecisionStore {
     private static final Logger logger = LoggerFactory.getLogger(DynamoDBDecisionStore.class);
 
+    static final int MAX_BATCH_ITEMS = 25; // BatchWriteItem limit per request
+    private static final int DEFAULT_MAX_IN_FLIGHT_BATCHES = 8;
+    private static final long DEFAULT_MAX_BATCH_LATENCY_MILLIS = 1000;
+    private static final int MAX_ATTEMPTS = 10;
+    private static final long BASE_BACKOFF_MILLIS = 25;
+    private static final long MAX_BACKOFF_MILLIS = 2000;
+    private static final int ITEM_CAPACITY = 16; // Presized for the seven attributes, ten on LATEST items
+    static final String LATEST_SORT_KEY = "LATEST";
+    private static final double UTILITY_BUCKET_WIDTH = 0.05;
+    private static final int MAX_TRACKED_SERVICES = 100_000;
+    private static final int MAX_CACHED_SERVICES = 1024;
+    private static final long DEFAULT_CACHE_TTL_MILLIS = 30_000;
+    private static final String MIN_TIMESTAMP = "0000";
+    private static final String MAX_TIMESTAMP = "9999"; // Still sorts before LATEST
+    private static final String[] EVENT_ATTRIBUTES =
+            {"utilityScore", "dependencyCount", "decision", "cpuFreed", "reason"};
+
     private final AWSServiceConfig config;
     private final DynamoDbClient dynamoDbClient;
+    private final int maxInFlightBatches;
+    private final Semaphore inFlight;
+    private final ExecutorService writers;
+    private final ScheduledExecutorService batchTimer; // Null when AWS is disabled
+    private final long maxBatchLatencyNanos;
+    private final Map<String, AttributeValue> decisionValues = new ConcurrentHashMap<>();
+    private final LongAdder writtenCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder retryCount = new LongAdder();
+    private final LongAdder requestCount = new LongAdder();
+    private final LongAdder coalescedCount = new LongAdder();
+    private final LongAdder conflictCount = new LongAdder();
+    private final LongAdder staleCount = new LongAdder();
+
+    // Recent queryDecisionsForService results, least recently used first
+    private final Map<String, CachedDecisions> decisionCache = Collections.synchronizedMap(
+            new LinkedHashMap<String, CachedDecisions>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedDecisions> eldest) {
+                    return size() > MAX_CACHED_SERVICES;
+                }
+            });
+    // Token of the query currently loading each service; a write removes it so the result isn't cached
+    private final Map<String, Object> cacheLoads = new ConcurrentHashMap<>();
+    private final LongAdder cacheHitCount = new LongAdder();
+    private volatile long cacheTtlNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_CACHE_TTL_MILLIS);
+
+    // Last written state per service in coalescing mode, least recently used first; null otherwise
+    private final Map<String, DecisionState> latestStates;
+
+    // Items of the batch being filled, keyed by primary key so a batch never repeats a key
+    private final Object batchLock = new Object();
+    private Map<String, WriteRequest> pending = new LinkedHashMap<>();
+    private long pendingSince; // nanoTime of the oldest pending item
 
     public DynamoDBDecisionStore(AWSServiceConfig config) {
-        this.config = config;
-        this.dynamoDbClient = DynamoDbClient.builder()
+        this(config, DynamoDbClient.builder()
                 .region(config.getRegion())
-                .build();
+                .build(), DEFAULT_MAX_IN_FLIGHT_BATCHES);
+    }
+
+    /**
+     * @param maxInFlightBatches batches that may be queued or running before store calls block;
+     *                           also the number of writer threads
+     */
+    public DynamoDBDecisionStore(AWSServiceConfig config, int maxInFlightBatches) {
+        this(config, DynamoDbClient.builder()
+                .region(config.getRegion())
+                .build(), maxInFlightBatches);
+    }
+
+    DynamoDBDecisionStore(AWSServiceConfig config, DynamoDbClient dynamoDbClient, int maxInFlightBatches) {
+        this(config, dynamoDbClient, maxInFlightBatches, config.isDynamoDBWriteCoalescing());
+    }
+
+    DynamoDBDecisionStore(AWSServiceConfig config, DynamoDbClient dynamoDbClient, int maxInFlightBatches,
+                          boolean coalesceWrites) {
+        this(config, dynamoDbClient, maxInFlightBatches, coalesceWrites, DEFAULT_MAX_BATCH_LATENCY_MILLIS);
+    }
+
+    /**
+     * @param maxBatchLatencyMillis longest a decision waits in a partial batch before it is written
+     */
+    DynamoDBDecisionStore(AWSServiceConfig config, DynamoDbClient dynamoDbClient, int maxInFlightBatches,
+                          boolean coalesceWrites, long maxBatchLatencyMillis) {
+        if (maxInFlightBatches < 1) {
+            throw new IllegalArgumentException("In-flight batch limit must be positive: " + maxInFlightBatches);
+        }
+        if (maxBatchLatencyMillis < 1) {
+            throw new IllegalArgumentException("Batch latency must be positive: " + maxBatchLatencyMillis);
+        }
+        this.config = config;
+        this.dynamoDbClient = dynamoDbClient;
+        this.maxInFlightBatches = maxInFlightBatches;
+        this.inFlight = new Semaphore(maxInFlightBatches);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.writers = Executors.newFixedThreadPool(maxInFlightBatches, runnable -> {
+            Thread thread = new Thread(runnable, "dynamodb-writer-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.latestStates = coalesceWrites ? Collections.synchronizedMap(
+                new LinkedHashMap<String, DecisionState>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, DecisionState> eldest) {
+                        return size() > MAX_TRACKED_SERVICES;
+                    }
+                }) : null;
+        this.maxBatchLatencyNanos = TimeUnit.MILLISECONDS.toNanos(maxBatchLatencyMillis);
+        if (config.isAwsEnabled()) {
+            ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "dynamodb-batch-timer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            // Checking four times per latency period sends a batch at most 1.25 periods after its first item
+            long period = Math.max(1, maxBatchLatencyMillis / 4);
+            timer.scheduleWithFixedDelay(this::writeExpiredBatch, period, period, TimeUnit.MILLISECONDS);
+            this.batchTimer = timer;
+        } else {
+            this.batchTimer = null;
+        }
     }
 
     /**
      * Store a retirement decision event in DynamoDB.
+     * The item is written with the next full batch, when the partial batch reaches the latency
+     * limit or on flush(); a later event with the same
+     * service and timestamp replaces it if both are still pending. In coalescing mode a decision
+     * that repeats the last written state, or is older than it, is skipped.
      */
     public void storeRetirementDecision(RetirementEvent event) {
         if (!config.isAwsEnabled()) {
@@ -37,86 +206,639 @@ public class DynamoDBDecisionStore {
             return;
         }
 
+        if (latestStates == null) {
+            addToBatch(event, false);
+            return;
+        }
+        DecisionState desired = new DecisionState(event);
+        DecisionState known = latestStates.get(event.getServiceId());
+        if (known != null && !known.isBefore(desired)) {
+            staleCount.increment();
+            return;
+        }
+        if (known != null && known.sameState(desired)) {
+            coalescedCount.increment();
+            return;
+        }
+        submit(() -> persistTransition(event, desired, known), 1);
+    }
+
+    /**
+     * Adds a history item to the batch being filled.
+     * @param inline write a full batch on this thread; set by writer threads, which already hold
+     *               an in-flight permit and must not wait for another
+     */
+    private void addToBatch(RetirementEvent event, boolean inline) {
+        String timestamp = event.getTimestamp().toString();
+        WriteRequest request = WriteRequest.builder()
+                .putRequest(PutRequest.builder().item(toItem(event, timestamp)).build())
+                .build();
+        invalidateCached(event.getServiceId());
+        List<WriteRequest> full = null;
+        synchronized (batchLock) {
+            if (pending.isEmpty()) {
+                pendingSince = System.nanoTime();
+            }
+            pending.put(event.getServiceId() + '\u0000' + timestamp, request);
+            if (pending.size() >= MAX_BATCH_ITEMS) {
+                full = new ArrayList<>(pending.values());
+                pending = new LinkedHashMap<>();
+            }
+        }
+        if (full != null) {
+            if (inline) {
+                writeBatch(full);
+            } else {
+                submitBatch(full);
+            }
+        }
+        logger.debug("Queued retirement decision for DynamoDB: {} ({})", event.getServiceId(), event.getDecision());
+    }
+
+    /**
+     * Writes a transition to the service's LATEST item and, if that wins, queues its history item.
+     * @param known the cached state, or null to read the stored one first
+     */
+    private void persistTransition(RetirementEvent event, DecisionState desired, DecisionState known) {
+        String serviceId = event.getServiceId();
+        boolean checked = known != null;
+        DecisionState stored = known;
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                if (!checked) {
+                    stored = readLatest(serviceId);
+                    checked = true;
+                    if (stored != null) {
+                        remember(serviceId, stored);
+                        if (!stored.isBefore(desired)) {
+                            // A newer decision already won; writing this one would roll the service back
+                            staleCount.increment();
+                            return;
+                        }
+                        if (stored.sameState(desired)) {
+                            coalescedCount.increment();
+                            return;
+                        }
+                    }
+                }
+                long version = stored == null ? 1 : stored.version + 1;
+                dynamoDbClient.putItem(latestRequest(event, desired, stored, version));
+                remember(serviceId, desired.withVersion(version));
+                addToBatch(event, true);
+                return;
+            } catch (ConditionalCheckFailedException e) {
+                // Another writer moved the LATEST item on; compare against what it wrote
+                conflictCount.increment();
+                checked = false;
+                continue;
+            } catch (SdkServiceException e) {
+                if (!e.isThrottlingException()) {
+                    fail(1, e);
+                    return;
+                }
+            } catch (Exception e) {
+                fail(1, e);
+                return;
+            }
+
+            retryCount.increment();
+            try {
+                Thread.sleep(backoffMillis(attempt));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(1, e);
+                return;
+            }
+        }
+        fail(1, null);
+    }
+
+    /**
+     * Caches a service's state unless a writer thread already cached a later version.
+     */
+    private void remember(String serviceId, DecisionState state) {
+        latestStates.merge(serviceId, state, (cached, update) -> update.version > cached.version ? update : cached);
+    }
+
+    private PutItemRequest latestRequest(RetirementEvent event, DecisionState desired, DecisionState stored,
+                                         long version) {
+        Map<String, AttributeValue> item = toItem(event, LATEST_SORT_KEY);
+        AttributeValue decidedAt = AttributeValue.builder().s(desired.decidedAt).build();
+        item.put("decidedAt", decidedAt);
+        item.put("utilityBucket", AttributeValue.builder().n(String.valueOf(desired.utilityBucket)).build());
+        item.put("version", AttributeValue.builder().n(String.valueOf(version)).build());
+
+        PutItemRequest.Builder request = PutItemRequest.builder()
+                .tableName(config.getDynamoDBTableName())
+                .item(item);
+        if (stored == null) {
+            return request.conditionExpression("attribute_not_exists(serviceId)").build();
+        }
+        Map<String, String> names = new HashMap<>(4);
+        names.put("#version", "version");
+        names.put("#decidedAt", "decidedAt");
+        Map<String, AttributeValue> values = new HashMap<>(4);
+        values.put(":expected", AttributeValue.builder().n(String.valueOf(stored.version)).build());
+        values.put(":decidedAt", decidedAt);
+        return request.conditionExpression("#version = :expected AND #decidedAt < :decidedAt")
+                .expressionAttributeNames(names)
+                .expressionAttributeValues(values)
+                .build();
+    }
+
+    private DecisionState readLatest(String serviceId) {
+        Map<String, AttributeValue> key = new HashMap<>(4);
+        key.put("serviceId", AttributeValue.builder().s(serviceId).build());
+        key.put("timestamp", AttributeValue.builder().s(LATEST_SORT_KEY).build());
+        GetItemResponse response = dynamoDbClient.getItem(GetItemRequest.builder()
+                .tableName(config.getDynamoDBTableName())
+                .key(key)
+                .consistentRead(true)
+                .build());
+        if (!response.hasItem() || response.item().isEmpty()) {
+            return null;
+        }
+        Map<String, AttributeValue> item = response.item();
+        AttributeValue reason = item.get("reason");
+        return new DecisionState(item.get("decision").s(), reason == null ? null : reason.s(),
+                Long.parseLong(item.get("utilityBucket").n()), item.get("decidedAt").s(),
+                Long.parseLong(item.get("version").n()));
+    }
+
+    /**
+     * Stores a cycle's decisions and waits until they have been written or have failed.
+     */
+    public void storeRetirementDecisions(Collection<RetirementEvent> events) {
+        for (RetirementEvent event : events) {
+            storeRetirementDecision(event);
+        }
+        flush();
+    }
+
+    private Map<String, AttributeValue> toItem(RetirementEvent event, String timestamp) {
+        Map<String, AttributeValue> item = new HashMap<>(ITEM_CAPACITY);
+        // Partition key: serviceId, sort key: timestamp
+        item.put("serviceId", AttributeValue.builder().s(event.getServiceId()).build());
+        item.put("timestamp", AttributeValue.builder().s(timestamp).build());
+        item.put("utilityScore", AttributeValue.builder().n(String.valueOf(event.getUtilityScore())).build());
+        item.put("dependencyCount", AttributeValue.builder().n(String.valueOf(event.getDependencyCount())).build());
+        // Decisions are a handful of constants, so their attribute values are shared
+        item.put("decision", decisionValues.computeIfAbsent(event.getDecision(),
+                decision -> AttributeValue.builder().s(decision).build()));
+        item.put("cpuFreed", AttributeValue.builder().n(String.valueOf(event.getCpuFreed())).build());
+        item.put("reason", AttributeValue.builder().s(event.getReason()).build());
+        return item;
+    }
+
+    private void submitBatch(List<WriteRequest> batch) {
+        submit(() -> writeBatch(batch), batch.size());
+    }
+
+    /**
+     * Hands work to the writer pool, blocking while maxInFlightBatches tasks are in flight.
+     */
+    private void submit(Runnable task, int decisions) {
+        inFlight.acquireUninterruptibly();
         try {
-            Map<String, AttributeValue> item = new HashMap<>();
-            
-            // Partition key: serviceId
-            item.put("serviceId", AttributeValue.builder()
-                    .s(event.getServiceId())
-                    .build());
-            
-            // Sort key: timestamp
-            item.put("timestamp", AttributeValue.builder()
-                    .s(event.getTimestamp().toString())
-                    .build());
-            
-            // Other attributes
-            item.put("utilityScore", AttributeValue.builder()
-                    .n(String.valueOf(event.getUtilityScore()))
-                    .build());
-            
-            item.put("dependencyCount", AttributeValue.builder()
-                    .n(String.valueOf(event.getDependencyCount()))
-                    .build());
-            
-            item.put("decision", AttributeValue.builder()
-                    .s(event.getDecision())
-                    .build());
-            
-            item.put("cpuFreed", AttributeValue.builder()
-                    .n(String.valueOf(event.getCpuFreed()))
-                    .build());
-            
-            item.put("reason", AttributeValue.builder()
-                    .s(event.getReason())
-                    .build());
-
-            PutItemRequest request = PutItemRequest.builder()
-                    .tableName(config.getDynamoDBTableName())
-                    .item(item)
-                    .build();
-
-            dynamoDbClient.putItem(request);
-            logger.info("Stored retirement decision in DynamoDB for service: {} ({})", 
-                    event.getServiceId(), event.getDecision());
-        } catch (Exception e) {
-            logger.error("Failed to store retirement decision in DynamoDB", e);
+            writers.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.release();
+            failedCount.add(decisions);
+            logger.error("DynamoDB store is closed, dropping {} decisions", decisions);
+        }
+    }
+
+    private void writeBatch(List<WriteRequest> batch) {
+        String table = config.getDynamoDBTableName();
+        List<WriteRequest> remaining = batch;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                BatchWriteItemResponse response = dynamoDbClient.batchWriteItem(BatchWriteItemRequest.builder()
+                        .requestItems(Collections.singletonMap(table, remaining))
+                        .build());
+                requestCount.increment();
+                List<WriteRequest> unprocessed = response.unprocessedItems().get(table);
+                int left = unprocessed == null ? 0 : unprocessed.size();
+                writtenCount.add(remaining.size() - left);
+                for (WriteRequest written : remaining) {
+                    invalidateCached(written.putRequest().item().get("serviceId").s());
+                }
+                if (left == 0) {
+                    return;
+                }
+                remaining = unprocessed;
+            } catch (SdkServiceException e) {
+                if (!e.isThrottlingException()) {
+                    fail(remaining.size(), e);
+                    return;
+                }
+            } catch (Exception e) {
+                fail(remaining.size(), e);
+                return;
+            }
+
+            if (attempt >= MAX_ATTEMPTS) {
+                fail(remaining.size(), null);
+                return;
+            }
+            retryCount.increment();
+            try {
+                Thread.sleep(backoffMillis(attempt));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(remaining.size(), e);
+                return;
+            }
         }
     }
 
     /**
-     * Query retirement decisions for a specific service.
+     * Full jitter: a uniform delay up to an exponentially growing, capped limit, so writers that
+     * were throttled together do not retry together.
+     */
+    private static long backoffMillis(int attempt) {
+        long limit = Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << Math.min(attempt, 16));
+        return ThreadLocalRandom.current().nextLong(limit + 1);
+    }
+
+    private void fail(int decisions, Exception cause) {
+        failedCount.add(decisions);
+        if (cause == null) {
+            logger.error("Gave up storing {} retirement decisions in DynamoDB after {} attempts",
+                    decisions, MAX_ATTEMPTS);
+        } else {
+            logger.error("Failed to store {} retirement decisions in DynamoDB", decisions, cause);
+        }
+    }
+
+    /**
+     * Submits the partial batch once its oldest item has waited the maximum batch latency.
+     * Runs on the batch timer, which may block here while the writers are saturated.
+     */
+    private void writeExpiredBatch() {
+        List<WriteRequest> expired = null;
+        synchronized (batchLock) {
+            if (!pending.isEmpty() && System.nanoTime() - pendingSince >= maxBatchLatencyNanos) {
+                expired = new ArrayList<>(pending.values());
+                pending = new LinkedHashMap<>();
+            }
+        }
+        if (expired != null) {
+            logger.debug("Writing partial batch of {} decisions after the latency limit", expired.size());
+            submitBatch(expired);
+        }
+    }
+
+    /**
+     * Writes the partial batch and waits until every batch submitted so far has finished.
+     */
+    public void flush() {
+        // Transitions still running may add history items to the partial batch
+        awaitInFlight();
+        List<WriteRequest> partial = null;
+        synchronized (batchLock) {
+            if (!pending.isEmpty()) {
+                partial = new ArrayList<>(pending.values());
+                pending = new LinkedHashMap<>();
+            }
+        }
+        if (partial != null) {
+            submitBatch(partial);
+        }
+        awaitInFlight();
+    }
+
+    private void awaitInFlight() {
+        inFlight.acquireUninterruptibly(maxInFlightBatches);
+        inFlight.release(maxInFlightBatches);
+    }
+
+    /**
+     * Gets the number of decisions written to DynamoDB.
+     */
+    public long getWrittenCount() {
+        return writtenCount.sum();
+    }
+
+    /**
+     * Gets the number of decisions that could not be written.
+     */
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+
+    /**
+     * Gets the number of BatchWriteItem resubmissions after unprocessed items or throttling.
+     */
+    public long getRetryCount() {
+        return retryCount.sum();
+    }
+
+    /**
+     * Gets the number of decisions skipped in coalescing mode because they repeated the stored state.
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    /**
+     * Gets the number of decisions dropped in coalescing mode because a newer one was already stored.
+     */
+    public long getStaleCount() {
+        return staleCount.sum();
+    }
+
+    /**
+     * Gets the number of LATEST writes that lost to a concurrent writer and were re-evaluated.
+     */
+    public long getConflictCount() {
+        return conflictCount.sum();
+    }
+
+    /**
+     * Gets the number of BatchWriteItem calls that reached DynamoDB.
+     */
+    public long getRequestCount() {
+        return requestCount.sum();
+    }
+
+    /**
+     * Gets every stored decision of a service, oldest first, through a read-through cache.
+     * The cache holds the last MAX_CACHED_SERVICES services looked up for up to the cache TTL, and
+     * drops a service as soon as this store queues or writes a decision for it.
+     * @return the decisions, or an empty list if AWS is disabled or the query fails
      */
-    public void queryDecisionsForService(String serviceId) {
+    public List<RetirementEvent> queryDecisionsForService(String serviceId) {
         if (!config.isAwsEnabled()) {
-            return;
+            return Collections.emptyList();
         }
 
-        try {
-            Map<String, AttributeValue> expressionAttributeValues = new HashMap<>();
-            expressionAttributeValues.put(":serviceId", AttributeValue.builder()
-                    .s(serviceId)
-                    .build());
-
-            QueryRequest request = QueryRequest.builder()
-                    .tableName(config.getDynamoDBTableName())
-                    .keyConditionExpression("serviceId = :serviceId")
-                    .expressionAttributeValues(expressionAttributeValues)
-                    .build();
-
-            QueryResponse response = dynamoDbClient.query(request);
-            logger.info("Found {} decisions for service: {}", response.count(), serviceId);
+        CachedDecisions cached = decisionCache.get(serviceId);
+        if (cached != null && System.nanoTime() - cached.loadedAt < cacheTtlNanos) {
+            cacheHitCount.increment();
+            return cached.decisions;
+        }
+        // A write to this service while the query runs removes the token, and the result isn't cached
+        Object token = new Object();
+        cacheLoads.put(serviceId, token);
+        long loadedAt = System.nanoTime();
+        try (Stream<RetirementEvent> decisions = queryDecisions(serviceId, null, null)) {
+            List<RetirementEvent> result = Collections.unmodifiableList(decisions.collect(Collectors.toList()));
+            synchronized (decisionCache) {
+                if (cacheLoads.remove(serviceId, token)) {
+                    decisionCache.put(serviceId, new CachedDecisions(result, loadedAt));
+                }
+            }
+            logger.debug("Found {} decisions for service: {}", result.size(), serviceId);
+            return result;
         } catch (Exception e) {
+            cacheLoads.remove(serviceId, token);
             logger.error("Failed to query decisions for service: {}", serviceId, e);
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Queries a service's decisions in a time range, oldest first.
+     * Pages are fetched lazily as the stream is consumed, following LastEvaluatedKey.
+     *
+     * @param from earliest decision time, inclusive, or null for no lower bound
+     * @param to latest decision time, inclusive, or null for no upper bound
+     * @param attributes attributes to fetch besides the key; none fetches every event attribute,
+     *                   and attributes not fetched are 0 or null in the returned events
+     */
+    public Stream<RetirementEvent> queryDecisions(String serviceId, LocalDateTime from, LocalDateTime to,
+                                                  String... attributes) {
+        if (!config.isAwsEnabled()) {
+            return Stream.empty();
+        }
+
+        Map<String, String> names = new HashMap<>();
+        String projection = projection(attributes, names);
+        Map<String, AttributeValue> values = new HashMap<>(4);
+        values.put(":serviceId", AttributeValue.builder().s(serviceId).build());
+        values.put(":from", AttributeValue.builder().s(from == null ? MIN_TIMESTAMP : from.toString()).build());
+        values.put(":to", AttributeValue.builder().s(to == null ? MAX_TIMESTAMP : to.toString()).build());
+
+        // The range stops short of the LATEST item, which sorts after every timestamp
+        QueryRequest request = QueryRequest.builder()
+                .tableName(config.getDynamoDBTableName())
+                .keyConditionExpression("#serviceId = :serviceId AND #ts BETWEEN :from AND :to")
+                .projectionExpression(projection)
+                .expressionAttributeNames(names)
+                .expressionAttributeValues(values)
+                .build();
+        return dynamoDbClient.queryPaginator(request).items().stream().map(DynamoDBDecisionStore::toEvent);
+    }
+
+    /**
+     * Reads every stored decision in the table with a parallel scan, one thread per segment, for
+     * fleet-wide exports. LATEST items are skipped. The sink is called concurrently from the
+     * segment threads, in no particular order.
+     *
+     * @param totalSegments number of scan segments read in parallel
+     * @return the number of decisions delivered
+     */
+    public long scanDecisions(int totalSegments, Consumer<? super RetirementEvent> sink) {
+        if (totalSegments < 1) {
+            throw new IllegalArgumentException("Scan needs at least one segment: " + totalSegments);
+        }
+        if (!config.isAwsEnabled()) {
+            return 0;
+        }
+
+        Map<String, String> names = new HashMap<>();
+        String projection = projection(new String[0], names);
+        LongAdder delivered = new LongAdder();
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService scanners = Executors.newFixedThreadPool(totalSegments, runnable -> {
+            Thread thread = new Thread(runnable, "dynamodb-scan-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> segments = new ArrayList<>(totalSegments);
+            for (int segment = 0; segment < totalSegments; segment++) {
+                ScanRequest request = ScanRequest.builder()
+                        .tableName(config.getDynamoDBTableName())
+                        .segment(segment)
+                        .totalSegments(totalSegments)
+                        .projectionExpression(projection)
+                        .expressionAttributeNames(names)
+                        .build();
+                segments.add(scanners.submit(() -> {
+                    for (Map<String, AttributeValue> item : dynamoDbClient.scanPaginator(request).items()) {
+                        if (!LATEST_SORT_KEY.equals(item.get("timestamp").s())) {
+                            sink.accept(toEvent(item));
+                            delivered.increment();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> segment : segments) {
+                segment.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while scanning decisions", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Failed to scan decisions", e.getCause());
+        } finally {
+            scanners.shutdownNow();
         }
+        logger.info("Scanned {} decisions in {} segments", delivered.sum(), totalSegments);
+        return delivered.sum();
     }
 
     /**
-     * Close the DynamoDB client.
+     * Builds a projection of the key and the given event attributes, registering a # name for each.
+     */
+    private static String projection(String[] attributes, Map<String, String> names) {
+        names.put("#serviceId", "serviceId");
+        names.put("#ts", "timestamp");
+        StringBuilder projection = new StringBuilder("#serviceId, #ts");
+        for (String attribute : attributes.length == 0 ? EVENT_ATTRIBUTES : attributes) {
+            if (!attribute.equals("serviceId") && !attribute.equals("timestamp")) {
+                names.put("#" + attribute, attribute);
+                projection.append(", #").append(attribute);
+            }
+        }
+        return projection.toString();
+    }
+
+    private static RetirementEvent toEvent(Map<String, AttributeValue> item) {
+        return new RetirementEvent(
+                item.get("serviceId").s(),
+                LocalDateTime.parse(item.get("timestamp").s()),
+                number(item, "utilityScore"),
+                (int) number(item, "dependencyCount"),
+                text(item, "decision"),
+                number(item, "cpuFreed"),
+                text(item, "reason"));
+    }
+
+    private static double number(Map<String, AttributeValue> item, String name) {
+        AttributeValue value = item.get(name);
+        return value == null || value.n() == null ? 0.0 : Double.parseDouble(value.n());
+    }
+
+    private static String text(Map<String, AttributeValue> item, String name) {
+        AttributeValue value = item.get(name);
+        return value == null ? null : value.s();
+    }
+
+    private void invalidateCached(String serviceId) {
+        synchronized (decisionCache) {
+            cacheLoads.remove(serviceId);
+            decisionCache.remove(serviceId);
+        }
+    }
+
+    /**
+     * Sets how long a queryDecisionsForService result is served from the cache. Decisions written
+     * by other processes can be this stale; a read-only process should keep it short.
+     */
+    public void setCacheTtlMillis(long ttlMillis) {
+        if (ttlMillis < 0) {
+            throw new IllegalArgumentException("Cache TTL must not be negative: " + ttlMillis);
+        }
+        this.cacheTtlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    /**
+     * Gets the number of queryDecisionsForService calls answered from the cache.
+     */
+    public long getCacheHitCount() {
+        return cacheHitCount.sum();
+    }
+
+    /**
+     * Writes pending decisions, stops the writer threads and closes the DynamoDB client.
      */
     public void close() {
+        // Wait for a running timer pass so it cannot hand a batch to the writers after they stop
+        if (batchTimer != null) {
+            batchTimer.shutdownNow();
+            awaitStop(batchTimer, "DynamoDB batch timer");
+        }
+        if (config.isAwsEnabled()) {
+            flush();
+        }
+        writers.shutdown();
+        awaitStop(writers, "DynamoDB writers");
+        logger.info("Stored {} retirement decisions in {} DynamoDB requests (coalesced: {}, retries: {}, failed: {})",
+                getWrittenCount(), getRequestCount(), getCoalescedCount(), getRetryCount(), getFailedCount());
         if (dynamoDbClient != null) {
             dynamoDbClient.close();
         }
     }
+
+    private static void awaitStop(ExecutorService executor, String name) {
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warn("{} did not stop within 30 seconds", name);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while waiting for {} to stop", name);
+        }
+    }
+
+    private static final class CachedDecisions {
+        final List<RetirementEvent> decisions;
+        final long loadedAt; // nanoTime when the query started
+
+        CachedDecisions(List<RetirementEvent> decisions, long loadedAt) {
+            this.decisions = decisions;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    /**
+     * What coalescing compares: the decision, its reason and the utility score bucket.
+     * decidedAt orders states; ISO timestamps compare correctly as strings, as in the sort key.
+     */
+    private static final class DecisionState {
+        final String decision;
+        final String reason;
+        final long utilityBucket;
+        final String decidedAt;
+        final long version;
+
+        DecisionState(RetirementEvent event) {
+            this(event.getDecision(), event.getReason(),
+                 (long) Math.floor(event.getUtilityScore() / UTILITY_BUCKET_WIDTH), event.getTimestamp().toString(), 0);
+        }
+
+        DecisionState(String decision, String reason, long utilityBucket, String decidedAt, long version) {
+            this.decision = decision;
+            this.reason = reason;
+            this.utilityBucket = utilityBucket;
+            this.decidedAt = decidedAt;
+            this.version = version;
+        }
+
+        DecisionState withVersion(long newVersion) {
+            return new DecisionState(decision, reason, utilityBucket, decidedAt, newVersion);
+        }
+
+        boolean isBefore(DecisionState other) {
+            return decidedAt.compareTo(other.decidedAt) < 0;
+        }
+
+        boolean sameState(DecisionState other) {
+            return utilityBucket == other.utilityBucket
+                && Objects.equals(decision, other.decision)
+                && Objects.equals(reason, other.reason);
+        }
+    }
 }
@@ -0,0 +1,368 @@
+package com.cloudnative.retirement.aws;
+
+import com.cloudnative.retirement.model.RetirementEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.cloudwatch.model.StandardUnit;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes retirement metrics as CloudWatch Embedded Metric Format (EMF) JSON lines, to stdout or
+ * to rolling files, for a log agent to ship instead of calling PutMetricData.
+ * Each line is built in one pre-sized, reused buffer, encoded to UTF-8 bytes and handed to the
+ * stream in a single write, so publishing costs no network round trip and a line is never split.
+ * File output is buffered and flushed at least every flush interval by a daemon thread. Metric names, units and dimensions match
+ * CloudWatchMetricsPublisher: series are fleet-wide, RetirementDecision is split by Decision,
+ * and sampled services add a ServiceId dimension set. ServiceId and Reason are always logged as
+ * properties, which keeps them searchable without creating series.
+ * Methods are synchronized, so one writer can be shared by all deciding threads.
+ *
+ * On stdout, lines go straight to System.out, whose writes are atomic, so they interleave with
+ * other output only between lines. The log agent still parses every stdout line, so in EMF mode
+ * the logback CONSOLE appender must not write to stdout too: drop it, point it at System.err, or
+ * set EMF_LOG_DIR to write files instead.
+ */
+public class EmfMetricsWriter implements RetirementMetricsSink {
+    private static final Logger logger = LoggerFactory.getLogger(EmfMetricsWriter.class);
+
+    public static final long DEFAULT_MAX_FILE_BYTES = 64L * 1024 * 1024;
+    private static final int LINE_CAPACITY = 1024;
+    private static final int WRITER_BUFFER = 64 * 1024;
+    private static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000;
+
+    private static final String UTILITY = "ServiceUtilityScore";
+    private static final String DECISION = "RetirementDecision";
+    private static final String CPU_FREED = "CPUFreed";
+    private static final String DEPENDENCIES = "DependencyCount";
+
+    private final AWSServiceConfig config;
+    private final Path directory;
+    private final String baseName;
+    private final long maxFileBytes;
+    private final StringBuilder line = new StringBuilder(LINE_CAPACITY);
+    private byte[] bytes = new byte[LINE_CAPACITY];
+    private final List<String> files = new ArrayList<>();
+    private int partIndex = -1; // Last part number used; -1 until the directory is scanned
+    private final ScheduledExecutorService flusher;
+    private OutputStream out;
+    private long fileBytes;
+    private long lineCount;
+    private long failedCount;
+
+    /**
+     * Creates a writer that prints EMF lines to stdout.
+     */
+    public EmfMetricsWriter(AWSServiceConfig config) {
+        this(config, System.out, DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Creates a writer that writes each EMF line to a stream in one call; the stream is not closed.
+     */
+    EmfMetricsWriter(AWSServiceConfig config, OutputStream stream, long flushIntervalMillis) {
+        this.config = config;
+        this.directory = null;
+        this.baseName = null;
+        this.maxFileBytes = 0;
+        this.out = stream;
+        this.flusher = startFlusher(flushIntervalMillis);
+    }
+
+    /**
+     * Creates a writer that appends EMF lines to baseName_partNNNN.jsonl files in a directory.
+     * Numbering continues after the highest part already in the directory, so parts written by
+     * an earlier run are never overwritten.
+     *
+     * @param maxFileBytes roll to a new file after this many bytes; 0 disables rolling
+     */
+    public EmfMetricsWriter(AWSServiceConfig config, Path directory, String baseName, long maxFileBytes) {
+        this(config, directory, baseName, maxFileBytes, DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    /**
+     * @param flushIntervalMillis longest a written line stays in the file buffer
+     */
+    EmfMetricsWriter(AWSServiceConfig config, Path directory, String baseName, long maxFileBytes,
+                     long flushIntervalMillis) {
+        if (maxFileBytes < 0) {
+            throw new IllegalArgumentException("Roll limit must not be negative: " + maxFileBytes);
+        }
+        this.config = config;
+        this.directory = directory;
+        this.baseName = baseName;
+        this.maxFileBytes = maxFileBytes;
+        this.flusher = startFlusher(flushIntervalMillis);
+    }
+
+    private ScheduledExecutorService startFlusher(long flushIntervalMillis) {
+        if (flushIntervalMillis < 1) {
+            throw new IllegalArgumentException("Flush interval must be positive: " + flushIntervalMillis);
+        }
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "emf-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        return timer;
+    }
+
+    @Override
+    public synchronized void publishUtilityScore(String serviceId, double utilityScore) {
+        beginLine();
+        appendDirective(serviceId, false, UTILITY, StandardUnit.NONE);
+        endDirectives(serviceId);
+        appendValue(UTILITY, utilityScore);
+        endLine();
+    }
+
+    @Override
+    public synchronized void publishRetirementDecision(String serviceId, boolean retired, String reason) {
+        beginLine();
+        appendDirective(serviceId, true, DECISION, StandardUnit.COUNT);
+        endDirectives(serviceId);
+        appendDecisionProperties(retired, reason);
+        appendValue(DECISION, retired ? 1 : 0);
+        endLine();
+    }
+
+    @Override
+    public synchronized void publishCpuFreed(String serviceId, double cpuFreed) {
+        beginLine();
+        appendDirective(serviceId, false, CPU_FREED, StandardUnit.PERCENT);
+        endDirectives(serviceId);
+        appendValue(CPU_FREED, cpuFreed);
+        endLine();
+    }
+
+    @Override
+    public synchronized void publishDependencyCount(String serviceId, int dependencyCount) {
+        beginLine();
+        appendDirective(serviceId, false, DEPENDENCIES, StandardUnit.COUNT);
+        endDirectives(serviceId);
+        appendValue(DEPENDENCIES, dependencyCount);
+        endLine();
+    }
+
+    /**
+     * Writes all four metrics of a decision as a single line.
+     */
+    @Override
+    public synchronized void publishRetirementEvent(RetirementEvent event) {
+        String serviceId = event.getServiceId();
+        boolean retired = "RETIRE".equals(event.getDecision());
+        beginLine();
+        appendDirective(serviceId, false, UTILITY, StandardUnit.NONE, CPU_FREED, StandardUnit.PERCENT,
+                DEPENDENCIES, StandardUnit.COUNT);
+        appendDirective(serviceId, true, DECISION, StandardUnit.COUNT);
+        endDirectives(serviceId);
+        appendDecisionProperties(retired, event.getReason());
+        appendValue(UTILITY, event.getUtilityScore());
+        appendValue(DECISION, retired ? 1 : 0);
+        appendValue(CPU_FREED, event.getCpuFreed());
+        appendValue(DEPENDENCIES, event.getDependencyCount());
+        endLine();
+    }
+
+    private void beginLine() {
+        line.setLength(0);
+        line.append("{\"_aws\":{\"Timestamp\":").append(System.currentTimeMillis())
+            .append(",\"CloudWatchMetrics\":[");
+    }
+
+    /**
+     * Appends one metric directive.
+     * @param metrics alternating metric names and units
+     */
+    private void appendDirective(String serviceId, boolean byDecision, Object... metrics) {
+        if (line.charAt(line.length() - 1) != '[') {
+            line.append(',');
+        }
+        line.append("{\"Namespace\":");
+        appendString(config.getCloudWatchNamespace());
+        line.append(",\"Dimensions\":[[").append(byDecision ? "\"Decision\"" : "").append(']');
+        if (config.isServiceMetricSampled(serviceId)) {
+            line.append(",[").append(byDecision ? "\"Decision\"," : "").append("\"ServiceId\"]");
+        }
+        line.append("],\"Metrics\":[");
+        for (int i = 0; i < metrics.length; i += 2) {
+            line.append(i == 0 ? "{\"Name\":\"" : ",{\"Name\":\"").append(metrics[i])
+                .append("\",\"Unit\":\"").append(metrics[i + 1]).append("\"}");
+        }
+        line.append("]}");
+    }
+
+    private void endDirectives(String serviceId) {
+        line.append("]},\"ServiceId\":");
+        appendString(serviceId);
+    }
+
+    private void appendDecisionProperties(boolean retired, String reason) {
+        line.append(",\"Decision\":\"").append(retired ? "RETIRED" : "RETAINED").append('"');
+        if (reason != null) {
+            line.append(",\"Reason\":");
+            appendString(reason);
+        }
+    }
+
+    private void appendValue(String metricName, double value) {
+        line.append(",\"").append(metricName).append("\":");
+        // JSON has no NaN or Infinity; CloudWatch does not extract a metric whose value is not a number
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            line.append("null");
+        } else if (value == (long) value) {
+            line.append((long) value);
+        } else {
+            line.append(value);
+        }
+    }
+
+    private void appendString(String value) {
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c < 0x20) {
+                line.append("\\u00");
+                line.append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+            } else {
+                line.append(c);
+            }
+        }
+        line.append('"');
+    }
+
+    private void endLine() {
+        line.append("}\n");
+        try {
+            if (out == null) {
+                openFile();
+            }
+            int length = encodeLine();
+            out.write(bytes, 0, length);
+            lineCount++;
+            fileBytes += length;
+            if (maxFileBytes > 0 && fileBytes >= maxFileBytes) {
+                closeFile();
+            }
+        } catch (IOException e) {
+            failedCount++;
+            logger.error("Failed to write EMF metrics line", e);
+        }
+    }
+
+    /**
+     * Encodes the line into the reused byte buffer as UTF-8.
+     * @return the number of bytes
+     */
+    private int encodeLine() {
+        int length = line.length();
+        if (bytes.length < length) {
+            bytes = new byte[Math.max(length, bytes.length * 2)];
+        }
+        for (int i = 0; i < length; i++) {
+            char c = line.charAt(i);
+            if (c >= 0x80) {
+                // Ids and reasons are almost always ASCII; encode the rare other line the slow way
+                byte[] encoded = line.toString().getBytes(StandardCharsets.UTF_8);
+                if (bytes.length < encoded.length) {
+                    bytes = new byte[encoded.length];
+                }
+                System.arraycopy(encoded, 0, bytes, 0, encoded.length);
+                return encoded.length;
+            }
+            bytes[i] = (byte) c;
+        }
+        return length;
+    }
+
+    private void openFile() throws IOException {
+        if (partIndex < 0) {
+            Files.createDirectories(directory);
+            partIndex = lastExistingPart();
+        }
+        partIndex++;
+        String filename = String.format("%s_part%04d.jsonl", baseName, partIndex);
+        out = new BufferedOutputStream(Files.newOutputStream(directory.resolve(filename),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE), WRITER_BUFFER);
+        fileBytes = 0;
+        files.add(filename);
+    }
+
+    /**
+     * @return the highest part number of this base name in the directory, or 0 if there is none
+     */
+    private int lastExistingPart() throws IOException {
+        String prefix = baseName + "_part";
+        int last = 0;
+        try (DirectoryStream<Path> parts = Files.newDirectoryStream(directory, prefix + "*.jsonl")) {
+            for (Path part : parts) {
+                String name = part.getFileName().toString();
+                String number = name.substring(prefix.length(), name.length() - ".jsonl".length());
+                try {
+                    last = Math.max(last, Integer.parseInt(number));
+                } catch (NumberFormatException e) {
+                    // Not one of our parts, e.g. metrics_part_old.jsonl
+                }
+            }
+        }
+        return last;
+    }
+
+    private void closeFile() throws IOException {
+        if (out != null && directory != null) {
+            OutputStream closing = out;
+            out = null;
+            closing.close();
+        }
+    }
+
+    @Override
+    public synchronized void flush() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.flush();
+        } catch (IOException e) {
+            logger.error("Failed to flush EMF metrics", e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        flusher.shutdownNow();
+        flush();
+        try {
+            closeFile();
+        } catch (IOException e) {
+            logger.error("Failed to close EMF metrics file", e);
+        }
+        logger.info("Wrote {} EMF metric lines (failed: {})", lineCount, failedCount);
+    }
+
+    /**
+     * Gets the files written so far, in order; empty when writing to stdout.
+     */
+    public synchronized List<String> getFiles() {
+        return new ArrayList<>(files);
+    }
+
+    public synchronized long getLineCount() {
+        return lineCount;
+    }
+}
@@ -0,0 +1,96 @@
+package com.cloudnative.retirement.aws;
+
+import software.amazon.awssdk.services.cloudwatch.model.MetricDatum;
+import software.amazon.awssdk.services.cloudwatch.model.StatisticSet;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rolls raw metric samples up into one StatisticSet per metric series and period.
+ * A series is a metric name, unit and dimension set; samples are bucketed by their timestamp
+ * into fixed periods, and each bucket is sent as a single datum stamped with the period start.
+ * CloudWatch merges statistic sets that arrive for the same series and timestamp, so a period
+ * may be drained more than once. Methods are synchronized; the flusher and explicit flushes share one instance.
+ */
+final class MetricAggregator {
+    private final long periodMillis;
+    private final Map<MetricDatum, Stats> series = new HashMap<>();
+    private long sampleCount;
+
+    MetricAggregator(long periodMillis) {
+        if (periodMillis < 1) {
+            throw new IllegalArgumentException("Aggregation period must be positive: " + periodMillis);
+        }
+        this.periodMillis = periodMillis;
+    }
+
+    synchronized void add(MetricDatum sample) {
+        long timestamp = sample.timestamp() == null ? System.currentTimeMillis() : sample.timestamp().toEpochMilli();
+        long periodStart = timestamp - Math.floorMod(timestamp, periodMillis);
+        // The sample without its value is the key, and later the template of the aggregated datum
+        MetricDatum key = sample.toBuilder()
+                .value(null)
+                .timestamp(Instant.ofEpochMilli(periodStart))
+                .build();
+        series.computeIfAbsent(key, k -> new Stats()).add(sample.value());
+        sampleCount++;
+    }
+
+    synchronized void addAll(List<MetricDatum> samples) {
+        for (MetricDatum sample : samples) {
+            add(sample);
+        }
+    }
+
+    /**
+     * Gets the number of series buckets waiting to be drained.
+     */
+    synchronized int size() {
+        return series.size();
+    }
+
+    /**
+     * Gets the number of samples added so far.
+     */
+    synchronized long getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * Removes every pending bucket and returns one StatisticSet datum for each.
+     */
+    synchronized List<MetricDatum> drain() {
+        List<MetricDatum> datums = new ArrayList<>(series.size());
+        for (Map.Entry<MetricDatum, Stats> entry : series.entrySet()) {
+            Stats stats = entry.getValue();
+            datums.add(entry.getKey().toBuilder()
+                    .statisticValues(StatisticSet.builder()
+                            .sampleCount((double) stats.count)
+                            .sum(stats.sum)
+                            .minimum(stats.min)
+                            .maximum(stats.max)
+                            .build())
+                    .build());
+        }
+        series.clear();
+        return datums;
+    }
+
+    private static final class Stats {
+        long count;
+        double sum;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+
+        void add(double value) {
+            count++;
+            sum += value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+    }
+}
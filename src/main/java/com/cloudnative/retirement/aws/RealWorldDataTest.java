@@ -2,7 +2,7 @@ package com.cloudnative.retirement.aws;
 
 import com.cloudnative.retirement.dataloaders.CSVMicroserviceLoader;
 import com.cloudnative.retirement.dataloaders.ServiceMetrics;
-import com.cloudnative.retirement.model.RetirementEvent;
+import com.cloudnative.retirement.modules.BatchRetirementScorer;
 import com.cloudnative.retirement.modules.UtilityAssessmentModule;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,6 +19,12 @@ public class RealWorldDataTest {
 
     private static final String SAMPLE_CSV_FILE = "./microservice_metrics.csv";
 
+    // Real-world exports are normalized by 2000 requests and 15 dependents
+    private static final double MAX_REQUESTS = 2000.0;
+    private static final double MAX_DEPENDENTS = 15.0;
+    private static final double RETIREMENT_THRESHOLD = 0.30;
+    private static final int MAX_LISTED_SERVICES = 100;
+
     public static void main(String[] args) {
         logger.info("============================================================");
         logger.info("  MICROSERVICE RETIREMENT SYSTEM - REAL-WORLD DATA TEST");
@@ -79,11 +85,11 @@ public class RealWorldDataTest {
 
             case CSV:
                 logger.info("[*] Attempting to load from: {}", SAMPLE_CSV_FILE);
-                List<ServiceMetrics> services = CSVMicroserviceLoader.loadFromCSV(SAMPLE_CSV_FILE);
+                List<ServiceMetrics> services = CSVMicroserviceLoader.loadFromCSVCached(SAMPLE_CSV_FILE);
                 if (services.isEmpty()) {
                     logger.warn("CSV file not found or empty. Creating sample data...");
                     CSVMicroserviceLoader.createSampleCSV(SAMPLE_CSV_FILE);
-                    services = CSVMicroserviceLoader.loadFromCSV(SAMPLE_CSV_FILE);
+                    services = CSVMicroserviceLoader.loadFromCSVCached(SAMPLE_CSV_FILE);
                 }
                 return services;
 
@@ -110,58 +116,38 @@ public class RealWorldDataTest {
         logger.info("  Total Dependencies: {}", totalDependents);
         logger.info("");
 
-        // Analyze each service
-        logger.info("Service Analysis:");
-        logger.info(String.format("%-30s | %10s | %10s | %10s | %12s", 
-                                 "Service ID", "Requests", "SLA", "Dependents", "Decision"));
-        logger.info(repeatString("-", 95));
-
-        UtilityAssessmentModule utilityModule = new UtilityAssessmentModule();
-        List<RetirementEvent> retirementEvents = new ArrayList<>();
-        int retiredCount = 0;
-        int keptCount = 0;
-        double totalCpuFreed = 0;
-
-        for (ServiceMetrics service : services) {
-            // Calculate utility from metrics
-            double utility = calculateUtilityFromMetrics(service);
-
-            // Determine if should retire
-            boolean shouldRetire = utility < 0.30 && service.getDependentCount() == 0;
-            String decision = shouldRetire ? "RETIRE" : "RETAIN";
-            String assessment = utilityModule.assessUtility(utility);
-
-            // Log the analysis
-            logger.info(String.format("%-30s | %10d | %8.3f | %10d | %12s (%s)",
-                                    service.getServiceId(),
-                                    service.getRequestCount(),
-                                    service.getSlaScore(),
-                                    service.getDependentCount(),
-                                    decision,
-                                    assessment));
-
-            // Track retirement decisions
-            if (shouldRetire) {
-                retiredCount++;
-                double cpuFreed = calculateCpuFreed(service);
-                totalCpuFreed += cpuFreed;
-
-                RetirementEvent event = new RetirementEvent(
-                    service.getServiceId(),
-                    utility,
-                    service.getDependentCount(),
-                    decision,
-                    cpuFreed,
-                    String.format("Utility %.2f < 0.30, No dependencies", utility)
-                );
-                retirementEvents.add(event);
-            } else {
-                keptCount++;
+        UtilityAssessmentModule utilityModule = new UtilityAssessmentModule(MAX_REQUESTS, MAX_DEPENDENTS);
+        BatchRetirementScorer scorer = new BatchRetirementScorer(utilityModule, RETIREMENT_THRESHOLD, MAX_LISTED_SERVICES);
+
+        // Analyze each service; large datasets only get the summary
+        if (services.size() <= MAX_LISTED_SERVICES) {
+            logger.info("Service Analysis:");
+            logger.info(String.format("%-30s | %10s | %10s | %10s | %12s",
+                                     "Service ID", "Requests", "SLA", "Dependents", "Decision"));
+            logger.info(repeatString("-", 95));
+
+            for (ServiceMetrics service : services) {
+                double utility = scorer.computeUtility(service);
+                String decision = scorer.shouldRetire(utility, service) ? "RETIRE" : "RETAIN";
+                String assessment = utilityModule.assessUtility(utility);
+
+                logger.info(String.format("%-30s | %10d | %8.3f | %10d | %12s (%s)",
+                                        service.getServiceId(),
+                                        service.getRequestCount(),
+                                        service.getSlaScore(),
+                                        service.getDependentCount(),
+                                        decision,
+                                        assessment));
             }
+            logger.info(repeatString("-", 95));
         }
 
+        BatchRetirementScorer.Summary summary = scorer.score(services);
+        long retiredCount = summary.getRetirementCount();
+        long keptCount = summary.getRetainedCount();
+        double totalCpuFreed = summary.getCpuFreed();
+
         // Summary
-        logger.info(repeatString("-", 95));
         logger.info("");
         logger.info("Retirement Analysis Results:");
         logger.info("  Services Analyzed: {}", services.size());
@@ -181,14 +167,18 @@ public class RealWorldDataTest {
         logger.info("  Resource Reclamation Efficiency: {}%", String.format("%.1f", efficiency));
         logger.info("");
 
-        // Detail on retired services
-        if (!retirementEvents.isEmpty()) {
+        // Detail on the best retirement candidates
+        if (!summary.getTopCandidates().isEmpty()) {
             logger.info("Detailed Retirement Plan:");
-            for (RetirementEvent event : retirementEvents) {
-                logger.info("  [RETIRE] {} - Utility: {}, Reason: {}", 
-                           event.getServiceId(), 
-                           String.format("%.2f", event.getUtilityScore()),
-                           event.getReason());
+            for (BatchRetirementScorer.Candidate candidate : summary.getTopCandidates()) {
+                logger.info("  [RETIRE] {} - Utility: {}, Reason: Utility {} < {}, No dependencies",
+                           candidate.getServiceId(),
+                           String.format("%.2f", candidate.getUtility()),
+                           String.format("%.2f", candidate.getUtility()),
+                           String.format("%.2f", RETIREMENT_THRESHOLD));
+            }
+            if (retiredCount > summary.getTopCandidates().size()) {
+                logger.info("  ... and {} more", retiredCount - summary.getTopCandidates().size());
             }
         }
 
@@ -200,35 +190,6 @@ public class RealWorldDataTest {
         logger.info("  S3: Ready to archive {}.csv", retiredCount > 0 ? "evidence" : "empty");
     }
 
-    /**
-     * Calculates utility score from real-world metrics.
-     * Maps actual measured data to utility formula.
-     */
-    private static double calculateUtilityFromMetrics(ServiceMetrics service) {
-        // Request score: normalized by max (2000)
-        double requestScore = Math.min(1.0, service.getRequestCount() / 2000.0);
-
-        // SLA score: already a 0-1 value
-        double slaScore = service.getSlaScore();
-
-        // Collaboration score: normalized by max (15 dependents)
-        double collaborationScore = Math.min(1.0, service.getDependentCount() / 15.0);
-
-        // Apply weights (40% request, 35% SLA, 25% collaboration)
-        double utility = (0.40 * requestScore) + (0.35 * slaScore) + (0.25 * collaborationScore);
-
-        return Math.min(1.0, utility);
-    }
-
-    /**
-     * Calculates CPU resources freed if service is retired.
-     */
-    private static double calculateCpuFreed(ServiceMetrics service) {
-        // Estimate CPU based on request count
-        // Normalize: 100 requests per CPU unit
-        return Math.ceil(service.getRequestCount() / 100.0);
-    }
-
     /**
      * Helper to repeat a string.
      */
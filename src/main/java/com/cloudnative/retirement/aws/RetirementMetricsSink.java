@@ -0,0 +1,38 @@
+package com.cloudnative.retirement.aws;
+
+import com.cloudnative.retirement.model.RetirementEvent;
+
+/**
+ * Destination for the per-decision retirement metrics: CloudWatch PutMetricData
+ * (CloudWatchMetricsPublisher) or Embedded Metric Format log lines (EmfMetricsWriter).
+ */
+public interface RetirementMetricsSink {
+
+    void publishUtilityScore(String serviceId, double utilityScore);
+
+    void publishRetirementDecision(String serviceId, boolean retired, String reason);
+
+    void publishCpuFreed(String serviceId, double cpuFreed);
+
+    void publishDependencyCount(String serviceId, int dependencyCount);
+
+    /**
+     * Publishes all four metrics of a decision.
+     */
+    default void publishRetirementEvent(RetirementEvent event) {
+        publishUtilityScore(event.getServiceId(), event.getUtilityScore());
+        publishRetirementDecision(event.getServiceId(), "RETIRE".equals(event.getDecision()), event.getReason());
+        publishDependencyCount(event.getServiceId(), event.getDependencyCount());
+        publishCpuFreed(event.getServiceId(), event.getCpuFreed());
+    }
+
+    /**
+     * Hands everything published so far to the destination.
+     */
+    void flush();
+
+    /**
+     * Flushes and releases the destination.
+     */
+    void close();
+}
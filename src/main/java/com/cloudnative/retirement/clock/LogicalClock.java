@@ -0,0 +1,88 @@
+package com.cloudnative.retirement.clock;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Cycle-time clock: simulated time is epoch + cycle × cycleLength.
+ * The current instant is precomputed whenever the cycle changes, so reads on the hot path
+ * are a single volatile load with no system call or allocation.
+ */
+public class LogicalClock implements SimulationClock {
+    public static final LocalDateTime DEFAULT_EPOCH = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private final LocalDateTime epoch;
+    private final long epochMillis;
+    private final long cycleLengthMillis;
+    private volatile Tick tick;
+
+    public LogicalClock(Duration cycleLength) {
+        this(DEFAULT_EPOCH, cycleLength);
+    }
+
+    public LogicalClock(LocalDateTime epoch, Duration cycleLength) {
+        if (cycleLength.isNegative() || cycleLength.isZero()) {
+            throw new IllegalArgumentException("Cycle length must be positive: " + cycleLength);
+        }
+        this.epoch = epoch;
+        this.epochMillis = epoch.toInstant(ZoneOffset.UTC).toEpochMilli();
+        this.cycleLengthMillis = cycleLength.toMillis();
+        this.tick = new Tick(0, epochMillis, epoch);
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return tick.millis;
+    }
+
+    @Override
+    public LocalDateTime now() {
+        return tick.dateTime;
+    }
+
+    /**
+     * Moves the clock forward by one cycle.
+     */
+    @Override
+    public void advanceCycle() {
+        setCycle(tick.cycle + 1);
+    }
+
+    /**
+     * Moves the clock to the given cycle. Must be called from a single driver thread.
+     */
+    public void setCycle(long cycle) {
+        long offsetMillis = Math.multiplyExact(cycle, cycleLengthMillis);
+        this.tick = new Tick(cycle, epochMillis + offsetMillis, epoch.plus(offsetMillis, ChronoUnit.MILLIS));
+    }
+
+    public long getCycle() {
+        return tick.cycle;
+    }
+
+    public long getCycleLengthMillis() {
+        return cycleLengthMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "LogicalClock{cycle=" + tick.cycle + ", now=" + tick.dateTime + '}';
+    }
+
+    /**
+     * Immutable view of one cycle, published as a unit.
+     */
+    private static final class Tick {
+        final long cycle;
+        final long millis;
+        final LocalDateTime dateTime;
+
+        Tick(long cycle, long millis, LocalDateTime dateTime) {
+            this.cycle = cycle;
+            this.millis = millis;
+            this.dateTime = dateTime;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.cloudnative.retirement.clock;
+
+import java.time.LocalDateTime;
+
+/**
+ * Time source read by services, agents, events and the simulation.
+ * The system clock follows wall time; a logical clock advances once per simulation cycle,
+ * which makes runs reproducible and lets them fast-forward through simulated months.
+ */
+public interface SimulationClock {
+
+    /**
+     * Gets the current time in milliseconds since the epoch.
+     */
+    long currentTimeMillis();
+
+    /**
+     * Gets the current time as a local date-time.
+     */
+    LocalDateTime now();
+
+    /**
+     * Signals that a simulation cycle has completed. Wall-clock sources ignore it.
+     */
+    default void advanceCycle() {
+    }
+
+    /**
+     * Gets the shared wall-clock time source.
+     */
+    static SimulationClock system() {
+        return SystemClock.INSTANCE;
+    }
+}
@@ -0,0 +1,28 @@
+package com.cloudnative.retirement.clock;
+
+import java.time.LocalDateTime;
+
+/**
+ * Wall-clock time source.
+ */
+final class SystemClock implements SimulationClock {
+    static final SystemClock INSTANCE = new SystemClock();
+
+    private SystemClock() {
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public LocalDateTime now() {
+        return LocalDateTime.now();
+    }
+
+    @Override
+    public String toString() {
+        return "SystemClock";
+    }
+}
@@ -0,0 +1,100 @@
+package com.cloudnative.retirement.dataloaders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Append-only dictionary that interns byte keys to dense int ids.
+ * Lookups compare the slice bytes in place, so a key is copied only the first time it is seen.
+ * Not thread-safe; each aggregation worker owns one.
+ */
+final class ByteKeyDictionary {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private byte[][] keys;
+    private int[] hashes;
+    private int[] table; // id + 1 per slot, 0 marks an empty slot
+    private int size;
+
+    ByteKeyDictionary() {
+        this.keys = new byte[INITIAL_CAPACITY][];
+        this.hashes = new int[INITIAL_CAPACITY];
+        this.table = new int[INITIAL_CAPACITY * 2];
+    }
+
+    /**
+     * Gets the id of a key, assigning the next free id if it is not known yet.
+     */
+    int intern(ByteSlice key) {
+        int hash = key.stringHash();
+        int mask = table.length - 1;
+        int slot = mix(hash) & mask;
+        while (table[slot] != 0) {
+            int id = table[slot] - 1;
+            if (hashes[id] == hash && matches(keys[id], key)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+        }
+        int id = size++;
+        byte[] bytes = new byte[key.length()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) key.byteAt(i);
+        }
+        keys[id] = bytes;
+        hashes[id] = hash;
+        table[slot] = id + 1;
+
+        if (size * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        return id;
+    }
+
+    byte[] keyOf(int id) {
+        return keys[id];
+    }
+
+    String nameOf(int id) {
+        return new String(keys[id], StandardCharsets.UTF_8);
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static boolean matches(byte[] bytes, ByteSlice key) {
+        if (bytes.length != key.length()) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] != (byte) key.byteAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rehash(int capacity) {
+        int[] rehashed = new int[capacity];
+        int mask = capacity - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = mix(hashes[id]) & mask;
+            while (rehashed[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            rehashed[slot] = id + 1;
+        }
+        table = rehashed;
+    }
+
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
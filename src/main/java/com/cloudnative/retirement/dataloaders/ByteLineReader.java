@@ -0,0 +1,106 @@
+package com.cloudnative.retirement.dataloaders;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Reads lines of bytes from a stream into one reused buffer.
+ * Lines end at \n, \r or \r\n, as with BufferedReader.readLine(), and the terminators are
+ * dropped. Not thread-safe.
+ */
+final class ByteLineReader implements Closeable {
+    static final int DEFAULT_BUFFER_BYTES = 64 << 10;
+
+    private final InputStream in;
+    private final byte[] readBuffer;
+    private int readPosition;
+    private int readLimit;
+
+    private byte[] lineBytes = new byte[256];
+    private ByteBuffer lineBuffer = ByteBuffer.wrap(lineBytes);
+    private int lineLength;
+    private boolean skipLineFeed; // The last line ended with \r, so a following \n belongs to it
+
+    ByteLineReader(InputStream in) {
+        this(in, DEFAULT_BUFFER_BYTES);
+    }
+
+    ByteLineReader(InputStream in, int bufferBytes) {
+        this.in = in;
+        this.readBuffer = new byte[bufferBytes];
+    }
+
+    /**
+     * Reads the next line.
+     * @return false at the end of the stream
+     */
+    boolean readLine() throws IOException {
+        lineLength = 0;
+        boolean readAny = false;
+        while (true) {
+            if (readPosition == readLimit) {
+                readLimit = in.read(readBuffer, 0, readBuffer.length);
+                readPosition = 0;
+                if (readLimit <= 0) {
+                    readLimit = 0;
+                    return readAny;
+                }
+            }
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (readBuffer[readPosition] == '\n') {
+                    readPosition++;
+                    continue;
+                }
+            }
+            readAny = true;
+
+            int end = readPosition;
+            while (end < readLimit && readBuffer[end] != '\n' && readBuffer[end] != '\r') {
+                end++;
+            }
+            append(readPosition, end - readPosition);
+            if (end < readLimit) {
+                skipLineFeed = readBuffer[end] == '\r';
+                readPosition = end + 1;
+                return true;
+            }
+            readPosition = readLimit;
+        }
+    }
+
+    /**
+     * Gets the buffer holding the current line from index 0. Valid until the next readLine.
+     */
+    ByteBuffer line() {
+        return lineBuffer;
+    }
+
+    int lineLength() {
+        return lineLength;
+    }
+
+    /**
+     * Copies the current line so it survives the next readLine.
+     */
+    ByteBuffer copyLine() {
+        return ByteBuffer.wrap(Arrays.copyOf(lineBytes, lineLength));
+    }
+
+    private void append(int from, int count) {
+        if (lineLength + count > lineBytes.length) {
+            lineBytes = Arrays.copyOf(lineBytes, Math.max(lineLength + count, lineBytes.length * 2));
+            lineBuffer = ByteBuffer.wrap(lineBytes);
+        }
+        System.arraycopy(readBuffer, from, lineBytes, lineLength, count);
+        lineLength += count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
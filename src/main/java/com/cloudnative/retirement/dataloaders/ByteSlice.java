@@ -0,0 +1,291 @@
+package com.cloudnative.retirement.dataloaders;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reusable view of a byte range in a buffer, read as text.
+ * Lets the mapped loader trim and parse CSV fields in place instead of allocating a String
+ * per field. Number parsing reports bad input through return values rather than exceptions.
+ * Not thread-safe; each parsing task owns its slices.
+ */
+final class ByteSlice implements CharSequence {
+    static final long INVALID_INT = Long.MIN_VALUE;
+
+    private static final long FAST_MANTISSA_LIMIT = 1L << 53;
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private ByteBuffer buffer;
+    private int offset;
+    private int length;
+    private boolean valid;
+
+    ByteSlice set(ByteBuffer buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+        return this;
+    }
+
+    /**
+     * Drops leading and trailing control characters and spaces, like String.trim().
+     */
+    ByteSlice trim() {
+        while (length > 0 && byteAt(0) <= ' ') {
+            offset++;
+            length--;
+        }
+        while (length > 0 && byteAt(length - 1) <= ' ') {
+            length--;
+        }
+        return this;
+    }
+
+    int byteAt(int index) {
+        return buffer.get(offset + index) & 0xFF;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return (char) byteAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new ByteSlice().set(buffer, offset + start, end - start);
+    }
+
+    /**
+     * Whether the last parse call consumed a well-formed number.
+     */
+    boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * Computes String.hashCode() of the decoded text without decoding it when it is ASCII.
+     */
+    int stringHash() {
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            int b = byteAt(i);
+            if (b >= 0x80) {
+                return toString().hashCode();
+            }
+            hash = 31 * hash + b;
+        }
+        return hash;
+    }
+
+    /**
+     * Parses the slice with Integer.parseInt rules.
+     * @return the value, or INVALID_INT if the slice is not a valid int
+     */
+    long parseInt() {
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (byteAt(0) == '-' || byteAt(0) == '+')) {
+            negative = byteAt(0) == '-';
+            i++;
+        }
+        if (i == length) {
+            return INVALID_INT;
+        }
+        long limit = negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE;
+        long value = 0;
+        for (; i < length; i++) {
+            int digit = byteAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return INVALID_INT;
+            }
+            value = value * 10 + digit;
+            if (value > limit) {
+                return INVALID_INT;
+            }
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses the slice with Long.parseLong rules.
+     * Check isValid() afterwards.
+     */
+    long parseLong() {
+        valid = false;
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (byteAt(0) == '-' || byteAt(0) == '+')) {
+            negative = byteAt(0) == '-';
+            i++;
+        }
+        if (i == length) {
+            return 0;
+        }
+        // Accumulate negatively so Long.MIN_VALUE fits
+        long value = 0;
+        for (; i < length; i++) {
+            int digit = byteAt(i) - '0';
+            if (digit < 0 || digit > 9 || value < (Long.MIN_VALUE + digit) / 10) {
+                return 0;
+            }
+            value = value * 10 - digit;
+        }
+        if (!negative && value == Long.MIN_VALUE) {
+            return 0;
+        }
+        valid = true;
+        return negative ? value : -value;
+    }
+
+    /**
+     * Parses the slice with Double.parseDouble rules.
+     * Plain decimals with up to 15 or so significant digits are converted exactly from the bytes.
+     * Longer decimals, exponents, NaN and Infinity are checked against the decimal grammar and only
+     * then go through Double.parseDouble; malformed slices are rejected without allocating or
+     * throwing. Hexadecimal literals are not accepted. Check isValid() afterwards.
+     */
+    double parseDouble() {
+        valid = false;
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (byteAt(0) == '-' || byteAt(0) == '+')) {
+            negative = byteAt(0) == '-';
+            i++;
+        }
+        if (i == length) {
+            return Double.NaN;
+        }
+        int start = i;
+        int first = byteAt(i);
+        boolean numericStart = (first >= '0' && first <= '9') || first == '.';
+        if (!numericStart && first != 'N' && first != 'I') {
+            return Double.NaN;
+        }
+
+        long mantissa = 0;
+        int exponent = 0;
+        int digits = 0;
+        boolean fast = numericStart;
+        for (; i < length && fast; i++) {
+            int b = byteAt(i);
+            if (b >= '0' && b <= '9') {
+                digits++;
+                if (mantissa >= FAST_MANTISSA_LIMIT / 10) {
+                    fast = false;
+                } else {
+                    mantissa = mantissa * 10 + (b - '0');
+                }
+            } else if (b == '.') {
+                i++;
+                for (; i < length; i++) {
+                    b = byteAt(i);
+                    if (b < '0' || b > '9') {
+                        break;
+                    }
+                    digits++;
+                    if (mantissa >= FAST_MANTISSA_LIMIT / 10) {
+                        fast = false;
+                        break;
+                    }
+                    mantissa = mantissa * 10 + (b - '0');
+                    exponent--;
+                }
+                if (fast && i < length) {
+                    fast = false;
+                }
+                break;
+            } else {
+                fast = false;
+            }
+        }
+
+        if (fast && digits > 0 && -exponent < POWERS_OF_TEN.length) {
+            valid = true;
+            double value = mantissa / POWERS_OF_TEN[-exponent];
+            return negative ? -value : value;
+        }
+        if (!isDecimalLiteral(start)) {
+            return Double.NaN;
+        }
+        valid = true;
+        return Double.parseDouble(toString()); // Cannot throw on a literal that passed the check
+    }
+
+    /**
+     * Checks the bytes after the sign against what Double.parseDouble accepts in decimal notation:
+     * digits with an optional fraction and exponent and an optional type suffix, NaN or Infinity,
+     * followed by optional whitespace.
+     */
+    private boolean isDecimalLiteral(int i) {
+        int end = length;
+        while (end > i && byteAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (matches(i, end, "NaN") || matches(i, end, "Infinity")) {
+            return true;
+        }
+        int suffix = end > i ? byteAt(end - 1) : 0;
+        if (suffix == 'f' || suffix == 'F' || suffix == 'd' || suffix == 'D') {
+            end--;
+        }
+        int digits = 0;
+        for (; i < end && isDigit(byteAt(i)); i++) {
+            digits++;
+        }
+        if (i < end && byteAt(i) == '.') {
+            for (i++; i < end && isDigit(byteAt(i)); i++) {
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        if (i < end && (byteAt(i) == 'e' || byteAt(i) == 'E')) {
+            i++;
+            if (i < end && (byteAt(i) == '-' || byteAt(i) == '+')) {
+                i++;
+            }
+            int exponentStart = i;
+            while (i < end && isDigit(byteAt(i))) {
+                i++;
+            }
+            if (i == exponentStart) {
+                return false;
+            }
+        }
+        return i == end;
+    }
+
+    private boolean matches(int from, int to, String literal) {
+        if (to - from != literal.length()) {
+            return false;
+        }
+        for (int i = 0; i < literal.length(); i++) {
+            if (byteAt(from + i) != literal.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(int b) {
+        return b >= '0' && b <= '9';
+    }
+
+    @Override
+    public String toString() {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(offset + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -4,7 +4,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Loads microservice metrics from CSV files.
@@ -14,6 +21,10 @@ import java.util.*;
  * service_id,request_count,sla_score,dependents
  * service-1,850,0.99,5
  * service-2,150,0.70,0
+ *
+ * The layout is detected once per file (see CsvFormat); blank lines and # comments are skipped.
+ * Raw per-sample cluster traces are aggregated by ClusterTraceAggregator instead, and files that
+ * are still being written can be followed with LiveMetricsTailer.
  */
 public class CSVMicroserviceLoader {
     private static final Logger logger = LoggerFactory.getLogger(CSVMicroserviceLoader.class);
@@ -27,93 +38,205 @@ public class CSVMicroserviceLoader {
      */
     public static List<ServiceMetrics> loadFromCSV(String filename) throws IOException {
         List<ServiceMetrics> services = new ArrayList<>();
+        forEachFromCSV(filename, services::add);
+        return services;
+    }
+
+    /**
+     * Loads microservice metrics from a CSV file by parsing memory-mapped chunks in parallel,
+     * using all available processors.
+     *
+     * @param filename Path to CSV file
+     * @return List of ServiceMetrics objects in file order
+     * @throws IOException if file cannot be read
+     */
+    public static List<ServiceMetrics> loadFromCSVParallel(String filename) throws IOException {
+        return loadFromCSVParallel(filename, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Loads microservice metrics from a CSV file by parsing memory-mapped chunks in parallel.
+     * Produces the same rows as loadFromCSV; intended for multi-gigabyte trace exports.
+     *
+     * @param filename Path to CSV file
+     * @param parallelism Number of parsing threads
+     * @return List of ServiceMetrics objects in file order
+     * @throws IOException if file cannot be read
+     */
+    public static List<ServiceMetrics> loadFromCSVParallel(String filename, int parallelism) throws IOException {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
         File file = new File(filename);
 
         if (!file.exists()) {
             logger.warn("CSV file not found: {}", filename);
-            return services;
+            return new ArrayList<>();
         }
 
-        logger.info("Loading microservice data from CSV: {}", filename);
-        int lineCount = 0;
-        int errorCount = 0;
-
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String headerLine = br.readLine();
-            if (headerLine == null) {
-                logger.error("CSV file is empty");
-                return services;
-            }
+        logger.info("Loading microservice data from CSV with {} threads: {}", parallelism, filename);
+        try {
+            return MappedCsvLoader.load(file.toPath(), parallelism);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
 
-            logger.debug("CSV Header: {}", headerLine);
+    /**
+     * Reduces a CSV file chunk by chunk in parallel without collecting its rows.
+     * Each memory-mapped chunk folds its rows, in file order, into a fresh accumulator; memory use
+     * depends on the accumulators rather than on the file size. Combine the results afterwards.
+     *
+     * @param filename Path to CSV file
+     * @param parallelism Number of parsing threads
+     * @param newAccumulator Creates the accumulator of one chunk
+     * @param accumulator Folds one row into a chunk's accumulator
+     * @return the chunk accumulators in file order, empty if the file does not exist
+     * @throws IOException if file cannot be read
+     */
+    public static <A> List<A> foldFromCSVParallel(String filename, int parallelism, Supplier<A> newAccumulator,
+                                                  BiConsumer<A, ? super ServiceMetrics> accumulator) throws IOException {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
+        File file = new File(filename);
 
-            String line;
-            while ((line = br.readLine()) != null) {
-                lineCount++;
-                try {
-                    ServiceMetrics service = parseCSVLine(line);
-                    if (service != null) {
-                        services.add(service);
-                    }
-                } catch (Exception e) {
-                    errorCount++;
-                    logger.debug("Error parsing line {}: {} - {}", lineCount, line, e.getMessage());
-                }
-            }
+        if (!file.exists()) {
+            logger.warn("CSV file not found: {}", filename);
+            return new ArrayList<>();
+        }
+
+        logger.info("Reducing microservice data from CSV with {} threads: {}", parallelism, filename);
+        try {
+            return MappedCsvLoader.fold(file.toPath(), parallelism, newAccumulator, accumulator);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Loads microservice metrics from a CSV file through a binary snapshot kept next to it.
+     * The first load parses the CSV and writes the snapshot; later loads map the snapshot
+     * instead of parsing text, until the CSV's size or modification time changes.
+     *
+     * @param filename Path to CSV file
+     * @return List of ServiceMetrics objects in file order
+     * @throws IOException if file cannot be read
+     */
+    public static List<ServiceMetrics> loadFromCSVCached(String filename) throws IOException {
+        File file = new File(filename);
+
+        if (!file.exists()) {
+            logger.warn("CSV file not found: {}", filename);
+            return new ArrayList<>();
         }
 
-        logger.info("Successfully loaded {} services from {} lines (errors: {})", 
-                   services.size(), lineCount, errorCount);
+        Path source = file.toPath();
+        List<ServiceMetrics> services = DatasetSnapshot.read(source);
+        if (services != null) {
+            logger.info("Loaded {} services from snapshot of {}", services.size(), filename);
+            return services;
+        }
 
+        // Key the snapshot by the file as it was before parsing, so a change during the parse makes it stale
+        long sourceSize = Files.size(source);
+        long sourceModified = Files.getLastModifiedTime(source).toMillis();
+        services = loadFromCSVParallel(filename);
+        try {
+            DatasetSnapshot.write(source, sourceSize, sourceModified, services);
+        } catch (IOException e) {
+            logger.warn("Could not write snapshot for {}: {}", filename, e.getMessage());
+        }
         return services;
     }
 
     /**
-     * Parses a single CSV line into a ServiceMetrics object.
-     * Supports multiple CSV formats.
-     * 
-     * @param line CSV line to parse
-     * @return ServiceMetrics object or null if parsing fails
+     * Aggregates a directory of raw cluster-trace shards (.csv or .csv.gz) into per-service metrics,
+     * using all available processors.
+     *
+     * @param directory Directory holding the shards
+     * @param schema Column layout of the trace, e.g. TraceSchema.ALIBABA_MS_CALL_GRAPH
+     * @return List of ServiceMetrics objects sorted by service id
+     * @throws IOException if a shard cannot be read
      */
-    private static ServiceMetrics parseCSVLine(String line) {
-        String[] parts = line.split(",");
-
-        // Format 1: service_id,request_count,sla_score,dependents
-        if (parts.length >= 4) {
-            try {
-                String serviceId = parts[0].trim();
-                int requestCount = Integer.parseInt(parts[1].trim());
-                double slaScore = Double.parseDouble(parts[2].trim());
-                int dependents = Integer.parseInt(parts[3].trim());
-
-                return new ServiceMetrics(serviceId, requestCount, slaScore, dependents);
-            } catch (NumberFormatException e) {
-                // Fall through to try other formats
-            }
+    public static List<ServiceMetrics> loadClusterTrace(String directory, TraceSchema schema) throws IOException {
+        File dir = new File(directory);
+
+        if (!dir.isDirectory()) {
+            logger.warn("Trace directory not found: {}", directory);
+            return new ArrayList<>();
         }
 
-        // Format 2: Google Cluster Data (reduced format)
-        // job_id,task_index,cpu_count,memory_gb,machine_id
-        if (parts.length >= 5) {
-            try {
-                String jobId = parts[0].trim();
-                String taskId = parts[1].trim();
-                double cpu = Double.parseDouble(parts[2].trim());
-                double memory = Double.parseDouble(parts[3].trim());
-
-                // Map Google format to our ServiceMetrics
-                int requestCount = (int) (cpu * 1000); // Normalize CPU to requests
-                double slaScore = Math.min(1.0, memory / 100.0); // Normalize memory to SLA
-                int dependents = taskId.hashCode() % 5; // Pseudo-random dependents
-
-                String serviceId = jobId + "-" + taskId;
-                return new ServiceMetrics(serviceId, requestCount, slaScore, Math.abs(dependents));
-            } catch (NumberFormatException e) {
-                logger.debug("Could not parse as Google format: {}", line);
-            }
+        return new ClusterTraceAggregator(schema, Runtime.getRuntime().availableProcessors())
+            .aggregateDirectory(dir.toPath());
+    }
+
+    /**
+     * Opens a CSV file for row-by-row reading.
+     * Memory use is independent of the file size; the caller must close the reader.
+     *
+     * @param filename Path to CSV file
+     * @return reader over the parsed rows, empty if the file does not exist
+     * @throws IOException if file cannot be opened
+     */
+    public static ServiceMetricsReader openCSV(String filename) throws IOException {
+        File file = new File(filename);
+
+        if (!file.exists()) {
+            logger.warn("CSV file not found: {}", filename);
+            return ServiceMetricsReader.empty(filename);
+        }
+
+        logger.info("Loading microservice data from CSV: {}", filename);
+        InputStream in = new FileInputStream(file);
+        try {
+            return new ServiceMetricsReader(in, filename);
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
         }
+    }
 
-        return null;
+    /**
+     * Streams microservice metrics from a CSV file as it is read.
+     * The stream holds the file open until it is closed, so use it in try-with-resources.
+     *
+     * @param filename Path to CSV file
+     * @return lazy stream of parsed rows
+     * @throws IOException if file cannot be opened
+     */
+    public static Stream<ServiceMetrics> streamFromCSV(String filename) throws IOException {
+        ServiceMetricsReader reader = openCSV(filename);
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(reader, Spliterator.ORDERED | Spliterator.NONNULL), false)
+            .onClose(() -> {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+    }
+
+    /**
+     * Reads a CSV file and hands each parsed row to the sink as soon as it is read.
+     *
+     * @param filename Path to CSV file
+     * @param sink Receives each row in file order
+     * @return number of rows delivered
+     * @throws IOException if file cannot be read
+     */
+    public static int forEachFromCSV(String filename, Consumer<? super ServiceMetrics> sink) throws IOException {
+        int delivered = 0;
+        try (ServiceMetricsReader reader = openCSV(filename)) {
+            while (reader.hasNext()) {
+                sink.accept(reader.next());
+                delivered++;
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return delivered;
     }
 
     /**
@@ -0,0 +1,336 @@
+package com.cloudnative.retirement.dataloaders;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Aggregates raw per-sample cluster traces into one ServiceMetrics per service.
+ * Shards (plain or gzipped CSV) are decompressed and read in parallel, one line at a time. Each
+ * worker folds its samples into primitive per-service counters keyed by interned ids, and the
+ * worker tables are merged at the end, so memory grows with the number of services and
+ * call edges rather than with the number of samples.
+ *
+ * For each service: request count is the number of samples, SLA score is the fraction of samples
+ * that neither failed nor missed the latency SLO, and dependents is the number of distinct
+ * upstream services calling it. A sample whose latency cannot be parsed counts as missing the
+ * SLO and is also counted by getInvalidLatencyCount(). See TraceSchema for the column mapping.
+ */
+public class ClusterTraceAggregator {
+    private static final Logger logger = LoggerFactory.getLogger(ClusterTraceAggregator.class);
+
+    private static final int GZIP_BUFFER_BYTES = 64 << 10;
+
+    private final TraceSchema schema;
+    private final int parallelism;
+    private long sampleCount;
+    private long errorCount;
+    private long invalidLatencyCount;
+
+    public ClusterTraceAggregator(TraceSchema schema, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
+        this.schema = schema;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Aggregates every .csv and .csv.gz shard in a directory.
+     *
+     * @param directory Directory holding the shards
+     * @return one entry per service, sorted by service id
+     * @throws IOException if a shard cannot be read
+     */
+    public List<ServiceMetrics> aggregateDirectory(Path directory) throws IOException {
+        List<Path> shards = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.{csv,csv.gz}")) {
+            for (Path shard : stream) {
+                shards.add(shard);
+            }
+        }
+        Collections.sort(shards);
+        return aggregate(shards);
+    }
+
+    /**
+     * Aggregates the given shards.
+     *
+     * @param shards Plain or gzipped CSV files in the schema's layout
+     * @return one entry per service, sorted by service id
+     * @throws IOException if a shard cannot be read
+     */
+    public List<ServiceMetrics> aggregate(List<Path> shards) throws IOException {
+        logger.info("Aggregating {} trace shards with {} threads ({})", shards.size(), parallelism, schema.getName());
+
+        AtomicInteger nextShard = new AtomicInteger();
+        List<ShardWorker> workers = new ArrayList<>();
+        for (int i = 0; i < Math.min(parallelism, shards.size()); i++) {
+            workers.add(new ShardWorker(shards, nextShard));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, workers.size()));
+        try {
+            pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(workers)));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdown();
+        }
+
+        TraceAggregate total = new TraceAggregate();
+        for (ShardWorker worker : workers) {
+            worker.join().mergeInto(total);
+        }
+        sampleCount = total.samples;
+        errorCount = total.errors;
+        invalidLatencyCount = total.invalidLatencies;
+
+        List<ServiceMetrics> services = total.toServiceMetrics();
+        logger.info("Aggregated {} samples into {} services (errors: {}, invalid latencies: {})",
+                    sampleCount, services.size(), errorCount, invalidLatencyCount);
+        return services;
+    }
+
+    /**
+     * Gets the number of samples read by the last aggregation.
+     */
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * Gets the number of rows the last aggregation could not read.
+     */
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * Gets the number of samples in the last aggregation whose latency could not be parsed.
+     */
+    public long getInvalidLatencyCount() {
+        return invalidLatencyCount;
+    }
+
+    private static InputStream open(Path shard) throws IOException {
+        InputStream in = new FileInputStream(shard.toFile());
+        if (!shard.getFileName().toString().endsWith(".gz")) {
+            return in;
+        }
+        try {
+            return new GZIPInputStream(in, GZIP_BUFFER_BYTES);
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Pulls shards until none are left and folds them into one aggregate.
+     */
+    private final class ShardWorker extends RecursiveTask<TraceAggregate> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Path> shards;
+        private final AtomicInteger nextShard;
+        private final CsvRow row = new CsvRow(schema.requiredColumns());
+
+        ShardWorker(List<Path> shards, AtomicInteger nextShard) {
+            this.shards = shards;
+            this.nextShard = nextShard;
+        }
+
+        @Override
+        protected TraceAggregate compute() {
+            TraceAggregate aggregate = new TraceAggregate();
+            for (int i = nextShard.getAndIncrement(); i < shards.size(); i = nextShard.getAndIncrement()) {
+                Path shard = shards.get(i);
+                try (ByteLineReader lines = new ByteLineReader(open(shard))) {
+                    read(lines, aggregate);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to read trace shard " + shard, e);
+                }
+                logger.debug("Read trace shard {}", shard);
+            }
+            return aggregate;
+        }
+
+        private void read(ByteLineReader lines, TraceAggregate aggregate) throws IOException {
+            boolean headerPending = schema.hasHeader();
+            while (lines.readLine()) {
+                row.set(lines.line(), 0, lines.lineLength());
+                if (row.isSkippable()) {
+                    continue;
+                }
+                if (headerPending) {
+                    headerPending = false;
+                    continue;
+                }
+                if (row.fieldCount() < schema.requiredColumns() || row.field(schema.getServiceColumn()).length() == 0) {
+                    aggregate.errors++;
+                    continue;
+                }
+
+                boolean good = true;
+                if (schema.getStatusColumn() >= 0 && schema.isFailure(row.field(schema.getStatusColumn()))) {
+                    good = false;
+                }
+                if (good && schema.getLatencyColumn() >= 0) {
+                    ByteSlice latency = row.field(schema.getLatencyColumn());
+                    double millis = latency.parseDouble();
+                    if (latency.isValid()) {
+                        good = millis <= schema.getSloMillis();
+                    } else {
+                        // An unknown latency cannot be shown to meet the SLO
+                        good = false;
+                        aggregate.invalidLatencies++;
+                    }
+                }
+
+                int service = aggregate.services.intern(row.field(schema.getServiceColumn()));
+                aggregate.addSample(service, good);
+                if (schema.getUpstreamColumn() >= 0) {
+                    ByteSlice upstreamField = row.field(schema.getUpstreamColumn());
+                    if (upstreamField.length() > 0) {
+                        int upstream = aggregate.services.intern(upstreamField);
+                        if (upstream != service) {
+                            aggregate.addEdge(service, upstream);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Per-service counters in primitive columns, indexed by interned service id.
+     */
+    private static final class TraceAggregate {
+        final ByteKeyDictionary services = new ByteKeyDictionary();
+        long[] sampleCounts = new long[64];
+        long[] goodCounts = new long[64];
+        long[] edges = new long[64]; // open addressing, (service << 32 | upstream) + 1, 0 marks an empty slot
+        int edgeCount;
+        long samples;
+        long errors;
+        long invalidLatencies;
+
+        void addSample(int service, boolean good) {
+            ensureCapacity(service);
+            sampleCounts[service]++;
+            if (good) {
+                goodCounts[service]++;
+            }
+            samples++;
+        }
+
+        void addEdge(int service, int upstream) {
+            long key = (((long) service << 32) | upstream) + 1;
+            int mask = edges.length - 1;
+            int slot = mix(key) & mask;
+            while (edges[slot] != 0) {
+                if (edges[slot] == key) {
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            edges[slot] = key;
+            edgeCount++;
+            if (edgeCount * 2 > edges.length) {
+                rehashEdges(edges.length * 2);
+            }
+        }
+
+        void mergeInto(TraceAggregate target) {
+            int[] targetIds = new int[services.size()];
+            ByteSlice key = new ByteSlice();
+            for (int id = 0; id < services.size(); id++) {
+                byte[] bytes = services.keyOf(id);
+                targetIds[id] = target.services.intern(key.set(ByteBuffer.wrap(bytes), 0, bytes.length));
+                target.ensureCapacity(targetIds[id]);
+                if (id < sampleCounts.length) {
+                    target.sampleCounts[targetIds[id]] += sampleCounts[id];
+                    target.goodCounts[targetIds[id]] += goodCounts[id];
+                }
+            }
+            for (long edge : edges) {
+                if (edge != 0) {
+                    long pair = edge - 1;
+                    target.addEdge(targetIds[(int) (pair >>> 32)], targetIds[(int) pair]);
+                }
+            }
+            target.samples += samples;
+            target.errors += errors;
+            target.invalidLatencies += invalidLatencies;
+        }
+
+        List<ServiceMetrics> toServiceMetrics() {
+            ensureCapacity(services.size());
+            int[] dependents = new int[services.size()];
+            for (long edge : edges) {
+                if (edge != 0) {
+                    dependents[(int) ((edge - 1) >>> 32)]++;
+                }
+            }
+
+            List<ServiceMetrics> result = new ArrayList<>();
+            for (int id = 0; id < services.size(); id++) {
+                // Services seen only as callers have no samples of their own
+                if (sampleCounts[id] > 0) {
+                    int requestCount = (int) Math.min(Integer.MAX_VALUE, sampleCounts[id]);
+                    double slaScore = (double) goodCounts[id] / sampleCounts[id];
+                    result.add(new ServiceMetrics(services.nameOf(id), requestCount, slaScore, dependents[id]));
+                }
+            }
+            result.sort(Comparator.comparing(ServiceMetrics::getServiceId));
+            return result;
+        }
+
+        private void ensureCapacity(int service) {
+            if (service >= sampleCounts.length) {
+                int capacity = Math.max(service + 1, sampleCounts.length * 2);
+                sampleCounts = Arrays.copyOf(sampleCounts, capacity);
+                goodCounts = Arrays.copyOf(goodCounts, capacity);
+            }
+        }
+
+        private void rehashEdges(int capacity) {
+            long[] rehashed = new long[capacity];
+            int mask = capacity - 1;
+            for (long edge : edges) {
+                if (edge != 0) {
+                    int slot = mix(edge) & mask;
+                    while (rehashed[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    rehashed[slot] = edge;
+                }
+            }
+            edges = rehashed;
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
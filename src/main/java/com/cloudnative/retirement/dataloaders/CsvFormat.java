@@ -0,0 +1,159 @@
+package com.cloudnative.retirement.dataloaders;
+
+/**
+ * Row layouts understood by CSVMicroserviceLoader.
+ * The layout is detected once per file from its header and first data row, and every row is
+ * then decoded with that layout alone. A row that does not fit is reported as an error without
+ * throwing.
+ */
+public enum CsvFormat {
+    /**
+     * service_id,request_count,sla_score,dependents
+     */
+    SERVICE_METRICS("service_id") {
+        @Override
+        ServiceMetrics decode(CsvRow row) {
+            if (row.fieldCount() < 4) {
+                return null;
+            }
+            long requestCount = row.field(1).parseInt();
+            ByteSlice sla = row.field(2);
+            double slaScore = sla.parseDouble();
+            long dependents = row.field(3).parseInt();
+            if (requestCount == ByteSlice.INVALID_INT || !sla.isValid() || dependents == ByteSlice.INVALID_INT) {
+                return null;
+            }
+            return new ServiceMetrics(row.text(0), (int) requestCount, slaScore, (int) dependents);
+        }
+    },
+
+    /**
+     * timestamp,service_id,request_count,sla_score,dependents, with the timestamp in epoch millis.
+     * Used for traces replayed through ServiceMetricsTimeSeries.
+     */
+    TIMESTAMPED_SERVICE_METRICS("timestamp") {
+        @Override
+        ServiceMetrics decode(CsvRow row) {
+            if (row.fieldCount() < 5) {
+                return null;
+            }
+            ByteSlice timestampField = row.field(0);
+            long timestamp = timestampField.parseLong();
+            if (!timestampField.isValid()) {
+                return null;
+            }
+            long requestCount = row.field(2).parseInt();
+            ByteSlice sla = row.field(3);
+            double slaScore = sla.parseDouble();
+            long dependents = row.field(4).parseInt();
+            if (requestCount == ByteSlice.INVALID_INT || !sla.isValid() || dependents == ByteSlice.INVALID_INT) {
+                return null;
+            }
+            return new ServiceMetrics(row.text(1), (int) requestCount, slaScore, (int) dependents, timestamp);
+        }
+    },
+
+    /**
+     * Google Cluster Data (reduced format): job_id,task_index,cpu_count,memory_gb,machine_id
+     * The task table has no call or dependency column, so rows carry 0 dependents; use
+     * ClusterTraceAggregator with a call-graph trace when dependents matter.
+     */
+    GOOGLE_TASKS("job_id") {
+        @Override
+        ServiceMetrics decode(CsvRow row) {
+            if (row.fieldCount() < 5) {
+                return null;
+            }
+            ByteSlice cpuField = row.field(2);
+            double cpu = cpuField.parseDouble();
+            if (!cpuField.isValid()) {
+                return null;
+            }
+            ByteSlice memoryField = row.field(3);
+            double memory = memoryField.parseDouble();
+            if (!memoryField.isValid()) {
+                return null;
+            }
+
+            // Map Google format to our ServiceMetrics
+            int requestCount = (int) (cpu * 1000); // Normalize CPU to requests
+            double slaScore = Math.min(1.0, memory / 100.0); // Normalize memory to SLA
+
+            String serviceId = row.text(0) + "-" + row.text(1);
+            return new ServiceMetrics(serviceId, requestCount, slaScore, 0);
+        }
+    };
+
+    private final String firstColumn;
+
+    CsvFormat(String firstColumn) {
+        this.firstColumn = firstColumn;
+    }
+
+    /**
+     * Decodes a row in this layout.
+     * @return the metrics, or null if the row does not fit the layout
+     */
+    abstract ServiceMetrics decode(CsvRow row);
+
+    /**
+     * Result of sniffing a file's first significant lines.
+     */
+    static final class Detection {
+        final CsvFormat format;
+        final boolean firstLineIsHeader;
+
+        Detection(CsvFormat format, boolean firstLineIsHeader) {
+            this.format = format;
+            this.firstLineIsHeader = firstLineIsHeader;
+        }
+    }
+
+    /**
+     * Recognizes a header row by its first column name.
+     * @return the matching format, or null if the row is not a known header
+     */
+    static CsvFormat fromHeader(CsvRow row) {
+        for (CsvFormat format : values()) {
+            if (row.fieldEqualsIgnoreCase(0, format.firstColumn)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Detects the layout from the first significant line and, when that line is an unknown
+     * header, the line after it.
+     * @param second the next significant line, or null if the file has none; only consulted
+     *               when needsSecondLine(first) is true
+     */
+    static Detection detect(CsvRow first, CsvRow second) {
+        CsvFormat header = fromHeader(first);
+        if (header != null) {
+            return new Detection(header, true);
+        }
+        CsvFormat data = fromDataRow(first);
+        if (data != null) {
+            return new Detection(data, false);
+        }
+        data = second == null ? null : fromDataRow(second);
+        return new Detection(data == null ? SERVICE_METRICS : data, true);
+    }
+
+    /**
+     * Whether detect needs to look past the first significant line.
+     */
+    static boolean needsSecondLine(CsvRow first) {
+        return fromHeader(first) == null && fromDataRow(first) == null;
+    }
+
+    private static CsvFormat fromDataRow(CsvRow row) {
+        for (CsvFormat format : values()) {
+            if (format.decode(row) != null) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,117 @@
+package com.cloudnative.retirement.dataloaders;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One CSV line split into reusable field slices.
+ * The field count follows String.split(","), which drops trailing empty fields, and only the
+ * first maxFields fields are kept (MAX_FIELDS unless given). Not thread-safe; each reader or
+ * parsing task owns one row.
+ */
+final class CsvRow {
+    static final int MAX_FIELDS = 5;
+
+    private final ByteSlice[] fields;
+    private ByteBuffer buffer;
+    private int offset;
+    private int length;
+    private int fieldCount;
+    private byte[] textBytes = new byte[128];
+
+    CsvRow() {
+        this(MAX_FIELDS);
+    }
+
+    CsvRow(int maxFields) {
+        fields = new ByteSlice[maxFields];
+        for (int i = 0; i < maxFields; i++) {
+            fields[i] = new ByteSlice();
+        }
+    }
+
+    CsvRow set(ByteBuffer buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+
+        int count = 0;
+        int nonEmptyCount = 0;
+        int fieldStart = offset;
+        int end = offset + length;
+        for (int i = offset; i <= end; i++) {
+            if (i == end || buffer.get(i) == ',') {
+                if (count < fields.length) {
+                    fields[count].set(buffer, fieldStart, i - fieldStart);
+                }
+                count++;
+                if (i > fieldStart) {
+                    nonEmptyCount = count;
+                }
+                fieldStart = i + 1;
+            }
+        }
+        fieldCount = nonEmptyCount;
+        return this;
+    }
+
+    /**
+     * Whether the line is blank or a # comment.
+     */
+    boolean isSkippable() {
+        for (int i = offset; i < offset + length; i++) {
+            int b = buffer.get(i) & 0xFF;
+            if (b > ' ') {
+                return b == '#';
+            }
+        }
+        return true;
+    }
+
+    int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Gets a field with surrounding whitespace removed. Valid until the row is set again.
+     */
+    ByteSlice field(int index) {
+        return fields[index].trim();
+    }
+
+    /**
+     * Decodes a trimmed field as a String.
+     */
+    String text(int index) {
+        ByteSlice field = field(index);
+        int fieldLength = field.length();
+        if (textBytes.length < fieldLength) {
+            textBytes = new byte[Math.max(fieldLength, textBytes.length * 2)];
+        }
+        for (int i = 0; i < fieldLength; i++) {
+            textBytes[i] = (byte) field.byteAt(i);
+        }
+        return new String(textBytes, 0, fieldLength, StandardCharsets.UTF_8);
+    }
+
+    boolean fieldEqualsIgnoreCase(int index, String expected) {
+        if (index >= fieldCount) {
+            return false;
+        }
+        ByteSlice field = field(index);
+        if (field.length() != expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < expected.length(); i++) {
+            if (Character.toLowerCase(field.charAt(i)) != Character.toLowerCase(expected.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return new ByteSlice().set(buffer, offset, length).toString();
+    }
+}
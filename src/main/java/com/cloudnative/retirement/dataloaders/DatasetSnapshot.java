@@ -0,0 +1,223 @@
+package com.cloudnative.retirement.dataloaders;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary columnar copy of a parsed CSV dataset, stored next to the source file.
+ * The snapshot is keyed by the source's absolute path, size and modification time, and is
+ * ignored (then rebuilt by the caller) as soon as any of them changes.
+ *
+ * Layout, little-endian:
+ * header    magic, version, row count, id pool bytes (ints); source size, source mtime (longs);
+ *           source path length (int) and UTF-8 bytes, padded to 8 bytes
+ * columns   timestamp long[n], sla_score double[n], request_count int[n], dependents int[n],
+ *           id end offset int[n]
+ * id pool   UTF-8 service ids back to back
+ */
+final class DatasetSnapshot {
+    private static final Logger logger = LoggerFactory.getLogger(DatasetSnapshot.class);
+
+    static final String EXTENSION = ".snapshot";
+
+    private static final int MAGIC = 0x534E4150; // "SNAP"
+    private static final int VERSION = 3; // 2 added timestamps; 3 dropped made-up Google task dependents
+    private static final int FIXED_HEADER_BYTES = 4 * 4 + 2 * 8 + 4;
+
+    private DatasetSnapshot() {
+    }
+
+    static Path snapshotPath(Path source) {
+        return source.resolveSibling(source.getFileName() + EXTENSION);
+    }
+
+    /**
+     * Reads the snapshot of a source file.
+     * @return the rows, or null if there is no snapshot or it does not match the source
+     */
+    static List<ServiceMetrics> read(Path source) throws IOException {
+        Path snapshot = snapshotPath(source);
+        if (!Files.isRegularFile(snapshot)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            long snapshotSize = channel.size();
+            if (snapshotSize < FIXED_HEADER_BYTES || snapshotSize > Integer.MAX_VALUE) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, snapshotSize);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                logger.debug("Ignoring snapshot with unknown format: {}", snapshot);
+                return null;
+            }
+            int rowCount = buffer.getInt();
+            int idPoolBytes = buffer.getInt();
+            long sourceSize = buffer.getLong();
+            long sourceModified = buffer.getLong();
+            int pathBytes = buffer.getInt();
+
+            if (rowCount < 0 || idPoolBytes < 0 || pathBytes < 0
+                    || snapshotSize != totalBytes(pathBytes, rowCount, idPoolBytes)) {
+                logger.debug("Ignoring truncated snapshot: {}", snapshot);
+                return null;
+            }
+            byte[] path = new byte[pathBytes];
+            buffer.get(path);
+            if (!new String(path, StandardCharsets.UTF_8).equals(key(source))
+                    || sourceSize != Files.size(source)
+                    || sourceModified != Files.getLastModifiedTime(source).toMillis()) {
+                logger.debug("Snapshot is stale: {}", snapshot);
+                return null;
+            }
+
+            buffer.position(columnsOffset(pathBytes));
+            long[] timestamps = new long[rowCount];
+            double[] slaScores = new double[rowCount];
+            int[] requestCounts = new int[rowCount];
+            int[] dependents = new int[rowCount];
+            int[] idEnds = new int[rowCount];
+            buffer.asLongBuffer().get(timestamps);
+            buffer.position(buffer.position() + rowCount * 8);
+            buffer.asDoubleBuffer().get(slaScores);
+            buffer.position(buffer.position() + rowCount * 8);
+            buffer.asIntBuffer().get(requestCounts);
+            buffer.position(buffer.position() + rowCount * 4);
+            buffer.asIntBuffer().get(dependents);
+            buffer.position(buffer.position() + rowCount * 4);
+            buffer.asIntBuffer().get(idEnds);
+            buffer.position(buffer.position() + rowCount * 4);
+            if (!validIdEnds(idEnds, idPoolBytes)) {
+                logger.warn("Ignoring corrupt snapshot: {}", snapshot);
+                return null;
+            }
+
+            byte[] idPool = new byte[idPoolBytes];
+            buffer.get(idPool);
+
+            List<ServiceMetrics> services = new ArrayList<>(rowCount);
+            int idStart = 0;
+            for (int i = 0; i < rowCount; i++) {
+                String serviceId = new String(idPool, idStart, idEnds[i] - idStart, StandardCharsets.UTF_8);
+                services.add(new ServiceMetrics(serviceId, requestCounts[i], slaScores[i], dependents[i],
+                        timestamps[i]));
+                idStart = idEnds[i];
+            }
+            return services;
+        }
+    }
+
+    /**
+     * Checks that the id end offsets never go backwards and end exactly at the end of the pool.
+     */
+    private static boolean validIdEnds(int[] idEnds, int idPoolBytes) {
+        int previous = 0;
+        for (int idEnd : idEnds) {
+            if (idEnd < previous) {
+                return false;
+            }
+            previous = idEnd;
+        }
+        return previous == idPoolBytes;
+    }
+
+    /**
+     * Writes the snapshot of a source file, replacing any previous one.
+     * The file is written to a uniquely named temporary file and moved into place, so readers
+     * never see a partial snapshot and concurrent writers do not clobber each other.
+     *
+     * @param sourceSize source size read before the rows were parsed
+     * @param sourceModified source modification time in millis, read before the rows were parsed;
+     *                       if the source changed during the parse, the snapshot is stale on arrival
+     */
+    static void write(Path source, long sourceSize, long sourceModified, List<ServiceMetrics> services)
+            throws IOException {
+        byte[] path = key(source).getBytes(StandardCharsets.UTF_8);
+
+        int rowCount = services.size();
+        byte[][] ids = new byte[rowCount][];
+        long idPoolBytes = 0;
+        for (int i = 0; i < rowCount; i++) {
+            ids[i] = services.get(i).getServiceId().getBytes(StandardCharsets.UTF_8);
+            idPoolBytes += ids[i].length;
+        }
+        long total = totalBytes(path.length, rowCount, idPoolBytes);
+        if (total > Integer.MAX_VALUE) {
+            throw new IOException("Dataset too large for a snapshot: " + total + " bytes");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) total).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(rowCount).putInt((int) idPoolBytes);
+        buffer.putLong(sourceSize).putLong(sourceModified);
+        buffer.putInt(path.length).put(path);
+
+        buffer.position(columnsOffset(path.length));
+        for (ServiceMetrics service : services) {
+            buffer.putLong(service.getTimestamp());
+        }
+        for (ServiceMetrics service : services) {
+            buffer.putDouble(service.getSlaScore());
+        }
+        for (ServiceMetrics service : services) {
+            buffer.putInt(service.getRequestCount());
+        }
+        for (ServiceMetrics service : services) {
+            buffer.putInt(service.getDependentCount());
+        }
+        int idEnd = 0;
+        for (byte[] id : ids) {
+            idEnd += id.length;
+            buffer.putInt(idEnd);
+        }
+        for (byte[] id : ids) {
+            buffer.put(id);
+        }
+        buffer.flip();
+
+        Path snapshot = snapshotPath(source).toAbsolutePath();
+        Path temp = Files.createTempFile(snapshot.getParent(), snapshot.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            try {
+                Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp); // Only left behind if the write or move failed
+        }
+        logger.info("Wrote snapshot of {} services ({} bytes): {}", rowCount, total, snapshot);
+    }
+
+    private static String key(Path source) {
+        return source.toAbsolutePath().normalize().toString();
+    }
+
+    private static int columnsOffset(int pathBytes) {
+        return (FIXED_HEADER_BYTES + pathBytes + 7) & ~7;
+    }
+
+    private static long totalBytes(int pathBytes, int rowCount, long idPoolBytes) {
+        return columnsOffset(pathBytes) + rowCount * 28L + idPoolBytes;
+    }
+}
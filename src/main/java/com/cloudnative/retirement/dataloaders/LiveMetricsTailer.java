@@ -0,0 +1,297 @@
+package com.cloudnative.retirement.dataloaders;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Follows an append-only metrics CSV and decodes only the bytes added since the last poll.
+ * A line is decoded once it is complete; a partly written last line waits for the next poll.
+ * The row layout is detected once from the first lines, as in CSVMicroserviceLoader. If the file
+ * is truncated or replaced, the tailer starts again from its beginning. Rows are handed to the
+ * sink after each read buffer (1 MB), so catching up on a large existing file never holds more
+ * than one buffer's rows; a buffer grown for an unusually long line is dropped once it is decoded.
+ *
+ * Call poll() from your own loop, or start() a background thread that polls whenever the
+ * directory watcher reports a change (and at least every poll interval, since some platforms
+ * deliver watch events late).
+ */
+public class LiveMetricsTailer implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(LiveMetricsTailer.class);
+
+    private static final int READ_BUFFER_BYTES = 1 << 20;
+
+    private final Path file;
+    private final Consumer<List<ServiceMetrics>> sink;
+    private final CsvRow row = new CsvRow();
+
+    // Poll state, guarded by this
+    private ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_BYTES);
+    private long position;
+    private Object fileKey;
+    private CsvFormat format;
+    private long lineCount;
+    private long errorCount;
+    private long skippedCount;
+
+    private Thread worker;
+    private WatchService watcher;
+    private volatile boolean closed;
+
+    /**
+     * @param file Metrics CSV to follow; it does not need to exist yet
+     * @param sink Receives each non-empty batch of newly decoded rows, in file order; a poll may
+     *             deliver several batches
+     */
+    public LiveMetricsTailer(Path file, Consumer<List<ServiceMetrics>> sink) {
+        this.file = file;
+        this.sink = sink;
+    }
+
+    /**
+     * Decodes the lines appended since the last poll and hands them to the sink.
+     *
+     * @return number of rows delivered
+     * @throws IOException if the file cannot be read
+     */
+    public synchronized int poll() throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+        long size = attributes.size();
+        Object key = attributes.fileKey();
+        if (size < position || (key != null && fileKey != null && !key.equals(fileKey))) {
+            logger.info("Metrics file was truncated or replaced, reading from the start: {}", file);
+            position = 0;
+            format = null;
+        }
+        fileKey = key;
+        if (size == position) {
+            return 0;
+        }
+
+        int delivered = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (position < size) {
+                buffer.clear();
+                int read = channel.read(buffer, position);
+                if (read <= 0) {
+                    break;
+                }
+                List<ServiceMetrics> batch = new ArrayList<>();
+                int consumed = decodeCompleteLines(read, batch);
+                if (consumed == 0) {
+                    if (read < buffer.capacity()) {
+                        break; // Only a partial line so far
+                    }
+                    buffer = ByteBuffer.allocate(buffer.capacity() * 2); // Line longer than the buffer
+                    continue;
+                }
+                position += consumed;
+                if (buffer.capacity() > READ_BUFFER_BYTES) {
+                    buffer = ByteBuffer.allocate(READ_BUFFER_BYTES); // The long line is decoded
+                }
+                if (!batch.isEmpty()) {
+                    sink.accept(batch);
+                    delivered += batch.size();
+                }
+            }
+        }
+        return delivered;
+    }
+
+    /**
+     * Decodes the complete lines in buffer[0, limit).
+     * @return number of bytes consumed
+     */
+    private int decodeCompleteLines(int limit, List<ServiceMetrics> batch) {
+        int start = 0;
+        if (format == null) {
+            start = detectFormat(limit);
+            if (start < 0) {
+                return 0;
+            }
+        }
+
+        int lineStart = start;
+        for (int i = start; i < limit; i++) {
+            if (buffer.get(i) != '\n') {
+                continue;
+            }
+            lineCount++;
+            row.set(buffer, lineStart, contentLength(lineStart, i));
+            if (row.isSkippable()) {
+                skippedCount++;
+            } else {
+                ServiceMetrics service = format.decode(row);
+                if (service != null) {
+                    batch.add(service);
+                } else {
+                    errorCount++;
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("Line {} does not match {} format: {}", lineCount, format, row);
+                    }
+                }
+            }
+            lineStart = i + 1;
+        }
+        return lineStart;
+    }
+
+    /**
+     * Detects the row layout from the first complete significant lines.
+     * @return offset of the first data line, or -1 if there are not enough complete lines yet
+     */
+    private int detectFormat(int limit) {
+        CsvRow first = null;
+        CsvRow second = null;
+        int firstStart = 0;
+        int firstEnd = 0;
+        int lineStart = 0;
+        for (int i = 0; i < limit && second == null; i++) {
+            if (buffer.get(i) != '\n') {
+                continue;
+            }
+            CsvRow candidate = new CsvRow().set(buffer, lineStart, contentLength(lineStart, i));
+            if (!candidate.isSkippable()) {
+                if (first != null) {
+                    second = candidate;
+                } else {
+                    first = candidate;
+                    firstStart = lineStart;
+                    firstEnd = i;
+                    if (!CsvFormat.needsSecondLine(first)) {
+                        break;
+                    }
+                }
+            }
+            lineStart = i + 1;
+        }
+        if (first == null || (second == null && CsvFormat.needsSecondLine(first))) {
+            return -1;
+        }
+
+        CsvFormat.Detection detection = CsvFormat.detect(first, second);
+        format = detection.format;
+        logger.debug("Detected {} format in {}", format, file);
+        return detection.firstLineIsHeader ? firstEnd + 1 : firstStart;
+    }
+
+    private int contentLength(int lineStart, int lineEnd) {
+        if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') {
+            return lineEnd - 1 - lineStart;
+        }
+        return lineEnd - lineStart;
+    }
+
+    /**
+     * Starts a daemon thread that polls on directory change events and at least every interval.
+     *
+     * @param pollIntervalMillis Longest wait between polls
+     * @throws IOException if the directory cannot be watched
+     */
+    public synchronized void start(long pollIntervalMillis) throws IOException {
+        if (worker != null) {
+            throw new IllegalStateException("Tailer already started");
+        }
+        Path directory = file.toAbsolutePath().getParent();
+        watcher = directory.getFileSystem().newWatchService();
+        directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        worker = new Thread(() -> followLoop(pollIntervalMillis), "metrics-tailer");
+        worker.setDaemon(true);
+        worker.start();
+        logger.info("Following metrics file {} (poll interval {} ms)", file, pollIntervalMillis);
+    }
+
+    private void followLoop(long pollIntervalMillis) {
+        while (!closed) {
+            try {
+                poll();
+                WatchKey key = watcher.poll(pollIntervalMillis, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    key.pollEvents(); // Any change in the directory triggers a poll
+                    key.reset();
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Failed to read metrics file {}: {}", file, e.getMessage());
+                try {
+                    Thread.sleep(pollIntervalMillis);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the row layout detected for the file, or null before the first lines arrive.
+     */
+    public synchronized CsvFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Gets the byte offset up to which the file has been decoded.
+     */
+    public synchronized long getPosition() {
+        return position;
+    }
+
+    public synchronized long getLineCount() {
+        return lineCount;
+    }
+
+    public synchronized long getErrorCount() {
+        return errorCount;
+    }
+
+    public synchronized long getSkippedCount() {
+        return skippedCount;
+    }
+
+    /**
+     * Stops the background thread, if started.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        Thread current;
+        synchronized (this) {
+            current = worker;
+            if (watcher != null) {
+                watcher.close();
+            }
+        }
+        if (current != null) {
+            current.interrupt();
+            try {
+                current.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
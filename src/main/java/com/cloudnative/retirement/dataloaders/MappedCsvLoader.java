@@ -0,0 +1,263 @@
+package com.cloudnative.retirement.dataloaders;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Parallel CSV ingestion over a memory-mapped file.
+ * The row layout is detected once from the start of the file. The data section is then cut into
+ * fixed-size chunks; a line belongs to the chunk holding its first byte, so every chunk can find
+ * its own line boundaries without coordination. Each chunk is mapped and parsed straight from
+ * bytes on a ForkJoin worker, and the per-chunk results are joined in file order. fold() lets
+ * callers reduce each chunk to a small accumulator instead of collecting every row.
+ * Lines end at \n, \r or \r\n, as with BufferedReader.readLine(). A chunk's mapping is
+ * unreachable once the chunk is parsed, but the JDK only unmaps it when the buffer is garbage
+ * collected, so address space is returned lazily.
+ */
+final class MappedCsvLoader {
+    private static final Logger logger = LoggerFactory.getLogger(MappedCsvLoader.class);
+
+    private static final long MIN_CHUNK_BYTES = 1 << 20;
+    private static final long MAX_CHUNK_BYTES = 256L << 20;
+    private static final int MAX_LINE_BYTES = 64 << 10; // Longer rows are counted as errors
+
+    private MappedCsvLoader() {
+    }
+
+    static List<ServiceMetrics> load(Path path, int parallelism) throws IOException {
+        List<ServiceMetrics> services = new ArrayList<>();
+        List<List<ServiceMetrics>> chunks = fold(path, parallelism, ArrayList::new, List::add);
+        for (List<ServiceMetrics> chunk : chunks) {
+            services.addAll(chunk);
+        }
+        return services;
+    }
+
+    /**
+     * Folds the rows of each chunk into its own accumulator, in parallel.
+     * @return the chunk accumulators in file order
+     */
+    static <A> List<A> fold(Path path, int parallelism, Supplier<A> newAccumulator,
+                            BiConsumer<A, ? super ServiceMetrics> accumulator) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            Layout layout = detectLayout(channel, size);
+            if (layout == null) {
+                logger.error("CSV file is empty");
+                return new ArrayList<>();
+            }
+            logger.debug("Detected {} format in {}", layout.format, path);
+
+            long dataBytes = size - layout.dataStart;
+            long chunkBytes = Math.max(MIN_CHUNK_BYTES, Math.min(MAX_CHUNK_BYTES, dataBytes / (parallelism * 4L) + 1));
+            List<ChunkTask<A>> tasks = new ArrayList<>();
+            for (long start = layout.dataStart; start < size; start += chunkBytes) {
+                tasks.add(new ChunkTask<>(channel, size, layout, start, Math.min(size, start + chunkBytes),
+                                          newAccumulator.get(), accumulator));
+            }
+
+            ForkJoinPool pool = parallelism == ForkJoinPool.getCommonPoolParallelism()
+                ? ForkJoinPool.commonPool() : new ForkJoinPool(parallelism);
+            try {
+                pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+            } finally {
+                if (pool != ForkJoinPool.commonPool()) {
+                    pool.shutdown();
+                }
+            }
+
+            List<A> results = new ArrayList<>();
+            long rowCount = 0;
+            int lineCount = 0;
+            int errorCount = 0;
+            int skippedCount = 0;
+            for (ChunkTask<A> task : tasks) {
+                ChunkTask<A> result = task.join();
+                results.add(result.accumulation);
+                rowCount += result.rowCount;
+                lineCount += result.lineCount;
+                errorCount += result.errorCount;
+                skippedCount += result.skippedCount;
+            }
+
+            logger.info("Successfully loaded {} services from {} lines in {} chunks (errors: {}, comments/blank: {})",
+                       rowCount, lineCount, tasks.size(), errorCount, skippedCount);
+            return results;
+        }
+    }
+
+    /**
+     * Detected row layout and the byte offset of the first data line.
+     */
+    private static final class Layout {
+        final CsvFormat format;
+        final long dataStart;
+
+        Layout(CsvFormat format, long dataStart) {
+            this.format = format;
+            this.dataStart = dataStart;
+        }
+    }
+
+    /**
+     * Reads the first significant lines to detect the layout.
+     * @return the layout, or null if the file has no significant lines
+     */
+    private static Layout detectLayout(FileChannel channel, long size) throws IOException {
+        int headLength = (int) Math.min(size, MIN_CHUNK_BYTES);
+        MappedByteBuffer head = channel.map(FileChannel.MapMode.READ_ONLY, 0, headLength);
+
+        CsvRow first = null;
+        CsvRow second = null;
+        int firstStart = 0;
+        int firstEnd = 0;
+        int position = 0;
+        while (position < headLength && second == null) {
+            int lineEnd = lineEnd(head, position, headLength);
+            CsvRow row = new CsvRow().set(head, position, lineEnd - position);
+            if (!row.isSkippable()) {
+                if (first != null) {
+                    second = row;
+                } else {
+                    first = row;
+                    firstStart = position;
+                    firstEnd = lineEnd;
+                    if (!CsvFormat.needsSecondLine(first)) {
+                        break;
+                    }
+                }
+            }
+            position = nextLineStart(head, lineEnd, headLength);
+        }
+        if (first == null) {
+            return null;
+        }
+
+        CsvFormat.Detection detection = CsvFormat.detect(first, second);
+        return new Layout(detection.format, detection.firstLineIsHeader
+            ? nextLineStart(head, firstEnd, headLength) : firstStart);
+    }
+
+    /**
+     * @return the index of the first \n or \r at or after from, or limit if there is none
+     */
+    private static int lineEnd(MappedByteBuffer buffer, int from, int limit) {
+        int position = from;
+        while (position < limit) {
+            byte b = buffer.get(position);
+            if (b == '\n' || b == '\r') {
+                break;
+            }
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * @return the start of the line after the terminator at lineEnd, treating \r\n as one terminator
+     */
+    private static int nextLineStart(MappedByteBuffer buffer, int lineEnd, int limit) {
+        if (lineEnd + 1 < limit && buffer.get(lineEnd) == '\r' && buffer.get(lineEnd + 1) == '\n') {
+            return lineEnd + 2;
+        }
+        return lineEnd + 1;
+    }
+
+    /**
+     * Parses the lines that start inside [start, end) and folds them into the chunk's accumulator.
+     * The task returns itself so the counters travel with the result.
+     */
+    private static final class ChunkTask<A> extends RecursiveTask<ChunkTask<A>> {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final long fileSize;
+        private final Layout layout;
+        private final long start;
+        private final long end;
+        private final A accumulation;
+        private final BiConsumer<A, ? super ServiceMetrics> accumulator;
+        private long rowCount;
+        private int lineCount;
+        private int errorCount;
+        private int skippedCount;
+
+        ChunkTask(FileChannel channel, long fileSize, Layout layout, long start, long end,
+                  A accumulation, BiConsumer<A, ? super ServiceMetrics> accumulator) {
+            this.channel = channel;
+            this.fileSize = fileSize;
+            this.layout = layout;
+            this.start = start;
+            this.end = end;
+            this.accumulation = accumulation;
+            this.accumulator = accumulator;
+        }
+
+        @Override
+        protected ChunkTask<A> compute() {
+            try {
+                // Map one byte before the chunk to see whether it starts on a line boundary,
+                // and enough bytes after it to finish the last line. The buffer and the row that
+                // views it are locals, so nothing keeps the mapping reachable after this chunk
+                boolean firstChunk = start == layout.dataStart;
+                long mapStart = firstChunk ? start : start - 1;
+                long mapEnd = Math.min(fileSize, end + MAX_LINE_BYTES);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+                int limit = (int) (mapEnd - mapStart);
+                int chunkEnd = (int) (end - mapStart);
+                CsvRow row = new CsvRow(); // Reused for every line in the chunk
+
+                int position = 0;
+                if (!firstChunk) {
+                    // A \n right after a \r in the byte before the chunk still belongs to that line
+                    position = nextLineStart(buffer, lineEnd(buffer, 0, limit), limit);
+                }
+
+                while (position < chunkEnd) {
+                    int lineEnd = lineEnd(buffer, position, limit);
+                    lineCount++;
+                    if (lineEnd == limit && mapEnd < fileSize) {
+                        errorCount++;
+                        logger.debug("Line at byte {} exceeds {} bytes", mapStart + position, MAX_LINE_BYTES);
+                        break;
+                    }
+
+                    row.set(buffer, position, lineEnd - position);
+                    if (row.isSkippable()) {
+                        skippedCount++;
+                    } else {
+                        ServiceMetrics service = layout.format.decode(row);
+                        if (service != null) {
+                            accumulator.accept(accumulation, service);
+                            rowCount++;
+                        } else {
+                            errorCount++;
+                            if (logger.isDebugEnabled()) {
+                                logger.debug("Line at byte {} does not match {} format: {}",
+                                            mapStart + position, layout.format, row);
+                            }
+                        }
+                    }
+                    position = nextLineStart(buffer, lineEnd, limit);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to map bytes " + start + "-" + end, e);
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.cloudnative.retirement.dataloaders;
+
+import com.cloudnative.retirement.model.Microservice;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Applies batches of live ServiceMetrics to the matching running Microservice instances.
+ * Rows for unknown or inactive services are ignored. After a service is updated the listener is
+ * told, so its agent can re-evaluate. Typically used as the sink of a LiveMetricsTailer.
+ */
+public class MicroserviceMetricsUpdater implements Consumer<List<ServiceMetrics>> {
+    private static final Logger logger = LoggerFactory.getLogger(MicroserviceMetricsUpdater.class);
+
+    private final Map<String, Microservice> services;
+    private final Consumer<Microservice> onUpdate;
+    private long updatedCount;
+    private long ignoredCount;
+
+    /**
+     * @param services Running services by service id; read on every batch, so it may be a concurrent map
+     * @param onUpdate Called after each service update, e.g. to re-run its retirement agent
+     */
+    public MicroserviceMetricsUpdater(Map<String, Microservice> services, Consumer<Microservice> onUpdate) {
+        this.services = services;
+        this.onUpdate = onUpdate;
+    }
+
+    @Override
+    public synchronized void accept(List<ServiceMetrics> batch) {
+        for (ServiceMetrics metrics : batch) {
+            Microservice service = services.get(metrics.getServiceId());
+            if (service == null || !service.isActive()) {
+                ignoredCount++;
+                logger.debug("No active service for metrics row: {}", metrics);
+                continue;
+            }
+
+            // Same mapping the simulation uses for metric changes
+            service.setRequestCount(metrics.getRequestCount());
+            service.setUtilizationRate(metrics.getRequestCount() / 1000.0);
+            service.setSlaContribution(metrics.getSlaScore());
+            service.setDependentServiceCount(metrics.getDependentCount());
+            updatedCount++;
+            onUpdate.accept(service);
+        }
+    }
+
+    public synchronized long getUpdatedCount() {
+        return updatedCount;
+    }
+
+    public synchronized long getIgnoredCount() {
+        return ignoredCount;
+    }
+}
@@ -0,0 +1,180 @@
+package com.cloudnative.retirement.dataloaders;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Pull iterator over the rows of a metrics CSV file.
+ * Reads one line at a time into a reused buffer, so memory use does not depend on the file size.
+ * The row layout is detected from the first significant lines and bound for the whole file;
+ * blank lines and # comments are skipped. Close it when done, or use it in a try-with-resources block.
+ */
+public class ServiceMetricsReader implements Iterator<ServiceMetrics>, Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(ServiceMetricsReader.class);
+
+    private final ByteLineReader lines;
+    private final String source;
+    private final CsvRow row = new CsvRow();
+    private boolean rowPending; // row holds a significant line that has not been decoded yet
+
+    private CsvFormat format;
+    private ServiceMetrics next;
+    private boolean finished;
+    private boolean closed;
+    private int lineCount;
+    private int errorCount;
+    private int skippedCount;
+    private int loadedCount;
+
+    ServiceMetricsReader(InputStream in, String source) throws IOException {
+        this.lines = in == null ? null : new ByteLineReader(in);
+        this.source = source;
+
+        if (in == null || !readSignificantLine()) {
+            if (in != null) {
+                logger.error("CSV file is empty");
+            }
+            finished = true;
+            return;
+        }
+
+        // Keep the first line: reading a second one reuses the line buffer
+        CsvRow first = new CsvRow().set(lines.copyLine(), 0, lines.lineLength());
+        CsvRow second = null;
+        if (CsvFormat.needsSecondLine(first) && readSignificantLine()) {
+            second = row;
+            rowPending = true;
+        }
+
+        CsvFormat.Detection detection = CsvFormat.detect(first, second);
+        format = detection.format;
+        logger.debug("Detected {} format in {}", format, source);
+        if (detection.firstLineIsHeader) {
+            logger.debug("CSV Header: {}", first);
+        } else {
+            lineCount++;
+            decode(first);
+        }
+        if (rowPending) {
+            lineCount++;
+        }
+    }
+
+    /**
+     * Creates a reader with no rows, used when the source file does not exist.
+     */
+    static ServiceMetricsReader empty(String source) {
+        try {
+            return new ServiceMetricsReader(null, source);
+        } catch (IOException e) {
+            throw new IllegalStateException("Empty reader cannot fail", e);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !finished) {
+            advance();
+        }
+        return next != null;
+    }
+
+    @Override
+    public ServiceMetrics next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        ServiceMetrics current = next;
+        next = null;
+        loadedCount++;
+        return current;
+    }
+
+    private void advance() {
+        try {
+            if (rowPending) {
+                rowPending = false;
+                if (decode(row)) {
+                    return;
+                }
+            }
+            while (lines.readLine()) {
+                lineCount++;
+                row.set(lines.line(), 0, lines.lineLength());
+                if (row.isSkippable()) {
+                    skippedCount++;
+                } else if (decode(row)) {
+                    return;
+                }
+            }
+            finished = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + source, e);
+        }
+    }
+
+    private boolean decode(CsvRow current) {
+        next = format.decode(current);
+        if (next == null) {
+            errorCount++;
+            if (logger.isDebugEnabled()) {
+                logger.debug("Line {} does not match {} format: {}", lineCount, format, current);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Reads lines until one is neither blank nor a comment and leaves it in row.
+     */
+    private boolean readSignificantLine() throws IOException {
+        while (lines.readLine()) {
+            row.set(lines.line(), 0, lines.lineLength());
+            if (!row.isSkippable()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the row layout detected for this file, or null if the file is missing or empty.
+     */
+    public CsvFormat getFormat() {
+        return format;
+    }
+
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    public int getSkippedCount() {
+        return skippedCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        finished = true;
+        if (lines != null) {
+            lines.close();
+            logger.info("Successfully loaded {} services from {} lines (errors: {}, comments/blank: {})",
+                       loadedCount, lineCount, errorCount, skippedCount);
+        }
+    }
+}
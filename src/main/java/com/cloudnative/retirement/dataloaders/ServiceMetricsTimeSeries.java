@@ -0,0 +1,350 @@
+package com.cloudnative.retirement.dataloaders;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Columnar per-service time series of ServiceMetrics samples within a fixed memory budget.
+ *
+ * Every service gets the same number of slots in flat primitive columns, sized from the budget
+ * when the store is created, so appends never allocate. Timestamps are stored as long millisecond
+ * deltas from the previous slot, requests and dependents as ints and SLA as a float: 20 bytes per
+ * slot. Deltas are long because merging adds up neighbouring gaps, which soon passes 2^31 ms on a
+ * sparse trace. When a service's slots are full, adjacent pairs are merged and the service's bucket width
+ * doubles, so a long trace keeps its full time span at a coarser resolution. A bucket holds the
+ * mean requests and SLA of its samples, the dependents of its last sample and the timestamp of
+ * its first.
+ *
+ * Reads go through a Cursor, which decodes timestamps as it moves forward. Not thread-safe while
+ * appending; cursors on different services may be used from different threads once loading is done.
+ */
+public final class ServiceMetricsTimeSeries {
+    private static final Logger logger = LoggerFactory.getLogger(ServiceMetricsTimeSeries.class);
+
+    static final int BYTES_PER_SLOT = 8 + 4 + 4 + 4;
+    static final int BYTES_PER_SERVICE = 96; // Per-service bookkeeping below, roughly
+
+    private final int maxServices;
+    private final int slotsPerService;
+    private final Map<String, Integer> seriesIndex = new HashMap<>();
+    private String[] serviceIds;
+
+    // Flat columns; service s owns [s * slotsPerService, (s + 1) * slotsPerService)
+    private final long[] timestampDeltas;
+    private final int[] requestCounts;
+    private final float[] slaScores;
+    private final int[] dependentCounts;
+
+    // Per-service bookkeeping
+    private final int[] slotCounts;
+    private final int[] bucketWidths; // samples per slot, a power of two
+    private final int[] generations; // bumped whenever slots are merged, to reset cursors
+    private final long[] firstTimestamps;
+    private final long[] lastSlotTimestamps;
+    private final int[] pendingCounts; // samples in the bucket that is still filling
+    private final long[] pendingTimestamps;
+    private final long[] pendingRequests;
+    private final double[] pendingSla;
+    private final int[] pendingDependents;
+    private final long[] lastSampleTimestamps;
+    private int serviceCount;
+
+    /**
+     * @param maxServices Largest number of distinct services the store will hold
+     * @param memoryBudgetBytes Total size of the sample columns and per-service bookkeeping
+     */
+    public ServiceMetricsTimeSeries(int maxServices, long memoryBudgetBytes) {
+        if (maxServices < 1) {
+            throw new IllegalArgumentException("At least one service is required: " + maxServices);
+        }
+        long slots = (memoryBudgetBytes - (long) maxServices * BYTES_PER_SERVICE) / ((long) maxServices * BYTES_PER_SLOT);
+        slots = Math.min(slots, (Integer.MAX_VALUE - 8) / maxServices) & ~1L; // Even, so slots merge in pairs
+        if (slots < 2) {
+            throw new IllegalArgumentException("Memory budget of " + memoryBudgetBytes
+                                               + " bytes is too small for " + maxServices + " services");
+        }
+        this.maxServices = maxServices;
+        this.slotsPerService = (int) slots;
+        this.serviceIds = new String[Math.min(maxServices, 1024)];
+
+        int total = maxServices * slotsPerService;
+        this.timestampDeltas = new long[total];
+        this.requestCounts = new int[total];
+        this.slaScores = new float[total];
+        this.dependentCounts = new int[total];
+
+        this.slotCounts = new int[maxServices];
+        this.bucketWidths = new int[maxServices];
+        this.generations = new int[maxServices];
+        this.firstTimestamps = new long[maxServices];
+        this.lastSlotTimestamps = new long[maxServices];
+        this.pendingCounts = new int[maxServices];
+        this.pendingTimestamps = new long[maxServices];
+        this.pendingRequests = new long[maxServices];
+        this.pendingSla = new double[maxServices];
+        this.pendingDependents = new int[maxServices];
+        this.lastSampleTimestamps = new long[maxServices];
+        Arrays.fill(bucketWidths, 1);
+
+        logger.info("Time series store for {} services with {} slots each ({} bytes)",
+                   maxServices, slotsPerService, memoryBudgetBytes);
+    }
+
+    /**
+     * Appends a sample stamped with the row's timestamp.
+     */
+    public void append(ServiceMetrics metrics) {
+        append(metrics.getServiceId(), metrics.getTimestamp(), metrics.getRequestCount(),
+               metrics.getSlaScore(), metrics.getDependentCount());
+    }
+
+    /**
+     * Appends a sample to a service's series.
+     * Samples of one service must arrive in timestamp order.
+     */
+    public void append(String serviceId, long timestamp, int requestCount, double slaScore, int dependentCount) {
+        int series = seriesFor(serviceId);
+        if ((slotCounts[series] > 0 || pendingCounts[series] > 0) && timestamp < lastSampleTimestamps[series]) {
+            throw new IllegalArgumentException("Sample for " + serviceId + " at " + timestamp
+                                               + " is out of order after " + lastSampleTimestamps[series]);
+        }
+        lastSampleTimestamps[series] = timestamp;
+
+        if (pendingCounts[series] == 0) {
+            pendingTimestamps[series] = timestamp;
+            pendingRequests[series] = 0;
+            pendingSla[series] = 0;
+        }
+        pendingCounts[series]++;
+        pendingRequests[series] += requestCount;
+        pendingSla[series] += slaScore;
+        pendingDependents[series] = dependentCount;
+
+        if (pendingCounts[series] == bucketWidths[series]) {
+            if (slotCounts[series] == slotsPerService) {
+                mergePairs(series);
+                return; // The filling bucket is now half of a wider one
+            }
+            int count = pendingCounts[series];
+            writeSlot(series, pendingTimestamps[series], (int) Math.round((double) pendingRequests[series] / count),
+                      (float) (pendingSla[series] / count), pendingDependents[series]);
+            pendingCounts[series] = 0;
+        }
+    }
+
+    private int seriesFor(String serviceId) {
+        Integer index = seriesIndex.get(serviceId);
+        if (index != null) {
+            return index;
+        }
+        if (serviceCount == maxServices) {
+            throw new IllegalStateException("Time series store is full: " + maxServices + " services");
+        }
+        if (serviceCount == serviceIds.length) {
+            serviceIds = Arrays.copyOf(serviceIds, Math.min(maxServices, serviceCount * 2));
+        }
+        int series = serviceCount++;
+        serviceIds[series] = serviceId;
+        seriesIndex.put(serviceId, series);
+        return series;
+    }
+
+    private void writeSlot(int series, long timestamp, int requests, float sla, int dependents) {
+        int slot = slotCounts[series];
+        int offset = series * slotsPerService + slot;
+        if (slot == 0) {
+            firstTimestamps[series] = timestamp;
+            timestampDeltas[offset] = 0;
+        } else {
+            timestampDeltas[offset] = timestamp - lastSlotTimestamps[series];
+        }
+        lastSlotTimestamps[series] = timestamp;
+        requestCounts[offset] = requests;
+        slaScores[offset] = sla;
+        dependentCounts[offset] = dependents;
+        slotCounts[series] = slot + 1;
+    }
+
+    /**
+     * Merges slots (2k, 2k + 1) into slot k and doubles the bucket width.
+     */
+    private void mergePairs(int series) {
+        int base = series * slotsPerService;
+        int merged = slotCounts[series] / 2;
+        long timestamp = firstTimestamps[series];
+        long previous = timestamp;
+        for (int k = 0; k < merged; k++) {
+            int left = base + 2 * k;
+            int right = left + 1;
+            if (k > 0) {
+                timestamp += timestampDeltas[left - 1] + timestampDeltas[left];
+            }
+            int target = base + k;
+            timestampDeltas[target] = timestamp - previous;
+            previous = timestamp;
+            requestCounts[target] = (int) ((requestCounts[left] + (long) requestCounts[right] + 1) >> 1);
+            slaScores[target] = (slaScores[left] + slaScores[right]) / 2;
+            dependentCounts[target] = dependentCounts[right];
+        }
+        slotCounts[series] = merged;
+        lastSlotTimestamps[series] = timestamp;
+        bucketWidths[series] *= 2;
+        generations[series]++;
+    }
+
+    public int getServiceCount() {
+        return serviceCount;
+    }
+
+    public int getSlotsPerService() {
+        return slotsPerService;
+    }
+
+    /**
+     * Gets the position of a service in the store, or -1 if it has no samples.
+     */
+    public int indexOf(String serviceId) {
+        Integer index = seriesIndex.get(serviceId);
+        return index == null ? -1 : index;
+    }
+
+    public String getServiceId(int series) {
+        return serviceIds[series];
+    }
+
+    /**
+     * Gets the number of samples merged into each stored point of a service.
+     */
+    public int getBucketWidth(int series) {
+        return bucketWidths[series];
+    }
+
+    /**
+     * Gets the number of stored points of a service, including a partly filled last bucket.
+     */
+    public int size(int series) {
+        return slotCounts[series] + (pendingCounts[series] > 0 ? 1 : 0);
+    }
+
+    public Cursor cursor(int series) {
+        if (series < 0 || series >= serviceCount) {
+            throw new IndexOutOfBoundsException("No series " + series);
+        }
+        return new Cursor(series);
+    }
+
+    /**
+     * Forward-only reader over one service's points.
+     */
+    public final class Cursor {
+        private final int series;
+        private int generation;
+        private int next; // index of the next point to read
+        private long nextTimestamp;
+        private boolean hasSample;
+        private long timestamp;
+        private int requestCount;
+        private double slaScore;
+        private int dependentCount;
+
+        private Cursor(int series) {
+            this.series = series;
+            reset();
+        }
+
+        private void reset() {
+            generation = generations[series];
+            next = 0;
+            hasSample = false;
+            nextTimestamp = firstTimestamps[series];
+        }
+
+        /**
+         * Moves to the next point.
+         * @return false if there are no more points
+         */
+        public boolean next() {
+            sync();
+            if (next >= size(series)) {
+                return false;
+            }
+            if (next == slotCounts[series]) {
+                int count = pendingCounts[series];
+                timestamp = pendingTimestamps[series];
+                requestCount = (int) Math.round((double) pendingRequests[series] / count);
+                slaScore = (float) (pendingSla[series] / count);
+                dependentCount = pendingDependents[series];
+            } else {
+                int offset = series * slotsPerService + next;
+                if (next > 0) {
+                    nextTimestamp += timestampDeltas[offset];
+                }
+                timestamp = nextTimestamp;
+                requestCount = requestCounts[offset];
+                slaScore = slaScores[offset];
+                dependentCount = dependentCounts[offset];
+            }
+            next++;
+            hasSample = true;
+            return true;
+        }
+
+        /**
+         * Moves to the last point at or before the given time.
+         * @return false if the series has no point that early
+         */
+        public boolean advanceTo(long time) {
+            sync();
+            while (next < size(series) && peekTimestamp() <= time) {
+                next();
+            }
+            return hasSample && timestamp <= time;
+        }
+
+        /**
+         * Re-finds the current point after the store merged this service's slots.
+         */
+        private void sync() {
+            if (generation != generations[series]) {
+                long current = timestamp;
+                boolean had = hasSample;
+                reset();
+                if (had) {
+                    advanceTo(current);
+                }
+            }
+        }
+
+        private long peekTimestamp() {
+            if (next == slotCounts[series]) {
+                return pendingTimestamps[series];
+            }
+            return next == 0 ? firstTimestamps[series]
+                : nextTimestamp + timestampDeltas[series * slotsPerService + next];
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public int getRequestCount() {
+            return requestCount;
+        }
+
+        public double getSlaScore() {
+            return slaScore;
+        }
+
+        public int getDependentCount() {
+            return dependentCount;
+        }
+
+        public ServiceMetrics toServiceMetrics() {
+            return new ServiceMetrics(serviceIds[series], requestCount, slaScore, dependentCount, timestamp);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.cloudnative.retirement.dataloaders;
+
+import java.util.Arrays;
+
+/**
+ * Describes which columns of a raw cluster trace feed ClusterTraceAggregator.
+ * Column indexes are zero-based; -1 means the trace has no such column.
+ *
+ * Each row is one sample for the service in serviceColumn. A sample counts against the SLA when
+ * its status is one of the failure values or its latency is above the SLO. A service's dependents
+ * are the distinct services seen in upstreamColumn calling it.
+ */
+public final class TraceSchema {
+    /**
+     * Google cluster-usage 2011 task_events: job ID, event type (3 FAIL, 5 KILL, 6 LOST).
+     */
+    public static final TraceSchema GOOGLE_TASK_EVENTS =
+        new TraceSchema("google-task-events", false, 2, -1, 5, new String[] {"3", "5", "6"}, -1, 0);
+
+    /**
+     * Alibaba cluster-trace-v2018 batch_instance: job name, instance status.
+     */
+    public static final TraceSchema ALIBABA_BATCH_INSTANCE =
+        new TraceSchema("alibaba-batch-instance", false, 2, -1, 4, new String[] {"Failed"}, -1, 0);
+
+    /**
+     * Alibaba cluster-trace-microservices-v2021 MSCallGraph: traceid, timestamp, rpcid, um, rpctype,
+     * dm, interface, rt. Calls are attributed to the downstream service; rt is in milliseconds.
+     */
+    public static final TraceSchema ALIBABA_MS_CALL_GRAPH =
+        new TraceSchema("alibaba-ms-call-graph", true, 5, 3, -1, new String[0], 7, 500);
+
+    private final String name;
+    private final boolean hasHeader;
+    private final int serviceColumn;
+    private final int upstreamColumn;
+    private final int statusColumn;
+    private final String[] failureStatuses;
+    private final int latencyColumn;
+    private final double sloMillis;
+
+    public TraceSchema(String name, boolean hasHeader, int serviceColumn, int upstreamColumn,
+                       int statusColumn, String[] failureStatuses, int latencyColumn, double sloMillis) {
+        if (serviceColumn < 0) {
+            throw new IllegalArgumentException("Service column is required");
+        }
+        this.name = name;
+        this.hasHeader = hasHeader;
+        this.serviceColumn = serviceColumn;
+        this.upstreamColumn = upstreamColumn;
+        this.statusColumn = statusColumn;
+        this.failureStatuses = failureStatuses.clone();
+        this.latencyColumn = latencyColumn;
+        this.sloMillis = sloMillis;
+    }
+
+    /**
+     * Creates a copy of this schema with a different latency SLO.
+     */
+    public TraceSchema withSloMillis(double sloMillis) {
+        return new TraceSchema(name, hasHeader, serviceColumn, upstreamColumn, statusColumn,
+                               failureStatuses, latencyColumn, sloMillis);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Whether the first significant line of every shard is a header.
+     */
+    public boolean hasHeader() {
+        return hasHeader;
+    }
+
+    public int getServiceColumn() {
+        return serviceColumn;
+    }
+
+    public int getUpstreamColumn() {
+        return upstreamColumn;
+    }
+
+    public int getStatusColumn() {
+        return statusColumn;
+    }
+
+    public int getLatencyColumn() {
+        return latencyColumn;
+    }
+
+    public double getSloMillis() {
+        return sloMillis;
+    }
+
+    /**
+     * Number of leading columns a row must have to be read.
+     */
+    int requiredColumns() {
+        return Math.max(serviceColumn, Math.max(upstreamColumn, Math.max(statusColumn, latencyColumn))) + 1;
+    }
+
+    boolean isFailure(ByteSlice status) {
+        for (String failure : failureStatuses) {
+            if (failure.contentEquals(status)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TraceSchema{name='%s', service=%d, upstream=%d, status=%d %s, latency=%d <= %.0fms}",
+                             name, serviceColumn, upstreamColumn, statusColumn,
+                             Arrays.toString(failureStatuses), latencyColumn, sloMillis);
+    }
+}
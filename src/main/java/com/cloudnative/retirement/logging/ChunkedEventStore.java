@@ -0,0 +1,157 @@
+package com.cloudnative.retirement.logging;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Append-only store made of fixed-size chunks that are never copied.
+ * Writers reserve a slot with one atomic increment and fill it without locking; only
+ * allocating a new chunk, once every CHUNK_SIZE appends, takes a lock. Elements become visible
+ * to readers in append order, so iteration always sees a consistent prefix of the store
+ * even while writers keep appending.
+ */
+final class ChunkedEventStore<E> implements Iterable<E> {
+    private static final int CHUNK_SHIFT = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT; // 4096 elements per chunk
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int INITIAL_DIRECTORY_SIZE = 16;
+
+    private final AtomicLong reserved = new AtomicLong();
+    private final AtomicLong published = new AtomicLong(); // Length of the fully written prefix
+    private final Object chunkLock = new Object();
+
+    // Only the directory of chunk references is ever resized; chunks themselves never move
+    private volatile AtomicReferenceArray<AtomicReferenceArray<E>> directory =
+        new AtomicReferenceArray<>(INITIAL_DIRECTORY_SIZE);
+
+    /**
+     * Appends an element.
+     */
+    void add(E element) {
+        if (element == null) {
+            throw new NullPointerException("Event store does not accept null elements");
+        }
+        long index = reserved.getAndIncrement();
+        chunkFor(index).set((int) (index & CHUNK_MASK), element);
+        publish();
+    }
+
+    /**
+     * Advances the published prefix over every written slot. Whichever writer fills the slot
+     * at the end of the prefix carries it forward, so no writer ever waits for another.
+     */
+    private void publish() {
+        long prefix = published.get();
+        while (prefix < reserved.get() && slot(prefix) != null) {
+            published.compareAndSet(prefix, prefix + 1);
+            prefix = published.get();
+        }
+    }
+
+    /**
+     * Reads a slot, or returns null if it has been reserved but not written yet.
+     */
+    private E slot(long index) {
+        int chunkIndex = (int) (index >>> CHUNK_SHIFT);
+        AtomicReferenceArray<AtomicReferenceArray<E>> current = directory;
+        AtomicReferenceArray<E> chunk = chunkIndex < current.length() ? current.get(chunkIndex) : null;
+        return chunk == null ? null : chunk.get((int) (index & CHUNK_MASK));
+    }
+
+    private AtomicReferenceArray<E> chunkFor(long index) {
+        int chunkIndex = (int) (index >>> CHUNK_SHIFT);
+        AtomicReferenceArray<AtomicReferenceArray<E>> current = directory;
+        if (chunkIndex < current.length()) {
+            AtomicReferenceArray<E> chunk = current.get(chunkIndex);
+            if (chunk != null) {
+                return chunk;
+            }
+        }
+
+        synchronized (chunkLock) {
+            current = directory;
+            if (chunkIndex >= current.length()) {
+                int length = current.length();
+                while (length <= chunkIndex) {
+                    length *= 2;
+                }
+                AtomicReferenceArray<AtomicReferenceArray<E>> grown = new AtomicReferenceArray<>(length);
+                for (int i = 0; i < current.length(); i++) {
+                    grown.set(i, current.get(i));
+                }
+                directory = grown;
+                current = grown;
+            }
+            AtomicReferenceArray<E> chunk = current.get(chunkIndex);
+            if (chunk == null) {
+                chunk = new AtomicReferenceArray<>(CHUNK_SIZE);
+                current.set(chunkIndex, chunk);
+            }
+            return chunk;
+        }
+    }
+
+    /**
+     * Gets the number of elements visible to readers.
+     */
+    int size() {
+        return (int) Math.min(Integer.MAX_VALUE, published.get());
+    }
+
+    /**
+     * Iterates over the elements published when iteration starts.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return iterator(published.get());
+    }
+
+    private Iterator<E> iterator(long end) {
+        return new Iterator<E>() {
+            private long next;
+
+            @Override
+            public boolean hasNext() {
+                return next < end;
+            }
+
+            @Override
+            public E next() {
+                if (next >= end) {
+                    throw new NoSuchElementException();
+                }
+                return slot(next++);
+            }
+        };
+    }
+
+    @Override
+    public Spliterator<E> spliterator() {
+        long end = published.get();
+        return Spliterators.spliterator(iterator(end), end,
+            Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+    }
+
+    Stream<E> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Copies the currently published elements into a new list.
+     */
+    List<E> toList() {
+        List<E> copy = new ArrayList<>(size());
+        for (E element : this) {
+            copy.add(element);
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,92 @@
+package com.cloudnative.retirement.logging;
+
+import com.cloudnative.retirement.model.RetirementEvent;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Encodes retirement events as CSV rows without String.format or DateTimeFormatter.
+ * Numbers are written digit by digit and the formatted timestamp is reused while consecutive
+ * events share the same second, so encoding a row only touches the caller's StringBuilder.
+ * Not thread-safe; use one encoder per writer.
+ */
+final class CsvRowEncoder {
+    static final String HEADER = "Time,ServiceID,UtilityScore,DependencyCount,RetirementDecision,CPU_Freed,Reason\n";
+
+    private static final double MAX_FAST_FIXED = 1e15; // Larger values fall back to String.format
+
+    private final char[] timestamp = new char[19]; // yyyy-MM-dd HH:mm:ss
+    private long timestampSecond = Long.MIN_VALUE;
+
+    /**
+     * Appends one row, including the trailing newline.
+     */
+    void encode(RetirementEvent event, StringBuilder row) {
+        appendTimestamp(event.getTimestamp(), row);
+        row.append(',').append(event.getServiceId()).append(',');
+        appendFixed2(event.getUtilityScore(), row);
+        row.append(',').append(event.getDependencyCount())
+           .append(',').append(event.getDecision()).append(',');
+        appendFixed2(event.getCpuFreed(), row);
+        row.append(",\"").append(event.getReason()).append("\"\n");
+    }
+
+    private void appendTimestamp(LocalDateTime time, StringBuilder row) {
+        long second = time.toEpochSecond(ZoneOffset.UTC);
+        if (second != timestampSecond) {
+            writeDigits(time.getYear(), 4, 0);
+            timestamp[4] = '-';
+            writeDigits(time.getMonthValue(), 2, 5);
+            timestamp[7] = '-';
+            writeDigits(time.getDayOfMonth(), 2, 8);
+            timestamp[10] = ' ';
+            writeDigits(time.getHour(), 2, 11);
+            timestamp[13] = ':';
+            writeDigits(time.getMinute(), 2, 14);
+            timestamp[16] = ':';
+            writeDigits(time.getSecond(), 2, 17);
+            timestampSecond = second;
+        }
+        row.append(timestamp);
+    }
+
+    private void writeDigits(int value, int width, int offset) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            timestamp[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    /**
+     * Appends a value with two decimals exactly like "%.2f", which rounds the shortest decimal
+     * form of the double half up: 1.005 is written as 1.01 although the double is just below it.
+     * Math.round on value * 100 agrees except within a few ulps of a half cent, where the
+     * decimal form is rounded with BigDecimal instead.
+     */
+    static void appendFixed2(double value, StringBuilder row) {
+        if (Double.isNaN(value) || Math.abs(value) >= MAX_FAST_FIXED) {
+            row.append(String.format("%.2f", value));
+            return;
+        }
+        double abs = Math.abs(value);
+        double cents100 = abs * 100;
+        long scaled;
+        if (Math.abs(cents100 - Math.floor(cents100) - 0.5) <= 4 * Math.ulp(cents100)) {
+            scaled = BigDecimal.valueOf(abs).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+        } else {
+            scaled = Math.round(cents100);
+        }
+        if (Double.doubleToRawLongBits(value) < 0) { // "%.2f" keeps the sign of -0.001 and -0.0
+            row.append('-');
+        }
+        row.append(scaled / 100).append('.');
+        int cents = (int) (scaled % 100);
+        if (cents < 10) {
+            row.append('0');
+        }
+        row.append(cents);
+    }
+}
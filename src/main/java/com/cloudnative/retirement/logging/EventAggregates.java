@@ -0,0 +1,153 @@
+package com.cloudnative.retirement.logging;
+
+import com.cloudnative.retirement.model.RetirementEvent;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running totals over recorded events, updated as each event is recorded.
+ * Adders keep updates cheap when many threads record at once, and every report reads these
+ * totals in O(1) instead of rescanning the event history.
+ */
+final class EventAggregates {
+    private static final String RETIRE = "RETIRE";
+
+    private final LongAdder eventCount = new LongAdder();
+    private final ConcurrentMap<String, LongAdder> decisionCounts = new ConcurrentHashMap<>();
+    private final DoubleAdder cpuFreed = new DoubleAdder();
+    private final DoubleAdder retiredUtility = new DoubleAdder();
+    private final LongAdder dependencyCount = new LongAdder();
+    private final ConcurrentMap<String, LongAdder> retirementReasons = new ConcurrentHashMap<>();
+    private final TopDependents topDependents;
+
+    EventAggregates(int topDependentCapacity) {
+        this.topDependents = new TopDependents(topDependentCapacity);
+    }
+
+    void record(RetirementEvent event) {
+        eventCount.increment();
+        increment(decisionCounts, event.getDecision());
+        dependencyCount.add(event.getDependencyCount());
+        if (RETIRE.equals(event.getDecision())) {
+            cpuFreed.add(event.getCpuFreed());
+            retiredUtility.add(event.getUtilityScore());
+            increment(retirementReasons, event.getReason());
+        }
+        topDependents.offer(event.getServiceId(), event.getDependencyCount());
+    }
+
+    private static void increment(ConcurrentMap<String, LongAdder> counts, String key) {
+        LongAdder count = counts.get(key);
+        if (count == null) {
+            count = counts.computeIfAbsent(key, k -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    long getEventCount() {
+        return eventCount.sum();
+    }
+
+    long getDecisionCount(String decision) {
+        LongAdder count = decisionCounts.get(decision);
+        return count == null ? 0 : count.sum();
+    }
+
+    double getTotalCpuFreed() {
+        return cpuFreed.sum();
+    }
+
+    double getAverageRetiredUtility() {
+        long retirements = getDecisionCount(RETIRE);
+        return retirements == 0 ? 0 : retiredUtility.sum() / retirements;
+    }
+
+    long getTotalDependencies() {
+        return dependencyCount.sum();
+    }
+
+    Map<String, Long> getRetirementsByReason() {
+        Map<String, Long> counts = new TreeMap<>();
+        retirementReasons.forEach((reason, count) -> counts.put(reason, count.sum()));
+        return counts;
+    }
+
+    List<Map.Entry<String, Integer>> getTopDependentServices() {
+        return topDependents.snapshot();
+    }
+
+    /**
+     * Bounded top-K of each service's highest dependency count seen so far.
+     * A per-service maximum only grows and the smallest retained value never drops once the heap
+     * is full, so values at or below it can be rejected without taking the lock.
+     */
+    private static final class TopDependents {
+        private final int capacity;
+        private final PriorityQueue<Entry> heap; // Smallest retained maximum on top
+        private final Map<String, Entry> entries = new HashMap<>();
+        private volatile int floor = Integer.MIN_VALUE; // Heap minimum once full
+
+        TopDependents(int capacity) {
+            this.capacity = capacity;
+            this.heap = new PriorityQueue<>(capacity, Comparator.comparingInt(entry -> entry.maxDependents));
+        }
+
+        void offer(String serviceId, int dependents) {
+            if (dependents <= floor) {
+                return;
+            }
+            synchronized (this) {
+                Entry entry = entries.get(serviceId);
+                if (entry != null) {
+                    if (dependents > entry.maxDependents) {
+                        heap.remove(entry);
+                        entry.maxDependents = dependents;
+                        heap.add(entry);
+                    }
+                } else if (heap.size() < capacity) {
+                    entry = new Entry(serviceId, dependents);
+                    heap.add(entry);
+                    entries.put(serviceId, entry);
+                } else if (dependents > heap.peek().maxDependents) {
+                    entries.remove(heap.poll().serviceId);
+                    entry = new Entry(serviceId, dependents);
+                    heap.add(entry);
+                    entries.put(serviceId, entry);
+                }
+                if (heap.size() == capacity) {
+                    floor = heap.peek().maxDependents;
+                }
+            }
+        }
+
+        synchronized List<Map.Entry<String, Integer>> snapshot() {
+            List<Map.Entry<String, Integer>> top = new ArrayList<>(heap.size());
+            for (Entry entry : heap) {
+                top.add(new AbstractMap.SimpleImmutableEntry<>(entry.serviceId, entry.maxDependents));
+            }
+            top.sort((a, b) -> b.getValue().compareTo(a.getValue()));
+            return top;
+        }
+
+        private static final class Entry {
+            final String serviceId;
+            int maxDependents;
+
+            Entry(String serviceId, int maxDependents) {
+                this.serviceId = serviceId;
+                this.maxDependents = maxDependents;
+            }
+        }
+    }
+}
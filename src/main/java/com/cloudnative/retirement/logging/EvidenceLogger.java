@@ -1,5 +1,6 @@
 package com.cloudnative.retirement.logging;
 
+import com.cloudnative.retirement.clock.SimulationClock;
 import com.cloudnative.retirement.model.RetirementEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,7 +11,6 @@ import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Evidence Logger
@@ -20,13 +20,24 @@ import java.util.concurrent.CopyOnWriteArrayList;
 public class EvidenceLogger {
     private static final Logger logger = LoggerFactory.getLogger(EvidenceLogger.class);
     private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int TOP_DEPENDENT_SERVICES = 5;
 
-    private final List<RetirementEvent> events;
+    private final ChunkedEventStore<RetirementEvent> events;
+    private final EventAggregates aggregates;
     private final String outputDirectory;
+    private final SimulationClock clock;
+    private volatile StreamingCsvExporter streamingExporter;
+    private volatile boolean retainEvents = true;
 
     public EvidenceLogger(String outputDirectory) throws java.io.IOException {
-        this.events = new CopyOnWriteArrayList<>();
+        this(outputDirectory, SimulationClock.system());
+    }
+
+    public EvidenceLogger(String outputDirectory, SimulationClock clock) throws java.io.IOException {
+        this.events = new ChunkedEventStore<>();
+        this.aggregates = new EventAggregates(TOP_DEPENDENT_SERVICES);
         this.outputDirectory = outputDirectory;
+        this.clock = clock;
         
         // Create output directory if it doesn't exist
         java.nio.file.Files.createDirectories(java.nio.file.Paths.get(outputDirectory));
@@ -37,36 +48,92 @@ public class EvidenceLogger {
      * Records a retirement event.
      */
     public void recordEvent(RetirementEvent event) {
-        events.add(event);
+        if (retainEvents) {
+            events.add(event);
+        }
+        aggregates.record(event);
+        StreamingCsvExporter exporter = streamingExporter;
+        if (exporter != null) {
+            exporter.append(event);
+        }
         logger.info("Recorded event: {}", event);
     }
 
+    /**
+     * Starts writing events to rolling CSV files as they are recorded instead of at export time.
+     * @param maxFileBytes roll to a new file after this many bytes; 0 disables size rolling
+     * @param cyclesPerFile roll to a new file after this many cycles; 0 disables cycle rolling
+     * @param retainEventsInMemory false to keep only running totals, so memory stays flat on long runs
+     */
+    public synchronized void enableStreamingExport(long maxFileBytes, int cyclesPerFile, boolean retainEventsInMemory) {
+        if (streamingExporter != null) {
+            throw new IllegalStateException("Streaming export is already enabled");
+        }
+        streamingExporter = new StreamingCsvExporter(java.nio.file.Paths.get(outputDirectory),
+            "retirement_events_" + clock.currentTimeMillis(), maxFileBytes, cyclesPerFile);
+        retainEvents = retainEventsInMemory;
+        logger.info("Streaming CSV export enabled (max {} bytes, {} cycles per file, events in memory: {})",
+                   maxFileBytes, cyclesPerFile, retainEventsInMemory);
+    }
+
+    /**
+     * Marks the end of a simulation cycle for cycle-based file rolling.
+     */
+    public void onCycleComplete() {
+        StreamingCsvExporter exporter = streamingExporter;
+        if (exporter != null) {
+            exporter.cycleComplete();
+        }
+    }
+
+    /**
+     * Exports all events to a CSV file named after the current clock time.
+     * In streaming mode, finishes the streamed files instead.
+     * @return the file name written inside the output directory, or the last rolled file when streaming
+     */
+    public String exportToCSV() {
+        StreamingCsvExporter exporter;
+        synchronized (this) {
+            exporter = streamingExporter;
+            streamingExporter = null;
+        }
+        if (exporter != null) {
+            List<String> files = exporter.close();
+            return files.isEmpty() ? null : files.get(files.size() - 1);
+        }
+
+        String filename = "retirement_events_" + clock.currentTimeMillis() + ".csv";
+        exportToCSV(filename);
+        return filename;
+    }
+
     /**
      * Exports all events to CSV format for metrics analysis.
      * Format: Time,ServiceID,UtilityScore,DependencyCount,RetirementDecision,CPU_Freed
      */
     public void exportToCSV(String filename) {
+        if (!retainEvents) {
+            logger.warn("Events are not kept in memory; they were streamed to CSV as they were recorded");
+            return;
+        }
         String filepath = outputDirectory + java.io.File.separator + filename;
         
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(filepath))) {
             // Write header
-            writer.write("Time,ServiceID,UtilityScore,DependencyCount,RetirementDecision,CPU_Freed,Reason\n");
+            writer.write(CsvRowEncoder.HEADER);
 
             // Write events
+            CsvRowEncoder encoder = new CsvRowEncoder();
+            StringBuilder line = new StringBuilder(256);
+            int written = 0;
             for (RetirementEvent event : events) {
-                String line = String.format("%s,%s,%.2f,%d,%s,%.2f,\"%s\"\n",
-                    TIMESTAMP_FORMATTER.format(event.getTimestamp()),
-                    event.getServiceId(),
-                    event.getUtilityScore(),
-                    event.getDependencyCount(),
-                    event.getDecision(),
-                    event.getCpuFreed(),
-                    event.getReason()
-                );
-                writer.write(line);
+                line.setLength(0);
+                encoder.encode(event, line);
+                writer.append(line);
+                written++;
             }
 
-            logger.info("Exported {} events to CSV: {}", events.size(), filepath);
+            logger.info("Exported {} events to CSV: {}", written, filepath);
         } catch (IOException e) {
             logger.error("Failed to export CSV", e);
         }
@@ -76,39 +143,24 @@ public class EvidenceLogger {
      * Generates a summary report of all events.
      */
     public String generateSummaryReport() {
-        long totalRetirements = events.stream()
-                                     .filter(e -> "RETIRE".equals(e.getDecision()))
-                                     .count();
-        
-        long totalRetentions = events.stream()
-                                    .filter(e -> "RETAIN".equals(e.getDecision()))
-                                    .count();
-
-        double totalCpuFreed = events.stream()
-                                    .filter(e -> "RETIRE".equals(e.getDecision()))
-                                    .mapToDouble(RetirementEvent::getCpuFreed)
-                                    .sum();
-
-        double avgUtilityRetired = events.stream()
-                                        .filter(e -> "RETIRE".equals(e.getDecision()))
-                                        .mapToDouble(RetirementEvent::getUtilityScore)
-                                        .average()
-                                        .orElse(0);
-
-        long totalDependenciesManaged = events.stream()
-                                             .mapToLong(RetirementEvent::getDependencyCount)
-                                             .sum();
+        long totalEvents = aggregates.getEventCount();
+        long totalRetirements = aggregates.getDecisionCount("RETIRE");
+        long totalRetentions = aggregates.getDecisionCount("RETAIN");
+        double totalCpuFreed = aggregates.getTotalCpuFreed();
+        double avgUtilityRetired = aggregates.getAverageRetiredUtility();
+        long totalDependenciesManaged = aggregates.getTotalDependencies();
 
         StringBuilder report = new StringBuilder();
         report.append("\n================== MICROSERVICE RETIREMENT SUMMARY ==================\n");
-        report.append(String.format("Total Events Logged: %d\n", events.size()));
+        report.append(String.format("Report Time: %s\n", TIMESTAMP_FORMATTER.format(clock.now())));
+        report.append(String.format("Total Events Logged: %d\n", totalEvents));
         report.append(String.format("Total Retirements: %d\n", totalRetirements));
         report.append(String.format("Total Retentions: %d\n", totalRetentions));
         report.append(String.format("CPU Resources Freed: %.2f units\n", totalCpuFreed));
         report.append(String.format("Average Utility Score (Retired Services): %.3f\n", avgUtilityRetired));
         report.append(String.format("Total Dependencies Managed: %d\n", totalDependenciesManaged));
         report.append(String.format("Retirement Rate: %.1f%%\n", 
-                                   (totalRetirements * 100.0) / events.size()));
+                                   (totalRetirements * 100.0) / totalEvents));
         report.append("========================================================================\n");
 
         return report.toString();
@@ -121,30 +173,15 @@ public class EvidenceLogger {
         logger.info("\n========== DETAILED RETIREMENT STATISTICS ==========");
         
         // Retirements by reason
-        Map<String, Long> reasonCounts = new HashMap<>();
-        events.stream()
-              .filter(e -> "RETIRE".equals(e.getDecision()))
-              .forEach(e -> reasonCounts.merge(e.getReason(), 1L, Long::sum));
-
         logger.info("Retirements by Reason:");
-        reasonCounts.forEach((reason, count) -> 
+        aggregates.getRetirementsByReason().forEach((reason, count) ->
             logger.info("  - {}: {}", reason, count)
         );
 
         // Services with most dependencies
-        Map<String, Integer> serviceDependencies = new HashMap<>();
-        events.forEach(e -> 
-            serviceDependencies.put(e.getServiceId(), Math.max(
-                serviceDependencies.getOrDefault(e.getServiceId(), 0),
-                e.getDependencyCount()
-            ))
-        );
-
         logger.info("\nTop Dependent Services:");
-        serviceDependencies.entrySet().stream()
-                          .sorted((a, b) -> b.getValue().compareTo(a.getValue()))
-                          .limit(5)
-                          .forEach(e -> logger.info("  - {}: {} dependents", e.getKey(), e.getValue()));
+        aggregates.getTopDependentServices()
+                  .forEach(e -> logger.info("  - {}: {} dependents", e.getKey(), e.getValue()));
 
         logger.info("====================================================\n");
     }
@@ -153,25 +190,41 @@ public class EvidenceLogger {
      * Gets all recorded events.
      */
     public List<RetirementEvent> getEvents() {
-        return new ArrayList<>(events);
+        return events.toList();
+    }
+
+    /**
+     * Gets the number of recorded events, including any not kept in memory.
+     */
+    public long getEventCount() {
+        return aggregates.getEventCount();
+    }
+
+    /**
+     * Gets retirement counts keyed by reason.
+     */
+    public Map<String, Long> getRetirementsByReason() {
+        return aggregates.getRetirementsByReason();
+    }
+
+    /**
+     * Gets the services with the most dependents seen in any event, highest first.
+     */
+    public List<Map.Entry<String, Integer>> getTopDependentServices() {
+        return aggregates.getTopDependentServices();
     }
 
     /**
      * Gets count of specific decision type.
      */
     public int getDecisionCount(String decision) {
-        return (int) events.stream()
-                          .filter(e -> decision.equals(e.getDecision()))
-                          .count();
+        return (int) aggregates.getDecisionCount(decision);
     }
 
     /**
      * Gets total CPU freed from retirements.
      */
     public double getTotalCpuFreed() {
-        return events.stream()
-                    .filter(e -> "RETIRE".equals(e.getDecision()))
-                    .mapToDouble(RetirementEvent::getCpuFreed)
-                    .sum();
+        return aggregates.getTotalCpuFreed();
     }
 }
@@ -0,0 +1,172 @@
+package com.cloudnative.retirement.logging;
+
+import com.cloudnative.retirement.model.RetirementEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Writes events to rolling CSV files on a background thread while the simulation runs.
+ * Recording threads only enqueue; the writer encodes rows with CsvRowEncoder and starts a new
+ * file once the current one reaches the size limit or spans the configured number of cycles.
+ * The queue is bounded, so a writer that falls behind slows recording instead of growing the heap.
+ */
+final class StreamingCsvExporter {
+    private static final Logger logger = LoggerFactory.getLogger(StreamingCsvExporter.class);
+
+    private static final int QUEUE_CAPACITY = 8192;
+    private static final int DRAIN_BATCH = 1024;
+    private static final Object CYCLE_COMPLETE = new Object();
+    private static final Object END_OF_STREAM = new Object();
+
+    private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Path directory;
+    private final String baseName;
+    private final long maxFileBytes;
+    private final int cyclesPerFile;
+    private final Thread worker;
+    private final List<String> files = Collections.synchronizedList(new ArrayList<>());
+    private volatile boolean dropWarned;
+
+    // Writer thread state
+    private final CsvRowEncoder encoder = new CsvRowEncoder();
+    private final StringBuilder row = new StringBuilder(256);
+    private Writer out;
+    private long fileBytes;
+    private int fileCycles;
+    private long eventsWritten;
+
+    /**
+     * @param maxFileBytes roll to a new file after this many bytes; 0 disables size rolling
+     * @param cyclesPerFile roll to a new file after this many cycles; 0 disables cycle rolling
+     */
+    StreamingCsvExporter(Path directory, String baseName, long maxFileBytes, int cyclesPerFile) {
+        if (maxFileBytes < 0 || cyclesPerFile < 0) {
+            throw new IllegalArgumentException("Roll limits must not be negative");
+        }
+        this.directory = directory;
+        this.baseName = baseName;
+        this.maxFileBytes = maxFileBytes;
+        this.cyclesPerFile = cyclesPerFile;
+        this.worker = new Thread(this::drainQueue, "evidence-csv-writer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    void append(RetirementEvent event) {
+        enqueue(event);
+    }
+
+    void cycleComplete() {
+        enqueue(CYCLE_COMPLETE);
+    }
+
+    /**
+     * Writes everything still queued, closes the current file and stops the writer thread.
+     * @return the files written, in order
+     */
+    List<String> close() {
+        enqueue(END_OF_STREAM);
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while waiting for the CSV writer to finish");
+        }
+        logger.info("Streamed {} events to {} CSV files", eventsWritten, files.size());
+        return new ArrayList<>(files);
+    }
+
+    private void enqueue(Object item) {
+        if (!worker.isAlive()) {
+            if (!dropWarned) {
+                dropWarned = true;
+                logger.warn("CSV writer has stopped, dropping further events");
+            }
+            return;
+        }
+        try {
+            queue.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while queueing for the CSV writer, dropping {}", item);
+        }
+    }
+
+    private void drainQueue() {
+        List<Object> batch = new ArrayList<>(DRAIN_BATCH);
+        try {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch, DRAIN_BATCH - 1);
+                for (Object item : batch) {
+                    if (item == END_OF_STREAM) {
+                        closeFile();
+                        return;
+                    } else if (item == CYCLE_COMPLETE) {
+                        if (out != null && cyclesPerFile > 0 && ++fileCycles >= cyclesPerFile) {
+                            closeFile();
+                        }
+                    } else {
+                        write((RetirementEvent) item);
+                    }
+                }
+                batch.clear();
+                if (out != null && queue.isEmpty()) {
+                    out.flush();
+                }
+            }
+        } catch (InterruptedException e) {
+            logger.warn("CSV writer interrupted, stopping");
+        } catch (IOException e) {
+            logger.error("Failed to stream CSV", e);
+        } finally {
+            try {
+                closeFile();
+            } catch (IOException e) {
+                logger.error("Failed to close CSV file", e);
+            }
+        }
+    }
+
+    private void write(RetirementEvent event) throws IOException {
+        if (out == null) {
+            openFile();
+        }
+        row.setLength(0);
+        encoder.encode(event, row);
+        out.append(row);
+        fileBytes += row.length(); // Rows are ASCII apart from free-text reasons
+        eventsWritten++;
+        if (maxFileBytes > 0 && fileBytes >= maxFileBytes) {
+            closeFile();
+        }
+    }
+
+    private void openFile() throws IOException {
+        String filename = String.format("%s_part%04d.csv", baseName, files.size() + 1);
+        out = Files.newBufferedWriter(directory.resolve(filename), StandardCharsets.UTF_8);
+        out.write(CsvRowEncoder.HEADER);
+        fileBytes = CsvRowEncoder.HEADER.length();
+        fileCycles = 0;
+        files.add(filename);
+    }
+
+    private void closeFile() throws IOException {
+        if (out != null) {
+            Writer closing = out;
+            out = null;
+            closing.close();
+        }
+    }
+}
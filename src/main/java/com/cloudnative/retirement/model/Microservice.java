@@ -1,30 +1,51 @@
 package com.cloudnative.retirement.model;
 
+import com.cloudnative.retirement.clock.SimulationClock;
+
 import java.time.LocalDateTime;
 
 /**
  * Represents a microservice in the cloud-native ecosystem.
  * Each service has autonomy to manage its own lifecycle.
+ * Retirement moves a service from ACTIVE through RETIRING (draining requests) to RETIRED.
  */
 public class Microservice {
+
+    /**
+     * Lifecycle states of a service.
+     */
+    public enum LifecycleState {
+        ACTIVE,
+        RETIRING,
+        RETIRED
+    }
+
     private final String serviceId;
     private final String serviceName;
+    private final SimulationClock clock;
     private final LocalDateTime createdAt;
+    private final long createdAtMillis;
     private volatile double utilizationRate; // 0-1
     private volatile int requestCount; // requests in current window
     private volatile int dependentServiceCount;
-    private volatile boolean isRetired;
-    private LocalDateTime retiredAt;
+    private volatile LifecycleState lifecycleState;
+    private volatile LocalDateTime retiredAt;
     private double slaContribution; // 0-1
 
     public Microservice(String serviceId, String serviceName) {
+        this(serviceId, serviceName, SimulationClock.system());
+    }
+
+    public Microservice(String serviceId, String serviceName, SimulationClock clock) {
         this.serviceId = serviceId;
         this.serviceName = serviceName;
-        this.createdAt = LocalDateTime.now();
+        this.clock = clock;
+        this.createdAt = clock.now();
+        this.createdAtMillis = clock.currentTimeMillis();
         this.utilizationRate = 0.5;
         this.requestCount = 0;
         this.dependentServiceCount = 0;
-        this.isRetired = false;
+        this.lifecycleState = LifecycleState.ACTIVE;
         this.slaContribution = 0.5;
     }
 
@@ -40,6 +61,17 @@ public class Microservice {
         return createdAt;
     }
 
+    public long getCreatedAtMillis() {
+        return createdAtMillis;
+    }
+
+    /**
+     * Gets the time source this service and its agent read.
+     */
+    public SimulationClock getClock() {
+        return clock;
+    }
+
     public double getUtilizationRate() {
         return utilizationRate;
     }
@@ -65,12 +97,35 @@ public class Microservice {
     }
 
     public boolean isRetired() {
-        return isRetired;
+        return lifecycleState == LifecycleState.RETIRED;
+    }
+
+    /**
+     * Checks whether the service is serving traffic and neither draining nor retired.
+     */
+    public boolean isActive() {
+        return lifecycleState == LifecycleState.ACTIVE;
+    }
+
+    public LifecycleState getLifecycleState() {
+        return lifecycleState;
+    }
+
+    /**
+     * Starts draining the service ahead of retirement.
+     * @return false if the service was not active
+     */
+    public synchronized boolean beginRetirement() {
+        if (lifecycleState != LifecycleState.ACTIVE) {
+            return false;
+        }
+        this.lifecycleState = LifecycleState.RETIRING;
+        return true;
     }
 
-    public void retire() {
-        this.isRetired = true;
-        this.retiredAt = LocalDateTime.now();
+    public synchronized void retire() {
+        this.retiredAt = clock.now();
+        this.lifecycleState = LifecycleState.RETIRED;
     }
 
     public LocalDateTime getRetiredAt() {
@@ -93,7 +148,7 @@ public class Microservice {
                 ", utilizationRate=" + utilizationRate +
                 ", requestCount=" + requestCount +
                 ", dependentServiceCount=" + dependentServiceCount +
-                ", isRetired=" + isRetired +
+                ", lifecycleState=" + lifecycleState +
                 '}';
     }
 }
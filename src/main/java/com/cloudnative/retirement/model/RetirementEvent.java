@@ -1,11 +1,16 @@
 package com.cloudnative.retirement.model;
 
 import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Represents a retirement decision event for metrics and validation.
+ * A RETIRE decision may still be pending while the service drains; whenDrained() completes once
+ * the service has reached the RETIRED state.
  */
 public class RetirementEvent {
+    private static final CompletableFuture<Void> ALREADY_COMPLETE = CompletableFuture.completedFuture(null);
+
     private final String serviceId;
     private final LocalDateTime timestamp;
     private final double utilityScore;
@@ -13,16 +18,35 @@ public class RetirementEvent {
     private final String decision; // RETIRE or RETAIN
     private final double cpuFreed;
     private final String reason;
+    private final CompletableFuture<Void> drainCompletion;
 
     public RetirementEvent(String serviceId, double utilityScore, int dependencyCount, 
                           String decision, double cpuFreed, String reason) {
+        this(serviceId, LocalDateTime.now(), utilityScore, dependencyCount, decision, cpuFreed, reason);
+    }
+
+    /**
+     * Creates an event stamped with an explicit time, e.g. from a simulation clock.
+     */
+    public RetirementEvent(String serviceId, LocalDateTime timestamp, double utilityScore, int dependencyCount,
+                          String decision, double cpuFreed, String reason) {
+        this(serviceId, timestamp, utilityScore, dependencyCount, decision, cpuFreed, reason, ALREADY_COMPLETE);
+    }
+
+    /**
+     * Creates an event whose retirement completes when the given drain finishes.
+     */
+    public RetirementEvent(String serviceId, LocalDateTime timestamp, double utilityScore, int dependencyCount,
+                          String decision, double cpuFreed, String reason,
+                          CompletableFuture<Void> drainCompletion) {
         this.serviceId = serviceId;
-        this.timestamp = LocalDateTime.now();
+        this.timestamp = timestamp;
         this.utilityScore = utilityScore;
         this.dependencyCount = dependencyCount;
         this.decision = decision;
         this.cpuFreed = cpuFreed;
         this.reason = reason;
+        this.drainCompletion = drainCompletion;
     }
 
     public String getServiceId() {
@@ -53,6 +77,20 @@ public class RetirementEvent {
         return reason;
     }
 
+    /**
+     * Checks whether the service behind this decision is still draining.
+     */
+    public boolean isPending() {
+        return !drainCompletion.isDone();
+    }
+
+    /**
+     * Gets a future that completes with this event once the service has drained.
+     */
+    public CompletableFuture<RetirementEvent> whenDrained() {
+        return drainCompletion.thenApply(ignored -> this);
+    }
+
     @Override
     public String toString() {
         return "RetirementEvent{" +
@@ -0,0 +1,259 @@
+package com.cloudnative.retirement.modules;
+
+import com.cloudnative.retirement.dataloaders.CSVMicroserviceLoader;
+import com.cloudnative.retirement.dataloaders.ServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Scores whole datasets of ServiceMetrics with a UtilityAssessmentModule.
+ * A service is a retirement candidate when its utility is below the threshold and nothing
+ * depends on it. Only running totals and a bounded heap of the best K candidates are kept, so
+ * memory use does not grow with the dataset; CSV files are scored chunk by chunk in parallel.
+ */
+public class BatchRetirementScorer {
+    private static final Logger logger = LoggerFactory.getLogger(BatchRetirementScorer.class);
+
+    /**
+     * Best candidates first: lowest utility, then fewest requests, then service id.
+     */
+    static final Comparator<Candidate> BEST_FIRST = Comparator.comparingDouble(Candidate::getUtility)
+        .thenComparingInt(Candidate::getRequestCount)
+        .thenComparing(Candidate::getServiceId);
+
+    private final UtilityAssessmentModule utilityModule;
+    private final double retirementThreshold;
+    private final int topK;
+
+    /**
+     * @param utilityModule Scores each row
+     * @param retirementThreshold Utility below which a service without dependents is a candidate
+     * @param topK Number of best candidates to keep
+     */
+    public BatchRetirementScorer(UtilityAssessmentModule utilityModule, double retirementThreshold, int topK) {
+        if (topK < 0) {
+            throw new IllegalArgumentException("Top-K must not be negative: " + topK);
+        }
+        this.utilityModule = utilityModule;
+        this.retirementThreshold = retirementThreshold;
+        this.topK = topK;
+    }
+
+    /**
+     * Scores a CSV file in parallel without holding its rows in memory.
+     *
+     * @param filename Path to CSV file
+     * @param parallelism Number of scoring threads
+     * @throws IOException if file cannot be read
+     */
+    public Summary scoreCSV(String filename, int parallelism) throws IOException {
+        long start = System.nanoTime();
+        List<Summary> chunks = CSVMicroserviceLoader.foldFromCSVParallel(
+            filename, parallelism, () -> new Summary(topK), this::accumulate);
+
+        Summary total = new Summary(topK);
+        for (Summary chunk : chunks) {
+            total.merge(chunk);
+        }
+        logger.info("Scored {} services in {} ms: {} retirement candidates",
+                   total.scoredCount, (System.nanoTime() - start) / 1_000_000, total.retirementCount);
+        return total;
+    }
+
+    /**
+     * Scores rows that are already in memory, on the calling thread.
+     */
+    public Summary score(Iterable<ServiceMetrics> services) {
+        Summary summary = new Summary(topK);
+        for (ServiceMetrics service : services) {
+            accumulate(summary, service);
+        }
+        return summary;
+    }
+
+    public double computeUtility(ServiceMetrics service) {
+        return utilityModule.computeUtility(service.getRequestCount(), service.getSlaScore(),
+                                            service.getDependentCount());
+    }
+
+    public boolean shouldRetire(double utility, ServiceMetrics service) {
+        return utility < retirementThreshold && service.getDependentCount() == 0;
+    }
+
+    /**
+     * Estimates the CPU units a service frees on retirement, at 100 requests per unit.
+     */
+    public static double estimateCpuFreed(ServiceMetrics service) {
+        return Math.ceil(service.getRequestCount() / 100.0);
+    }
+
+    private void accumulate(Summary summary, ServiceMetrics service) {
+        double utility = computeUtility(service);
+        summary.scoredCount++;
+        summary.utilitySum += utility;
+        summary.minUtility = Math.min(summary.minUtility, utility);
+        summary.maxUtility = Math.max(summary.maxUtility, utility);
+        summary.requestSum += service.getRequestCount();
+
+        if (shouldRetire(utility, service)) {
+            double cpuFreed = estimateCpuFreed(service);
+            summary.retirementCount++;
+            summary.cpuFreed += cpuFreed;
+            summary.offer(utility, service, cpuFreed);
+        }
+    }
+
+    /**
+     * Running totals and best candidates of a scoring run, or of one chunk of it.
+     */
+    public static final class Summary {
+        private final PriorityQueue<Candidate> candidates = new PriorityQueue<>(BEST_FIRST.reversed()); // Worst kept on top
+        private final int capacity;
+        private long scoredCount;
+        private long retirementCount;
+        private double utilitySum;
+        private double minUtility = Double.POSITIVE_INFINITY;
+        private double maxUtility = Double.NEGATIVE_INFINITY;
+        private long requestSum;
+        private double cpuFreed;
+
+        private Summary(int capacity) {
+            this.capacity = capacity;
+        }
+
+        private void offer(double utility, ServiceMetrics service, double serviceCpuFreed) {
+            if (capacity == 0) {
+                return;
+            }
+            if (candidates.size() == capacity && utility > candidates.peek().utility) {
+                return; // Cheap rejection; ties fall through to the full comparison
+            }
+            offer(new Candidate(service.getServiceId(), utility, service.getRequestCount(),
+                                service.getSlaScore(), serviceCpuFreed));
+        }
+
+        private void offer(Candidate candidate) {
+            if (capacity == 0) {
+                return;
+            }
+            if (candidates.size() < capacity) {
+                candidates.add(candidate);
+            } else if (BEST_FIRST.compare(candidate, candidates.peek()) < 0) {
+                candidates.poll();
+                candidates.add(candidate);
+            }
+        }
+
+        private void merge(Summary other) {
+            for (Candidate candidate : other.candidates) {
+                offer(candidate);
+            }
+            scoredCount += other.scoredCount;
+            retirementCount += other.retirementCount;
+            utilitySum += other.utilitySum;
+            minUtility = Math.min(minUtility, other.minUtility);
+            maxUtility = Math.max(maxUtility, other.maxUtility);
+            requestSum += other.requestSum;
+            cpuFreed += other.cpuFreed;
+        }
+
+        public long getScoredCount() {
+            return scoredCount;
+        }
+
+        public long getRetirementCount() {
+            return retirementCount;
+        }
+
+        public long getRetainedCount() {
+            return scoredCount - retirementCount;
+        }
+
+        public double getMeanUtility() {
+            return scoredCount == 0 ? 0.0 : utilitySum / scoredCount;
+        }
+
+        public double getMinUtility() {
+            return scoredCount == 0 ? 0.0 : minUtility;
+        }
+
+        public double getMaxUtility() {
+            return scoredCount == 0 ? 0.0 : maxUtility;
+        }
+
+        public long getRequestSum() {
+            return requestSum;
+        }
+
+        public double getCpuFreed() {
+            return cpuFreed;
+        }
+
+        /**
+         * Gets the best retirement candidates, best first.
+         */
+        public List<Candidate> getTopCandidates() {
+            List<Candidate> sorted = new ArrayList<>(candidates);
+            sorted.sort(BEST_FIRST);
+            return Collections.unmodifiableList(sorted);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Summary{scored=%d, candidates=%d, meanUtility=%.3f, cpuFreed=%.1f}",
+                               scoredCount, retirementCount, getMeanUtility(), cpuFreed);
+        }
+    }
+
+    /**
+     * A service recommended for retirement.
+     */
+    public static final class Candidate {
+        private final String serviceId;
+        private final double utility;
+        private final int requestCount;
+        private final double slaScore;
+        private final double cpuFreed;
+
+        Candidate(String serviceId, double utility, int requestCount, double slaScore, double cpuFreed) {
+            this.serviceId = serviceId;
+            this.utility = utility;
+            this.requestCount = requestCount;
+            this.slaScore = slaScore;
+            this.cpuFreed = cpuFreed;
+        }
+
+        public String getServiceId() {
+            return serviceId;
+        }
+
+        public double getUtility() {
+            return utility;
+        }
+
+        public int getRequestCount() {
+            return requestCount;
+        }
+
+        public double getSlaScore() {
+            return slaScore;
+        }
+
+        public double getCpuFreed() {
+            return cpuFreed;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Candidate{id='%s', utility=%.3f, requests=%d, sla=%.2f}",
+                               serviceId, utility, requestCount, slaScore);
+        }
+    }
+}
@@ -5,30 +5,62 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Dependency Awareness Module
  * Checks whether dependent services exist and whether safe retirement is possible.
  * Maintains a dependency graph and prevents retirement of critical services.
+ *
+ * The bulk of the graph lives in an immutable CSR snapshot over interned int ids. Edges added
+ * since the last compaction sit in a small map-based delta, and removed snapshot edges are masked
+ * by a bitmap, so both registering and clearing a service only touch its own edges. The graph is
+ * indexed in both directions and is compacted back into a fresh snapshot when the delta or the
+ * removed edges grow large.
  */
 public class DependencyAwarenessModule {
     private static final Logger logger = LoggerFactory.getLogger(DependencyAwarenessModule.class);
 
     private static final int DEPENDENCY_THRESHOLD = 2; // Critical if this many or more dependents
+    private static final int MIN_COMPACTION_EDGES = 4096; // Below this, patching beats rebuilding
 
-    private final Map<String, Set<String>> dependencyGraph; // service -> list of dependents
+    private final ServiceIdDictionary serviceIds;
+    private DependencySnapshot snapshot;
+    private BitSet removedEdges;     // Snapshot edges removed since the last compaction
+    private int removedEdgeCount;
+    private int[] liveDegree;        // Live snapshot dependents per provider
+
+    private final Map<String, Set<String>> dependencyGraph; // Delta: service -> list of dependents
+    private final Map<String, Set<String>> providerGraph;   // Delta: service -> list of services it depends on
+    private int deltaEdgeCount;
+
+    private final ReadWriteLock graphLock = new ReentrantReadWriteLock();
 
     public DependencyAwarenessModule() {
-        this.dependencyGraph = new ConcurrentHashMap<>();
+        this.serviceIds = new ServiceIdDictionary();
+        this.dependencyGraph = new HashMap<>();
+        this.providerGraph = new HashMap<>();
+        resetSnapshot(DependencySnapshot.EMPTY);
     }
 
     /**
      * Registers a dependency: serviceA depends on serviceB
      */
     public void registerDependency(String dependentService, String providingService) {
-        dependencyGraph.computeIfAbsent(providingService, k -> Collections.synchronizedSet(new HashSet<>()))
-                       .add(dependentService);
+        graphLock.writeLock().lock();
+        try {
+            int provider = serviceIds.intern(providingService);
+            int dependent = serviceIds.intern(dependentService);
+            if (findLiveSnapshotEdge(provider, dependent) < 0
+                    && dependencyGraph.computeIfAbsent(providingService, k -> new HashSet<>()).add(dependentService)) {
+                providerGraph.computeIfAbsent(dependentService, k -> new HashSet<>()).add(providingService);
+                deltaEdgeCount++;
+                compactIfNeeded();
+            }
+        } finally {
+            graphLock.writeLock().unlock();
+        }
         logger.debug("Registered dependency: {} depends on {}", dependentService, providingService);
     }
 
@@ -36,9 +68,21 @@ public class DependencyAwarenessModule {
      * Unregisters a dependency when a dependent service retires
      */
     public void unregisterDependency(String dependentService, String providingService) {
-        Set<String> dependents = dependencyGraph.get(providingService);
-        if (dependents != null) {
-            dependents.remove(dependentService);
+        graphLock.writeLock().lock();
+        try {
+            int provider = serviceIds.indexOf(providingService);
+            int dependent = serviceIds.indexOf(dependentService);
+            if (provider >= 0 && dependent >= 0) {
+                int edge = findLiveSnapshotEdge(provider, dependent);
+                if (edge >= 0) {
+                    removeSnapshotEdge(provider, edge);
+                } else {
+                    removeDeltaEdge(providingService, dependentService);
+                }
+                compactIfNeeded();
+            }
+        } finally {
+            graphLock.writeLock().unlock();
         }
         logger.debug("Unregistered dependency: {} no longer depends on {}", dependentService, providingService);
     }
@@ -48,29 +92,36 @@ public class DependencyAwarenessModule {
      * Safe if: no dependents OR dependents can be notified and rerouted.
      */
     public boolean canSafelyRetire(Microservice service) {
-        Set<String> dependents = dependencyGraph.getOrDefault(service.getServiceId(), Collections.emptySet());
-        
+        int dependentCount = getDependentCount(service.getServiceId());
+
         // Update service's dependent count for metrics
-        service.setDependentServiceCount(dependents.size());
+        service.setDependentServiceCount(dependentCount);
 
-        if (dependents.isEmpty()) {
+        if (dependentCount == 0) {
             logger.info("Service {} has no dependents - safe to retire", service.getServiceId());
             return true;
         }
 
-        if (dependents.size() >= DEPENDENCY_THRESHOLD) {
-            logger.warn("Service {} has {} critical dependents - cannot retire safely", 
-                       service.getServiceId(), dependents.size());
+        if (!isSafeToRetire(dependentCount)) {
+            logger.warn("Service {} has {} critical dependents - cannot retire safely",
+                       service.getServiceId(), dependentCount);
             return false;
         }
 
         // Low number of dependents - can notify and gracefully transition
-        logger.info("Service {} has {} non-critical dependents - retirement possible with notification", 
-                   service.getServiceId(), dependents.size());
-        notifyDependents(service.getServiceId(), dependents);
+        logger.info("Service {} has {} non-critical dependents - retirement possible with notification",
+                   service.getServiceId(), dependentCount);
+        notifyDependents(service.getServiceId(), getDependents(service.getServiceId()));
         return true;
     }
 
+    /**
+     * Checks whether a service with the given number of dependents is below the critical threshold.
+     */
+    public boolean isSafeToRetire(int dependentCount) {
+        return dependentCount < DEPENDENCY_THRESHOLD;
+    }
+
     /**
      * Notifies dependent services of upcoming retirement and allows them to prepare.
      */
@@ -83,37 +134,233 @@ public class DependencyAwarenessModule {
         }
     }
 
+    /**
+     * Gets the number of services that depend on the given service.
+     */
+    public int getDependentCount(String serviceId) {
+        graphLock.readLock().lock();
+        try {
+            int provider = serviceIds.indexOf(serviceId);
+            if (provider < 0) {
+                return 0;
+            }
+            int count = provider < liveDegree.length ? liveDegree[provider] : 0;
+            Set<String> added = dependencyGraph.get(serviceId);
+            return added == null ? count : count + added.size();
+        } finally {
+            graphLock.readLock().unlock();
+        }
+    }
+
     /**
      * Gets all services that depend on the given service.
      */
     public Set<String> getDependents(String serviceId) {
-        return new HashSet<>(dependencyGraph.getOrDefault(serviceId, Collections.emptySet()));
+        graphLock.readLock().lock();
+        try {
+            Set<String> dependents = new HashSet<>(dependencyGraph.getOrDefault(serviceId, Collections.emptySet()));
+            int provider = serviceIds.indexOf(serviceId);
+            if (provider >= 0 && provider < snapshot.nodeCount) {
+                for (int edge = snapshot.offsets[provider]; edge < snapshot.offsets[provider + 1]; edge++) {
+                    if (!removedEdges.get(edge)) {
+                        dependents.add(serviceIds.nameOf(snapshot.targets[edge]));
+                    }
+                }
+            }
+            return dependents;
+        } finally {
+            graphLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets all services the given service depends on.
+     */
+    public Set<String> getProviders(String serviceId) {
+        graphLock.readLock().lock();
+        try {
+            Set<String> providers = new HashSet<>(providerGraph.getOrDefault(serviceId, Collections.emptySet()));
+            int dependent = serviceIds.indexOf(serviceId);
+            if (dependent >= 0 && dependent < snapshot.nodeCount) {
+                for (int r = snapshot.reverseOffsets[dependent]; r < snapshot.reverseOffsets[dependent + 1]; r++) {
+                    if (!removedEdges.get(snapshot.reverseEdges[r])) {
+                        providers.add(serviceIds.nameOf(snapshot.reverseSources[r]));
+                    }
+                }
+            }
+            return providers;
+        } finally {
+            graphLock.readLock().unlock();
+        }
     }
 
     /**
      * Gets dependency graph statistics.
      */
     public String getDependencyStats() {
-        int totalServices = dependencyGraph.size();
-        int totalDependencies = dependencyGraph.values().stream()
-                                               .mapToInt(Set::size)
-                                               .sum();
-        
-        int criticalServices = (int) dependencyGraph.values().stream()
-                                                   .filter(deps -> deps.size() >= DEPENDENCY_THRESHOLD)
-                                                   .count();
+        graphLock.readLock().lock();
+        try {
+            int[] dependentCounts = Arrays.copyOf(liveDegree, serviceIds.size());
+            for (Map.Entry<String, Set<String>> entry : dependencyGraph.entrySet()) {
+                dependentCounts[serviceIds.indexOf(entry.getKey())] += entry.getValue().size();
+            }
+
+            int totalServices = 0;
+            int totalDependencies = 0;
+            int criticalServices = 0;
+            for (int count : dependentCounts) {
+                if (count > 0) {
+                    totalServices++;
+                    totalDependencies += count;
+                    if (count >= DEPENDENCY_THRESHOLD) {
+                        criticalServices++;
+                    }
+                }
+            }
 
-        return String.format("Dependency Stats - Services: %d, Total Dependencies: %d, Critical Services: %d",
-                           totalServices, totalDependencies, criticalServices);
+            return String.format("Dependency Stats - Services: %d, Total Dependencies: %d, Critical Services: %d",
+                               totalServices, totalDependencies, criticalServices);
+        } finally {
+            graphLock.readLock().unlock();
+        }
     }
 
     /**
      * Clears all dependencies for a retired service.
      */
     public void clearDependenciesForRetiredService(String serviceId) {
-        dependencyGraph.remove(serviceId);
-        // Also remove from all dependents
-        dependencyGraph.values().forEach(deps -> deps.remove(serviceId));
-        logger.info("Cleared all dependencies for retired service {}", serviceId);
+        graphLock.writeLock().lock();
+        try {
+            int node = serviceIds.indexOf(serviceId);
+            if (node >= 0 && node < snapshot.nodeCount) {
+                // Snapshot edges where the retired service is the provider
+                for (int edge = snapshot.offsets[node]; edge < snapshot.offsets[node + 1]; edge++) {
+                    if (!removedEdges.get(edge)) {
+                        removeSnapshotEdge(node, edge);
+                    }
+                }
+                // Snapshot edges where the retired service is the dependent
+                for (int r = snapshot.reverseOffsets[node]; r < snapshot.reverseOffsets[node + 1]; r++) {
+                    int edge = snapshot.reverseEdges[r];
+                    if (!removedEdges.get(edge)) {
+                        removeSnapshotEdge(snapshot.reverseSources[r], edge);
+                    }
+                }
+            }
+
+            Set<String> dependents = dependencyGraph.get(serviceId);
+            if (dependents != null) {
+                for (String dependent : new ArrayList<>(dependents)) {
+                    removeDeltaEdge(serviceId, dependent);
+                }
+            }
+            Set<String> providers = providerGraph.get(serviceId);
+            if (providers != null) {
+                for (String provider : new ArrayList<>(providers)) {
+                    removeDeltaEdge(provider, serviceId);
+                }
+            }
+            compactIfNeeded();
+        } finally {
+            graphLock.writeLock().unlock();
+        }
+        logger.debug("Cleared all dependencies for retired service {}", serviceId);
+    }
+
+    /**
+     * Folds pending edge additions and removals into a fresh CSR snapshot.
+     * Call after bulk registration; later changes are folded in automatically as they accumulate.
+     */
+    public void compact() {
+        graphLock.writeLock().lock();
+        try {
+            rebuildSnapshot();
+        } finally {
+            graphLock.writeLock().unlock();
+        }
+    }
+
+    private void compactIfNeeded() {
+        int snapshotEdges = snapshot.edgeCount;
+        if ((deltaEdgeCount >= MIN_COMPACTION_EDGES && deltaEdgeCount > snapshotEdges / 4)
+                || (removedEdgeCount >= MIN_COMPACTION_EDGES && removedEdgeCount > snapshotEdges / 2)) {
+            rebuildSnapshot();
+        }
+    }
+
+    private void rebuildSnapshot() {
+        int edgeCount = snapshot.edgeCount - removedEdgeCount + deltaEdgeCount;
+        int[] providers = new int[edgeCount];
+        int[] dependents = new int[edgeCount];
+        int e = 0;
+
+        for (int provider = 0; provider < snapshot.nodeCount; provider++) {
+            for (int edge = snapshot.offsets[provider]; edge < snapshot.offsets[provider + 1]; edge++) {
+                if (!removedEdges.get(edge)) {
+                    providers[e] = provider;
+                    dependents[e++] = snapshot.targets[edge];
+                }
+            }
+        }
+        for (Map.Entry<String, Set<String>> entry : dependencyGraph.entrySet()) {
+            int provider = serviceIds.indexOf(entry.getKey());
+            for (String dependent : entry.getValue()) {
+                providers[e] = provider;
+                dependents[e++] = serviceIds.indexOf(dependent);
+            }
+        }
+
+        dependencyGraph.clear();
+        providerGraph.clear();
+        deltaEdgeCount = 0;
+        resetSnapshot(DependencySnapshot.build(serviceIds.size(), providers, dependents, edgeCount));
+        logger.debug("Compacted dependency graph: {} services, {} edges", snapshot.nodeCount, edgeCount);
+    }
+
+    private void resetSnapshot(DependencySnapshot rebuilt) {
+        snapshot = rebuilt;
+        removedEdges = new BitSet(rebuilt.edgeCount);
+        removedEdgeCount = 0;
+        liveDegree = new int[rebuilt.nodeCount];
+        for (int node = 0; node < rebuilt.nodeCount; node++) {
+            liveDegree[node] = rebuilt.degree(node);
+        }
+    }
+
+    /**
+     * Finds the live snapshot edge from provider to dependent, or -1 if there is none.
+     */
+    private int findLiveSnapshotEdge(int provider, int dependent) {
+        if (provider >= snapshot.nodeCount) {
+            return -1;
+        }
+        for (int edge = snapshot.offsets[provider]; edge < snapshot.offsets[provider + 1]; edge++) {
+            if (snapshot.targets[edge] == dependent && !removedEdges.get(edge)) {
+                return edge;
+            }
+        }
+        return -1;
+    }
+
+    private void removeSnapshotEdge(int provider, int edge) {
+        removedEdges.set(edge);
+        removedEdgeCount++;
+        liveDegree[provider]--;
+    }
+
+    private void removeDeltaEdge(String providingService, String dependentService) {
+        Set<String> dependents = dependencyGraph.get(providingService);
+        if (dependents == null || !dependents.remove(dependentService)) {
+            return;
+        }
+        if (dependents.isEmpty()) {
+            dependencyGraph.remove(providingService);
+        }
+        Set<String> providers = providerGraph.get(dependentService);
+        providers.remove(providingService);
+        if (providers.isEmpty()) {
+            providerGraph.remove(dependentService);
+        }
+        deltaEdgeCount--;
     }
 }
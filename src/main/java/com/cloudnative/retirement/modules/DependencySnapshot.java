@@ -0,0 +1,76 @@
+package com.cloudnative.retirement.modules;
+
+/**
+ * Immutable compressed-sparse-row view of the dependency graph over interned service ids.
+ * Forward rows list each provider's dependents; reverse rows list each dependent's providers
+ * together with the index of the matching forward edge, so one edge has a single identity
+ * in both directions. Costs 12 bytes per edge plus 8 bytes per service.
+ */
+final class DependencySnapshot {
+    static final DependencySnapshot EMPTY = build(0, new int[0], new int[0], 0);
+
+    final int nodeCount;
+    final int edgeCount;
+
+    // provider -> dependents; edges of provider p are offsets[p] until offsets[p + 1]
+    final int[] offsets;
+    final int[] targets;
+
+    // dependent -> providers, with the forward edge index of each entry
+    final int[] reverseOffsets;
+    final int[] reverseSources;
+    final int[] reverseEdges;
+
+    private DependencySnapshot(int nodeCount, int[] offsets, int[] targets,
+                               int[] reverseOffsets, int[] reverseSources, int[] reverseEdges) {
+        this.nodeCount = nodeCount;
+        this.edgeCount = targets.length;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.reverseOffsets = reverseOffsets;
+        this.reverseSources = reverseSources;
+        this.reverseEdges = reverseEdges;
+    }
+
+    /**
+     * Builds a snapshot from parallel provider/dependent edge arrays with two counting sorts.
+     * Edges must be unique.
+     */
+    static DependencySnapshot build(int nodeCount, int[] providers, int[] dependents, int edgeCount) {
+        int[] offsets = new int[nodeCount + 1];
+        int[] reverseOffsets = new int[nodeCount + 1];
+        for (int e = 0; e < edgeCount; e++) {
+            offsets[providers[e] + 1]++;
+            reverseOffsets[dependents[e] + 1]++;
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            offsets[node + 1] += offsets[node];
+            reverseOffsets[node + 1] += reverseOffsets[node];
+        }
+
+        int[] targets = new int[edgeCount];
+        int[] cursor = new int[nodeCount];
+        System.arraycopy(offsets, 0, cursor, 0, nodeCount);
+        for (int e = 0; e < edgeCount; e++) {
+            targets[cursor[providers[e]]++] = dependents[e];
+        }
+
+        // Walk the sorted forward edges so reverse entries carry their forward edge index
+        int[] reverseSources = new int[edgeCount];
+        int[] reverseEdges = new int[edgeCount];
+        System.arraycopy(reverseOffsets, 0, cursor, 0, nodeCount);
+        for (int provider = 0; provider < nodeCount; provider++) {
+            for (int edge = offsets[provider]; edge < offsets[provider + 1]; edge++) {
+                int slot = cursor[targets[edge]]++;
+                reverseSources[slot] = provider;
+                reverseEdges[slot] = edge;
+            }
+        }
+
+        return new DependencySnapshot(nodeCount, offsets, targets, reverseOffsets, reverseSources, reverseEdges);
+    }
+
+    int degree(int provider) {
+        return provider < nodeCount ? offsets[provider + 1] - offsets[provider] : 0;
+    }
+}
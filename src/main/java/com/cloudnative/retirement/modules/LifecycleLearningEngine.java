@@ -17,27 +17,49 @@ public class LifecycleLearningEngine {
     private static final double DECAY_WEIGHT = 0.6;
 
     private final int maxHistoryWindow;
-    private final java.util.Map<String, java.util.Deque<Double>> utilityHistory;
+    private final java.util.Map<String, double[]> utilityHistory;
+    private final double[] decayByCount; // DECAY_FACTOR^ln(n + 1) for every possible history length
 
     public LifecycleLearningEngine(int maxHistoryWindow) {
+        if (maxHistoryWindow <= 0) {
+            throw new IllegalArgumentException("History window must be positive: " + maxHistoryWindow);
+        }
         this.maxHistoryWindow = maxHistoryWindow;
         this.utilityHistory = new java.util.concurrent.ConcurrentHashMap<>();
+        this.decayByCount = new double[maxHistoryWindow + 1];
+        for (int n = 0; n <= maxHistoryWindow; n++) {
+            decayByCount[n] = Math.pow(DECAY_FACTOR, Math.log(n + 1));
+        }
     }
 
     /**
      * Records a utility measurement for a service and learns from the pattern.
      */
     public void recordUtility(String serviceId, double utilityScore) {
-        utilityHistory.computeIfAbsent(serviceId, k -> new java.util.LinkedList<>())
-                     .addLast(utilityScore);
+        double[] window = utilityHistory.get(serviceId);
+        if (window == null) {
+            window = utilityHistory.computeIfAbsent(serviceId, k -> new double[getWindowStride()]);
+        }
+        recordUtility(window, 0, utilityScore);
 
-        // Maintain window size
-        java.util.Deque<Double> history = utilityHistory.get(serviceId);
-        if (history.size() > maxHistoryWindow) {
-            history.removeFirst();
+        if (logger.isDebugEnabled()) {
+            logger.debug("Recorded utility for {}: {}", serviceId, utilityScore);
         }
+    }
 
-        logger.debug("Recorded utility for {}: {}", serviceId, utilityScore);
+    /**
+     * Records a utility measurement into a history window kept outside this engine.
+     * Used by array-backed simulations that lay out one window per service, getWindowStride() apart.
+     */
+    public void recordUtility(double[] windows, int base, double utilityScore) {
+        UtilityWindows.append(windows, base, maxHistoryWindow, utilityScore);
+    }
+
+    /**
+     * Gets the number of array slots one external history window occupies.
+     */
+    public int getWindowStride() {
+        return UtilityWindows.stride(maxHistoryWindow);
     }
 
     /**
@@ -46,20 +68,36 @@ public class LifecycleLearningEngine {
      */
     public double predictFutureUtility(Microservice service, double currentUtility) {
         String serviceId = service.getServiceId();
-        java.util.Deque<Double> history = utilityHistory.get(serviceId);
+        double[] window = utilityHistory.get(serviceId);
 
-        if (history == null || history.isEmpty()) {
+        if (window == null) {
             // No history - assume stable
             return currentUtility;
         }
 
-        double trendComponent = calculateTrend(history);
-        double decayComponent = calculateDecay(currentUtility, history.size());
+        double predictedUtility = predictFutureUtility(currentUtility, window, 0);
 
-        double predictedUtility = TREND_WEIGHT * trendComponent + DECAY_WEIGHT * decayComponent;
+        if (logger.isDebugEnabled()) {
+            logger.debug("Predicted future utility for {}: {}", serviceId, predictedUtility);
+        }
 
-        logger.debug("Predicted future utility for {}: {} (trend: {}, decay: {})", 
-                   serviceId, predictedUtility, trendComponent, decayComponent);
+        return predictedUtility;
+    }
+
+    /**
+     * Predicts future utility from a history window kept outside this engine.
+     */
+    public double predictFutureUtility(double currentUtility, double[] windows, int base) {
+        int count = UtilityWindows.size(windows, base);
+        if (count == 0) {
+            // No history - assume stable
+            return currentUtility;
+        }
+
+        double trendComponent = calculateTrend(windows, base, count);
+        double decayComponent = calculateDecay(currentUtility, count);
+
+        double predictedUtility = TREND_WEIGHT * trendComponent + DECAY_WEIGHT * decayComponent;
 
         return Math.max(0.0, Math.min(1.0, predictedUtility));
     }
@@ -68,27 +106,16 @@ public class LifecycleLearningEngine {
      * Calculates trend direction from recent history.
      * Positive trend = increasing utility, Negative = decreasing
      */
-    private double calculateTrend(java.util.Deque<Double> history) {
-        if (history.size() < 2) {
-            return history.getLast();
+    private double calculateTrend(double[] windows, int base, int n) {
+        double currentValue = UtilityWindows.latest(windows, base, maxHistoryWindow);
+        if (n < 2) {
+            return currentValue;
         }
 
-        double[] values = history.stream().mapToDouble(Double::doubleValue).toArray();
-        int n = values.length;
+        // Linear trend from the window's running sums
+        double slope = UtilityWindows.slope(windows, base);
 
-        // Simple linear trend calculation
-        double sumX = 0, sumY = 0, sumXY = 0, sumX2 = 0;
-        for (int i = 0; i < n; i++) {
-            sumX += i;
-            sumY += values[i];
-            sumXY += i * values[i];
-            sumX2 += i * i;
-        }
-
-        double slope = (n * sumXY - sumX * sumY) / (n * sumX2 - sumX * sumX);
-        
         // Current value adjusted by trend direction
-        double currentValue = values[n - 1];
         double trendAdjustedValue = currentValue + (slope * 0.5); // Moderate trend influence
 
         return Math.max(0.0, Math.min(1.0, trendAdjustedValue));
@@ -100,7 +127,7 @@ public class LifecycleLearningEngine {
      */
     private double calculateDecay(double currentUtility, int cyclesSinceCreation) {
         // Exponential decay: U(t) = U₀ × (DECAY_FACTOR^t)
-        double decayedUtility = currentUtility * Math.pow(DECAY_FACTOR, Math.log(cyclesSinceCreation + 1));
+        double decayedUtility = currentUtility * decayByCount[cyclesSinceCreation];
         return Math.max(0.0, Math.min(1.0, decayedUtility));
     }
 
@@ -108,16 +135,22 @@ public class LifecycleLearningEngine {
      * Gets learning statistics for a service.
      */
     public String getLearningStats(String serviceId) {
-        java.util.Deque<Double> history = utilityHistory.get(serviceId);
-        if (history == null || history.isEmpty()) {
+        double[] window = utilityHistory.get(serviceId);
+        int count = window == null ? 0 : UtilityWindows.size(window, 0);
+        if (count == 0) {
             return "No learning data for " + serviceId;
         }
 
-        double average = history.stream().mapToDouble(Double::doubleValue).average().orElse(0);
-        double min = history.stream().mapToDouble(Double::doubleValue).min().orElse(0);
-        double max = history.stream().mapToDouble(Double::doubleValue).max().orElse(0);
+        double min = Double.MAX_VALUE;
+        double max = -Double.MAX_VALUE;
+        for (int x = 0; x < count; x++) {
+            double value = UtilityWindows.get(window, 0, maxHistoryWindow, x);
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        double average = UtilityWindows.sum(window, 0) / count;
 
         return String.format("Service %s - History: %d cycles, Avg: %.3f, Min: %.3f, Max: %.3f",
-                           serviceId, history.size(), average, min, max);
+                           serviceId, count, average, min, max);
     }
 }
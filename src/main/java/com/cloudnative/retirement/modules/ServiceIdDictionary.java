@@ -0,0 +1,88 @@
+package com.cloudnative.retirement.modules;
+
+import java.util.Arrays;
+
+/**
+ * Append-only dictionary that interns service ids to dense int ids.
+ * Uses an open-addressing table of ints instead of boxed map entries. Not thread-safe;
+ * callers guard it with their own lock.
+ */
+final class ServiceIdDictionary {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private String[] names;
+    private int[] table; // id + 1 per slot, 0 marks an empty slot
+    private int size;
+
+    ServiceIdDictionary() {
+        this.names = new String[INITIAL_CAPACITY];
+        this.table = new int[INITIAL_CAPACITY * 2];
+    }
+
+    /**
+     * Gets the id of a service, assigning the next free id if it is not known yet.
+     */
+    int intern(String name) {
+        int slot = findSlot(name);
+        if (table[slot] != 0) {
+            return table[slot] - 1;
+        }
+
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+        }
+        int id = size++;
+        names[id] = name;
+        table[slot] = id + 1;
+
+        if (size * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        return id;
+    }
+
+    /**
+     * Gets the id of a service, or -1 if it has never been interned.
+     */
+    int indexOf(String name) {
+        return table[findSlot(name)] - 1;
+    }
+
+    String nameOf(int id) {
+        return names[id];
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int findSlot(String name) {
+        int mask = table.length - 1;
+        int slot = mix(name.hashCode()) & mask;
+        while (true) {
+            int entry = table[slot];
+            if (entry == 0 || names[entry - 1].equals(name)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void rehash(int capacity) {
+        int[] rehashed = new int[capacity];
+        int mask = capacity - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = mix(names[id].hashCode()) & mask;
+            while (rehashed[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            rehashed[slot] = id + 1;
+        }
+        table = rehashed;
+    }
+
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
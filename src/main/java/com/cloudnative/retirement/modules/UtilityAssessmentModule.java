@@ -18,22 +18,56 @@ public class UtilityAssessmentModule {
     private static final double MAX_REQUESTS_PER_CYCLE = 1000.0;
     private static final double MAX_DEPENDENTS = 20.0;
 
+    private final double maxRequests;
+    private final double maxDependents;
+
+    public UtilityAssessmentModule() {
+        this(MAX_REQUESTS_PER_CYCLE, MAX_DEPENDENTS);
+    }
+
+    /**
+     * Creates a module with its own normalization, for datasets on a different scale than the
+     * simulation (real-world exports use 2000 requests and 15 dependents).
+     *
+     * @param maxRequests Request count that scores full request utility
+     * @param maxDependents Dependent count that scores full collaboration utility
+     */
+    public UtilityAssessmentModule(double maxRequests, double maxDependents) {
+        if (maxRequests <= 0 || maxDependents <= 0) {
+            throw new IllegalArgumentException("Normalization limits must be positive");
+        }
+        this.maxRequests = maxRequests;
+        this.maxDependents = maxDependents;
+    }
+
     /**
      * Computes the utility score for a given microservice.
      * Range: [0.0, 1.0] where 1.0 = maximum utility, 0.0 = no utility
      */
     public double computeUtility(Microservice service) {
-        double requestComponent = computeRequestUtility(service.getRequestCount());
-        double slaComponent = service.getSlaContribution();
-        double collaborationComponent = computeCollaborationUtility(service.getDependentServiceCount());
+        return computeUtility(service.getRequestCount(),
+                              service.getSlaContribution(),
+                              service.getDependentServiceCount());
+    }
+
+    /**
+     * Computes the utility score from raw metric values.
+     * Lets array-backed simulations score services without a Microservice object.
+     */
+    public double computeUtility(int requestCount, double slaContribution, int dependentCount) {
+        double requestComponent = computeRequestUtility(requestCount);
+        double slaComponent = slaContribution;
+        double collaborationComponent = computeCollaborationUtility(dependentCount);
 
         double totalWeight = REQUEST_WEIGHT + SLA_WEIGHT + COLLABORATION_WEIGHT;
         double utilityScore = (REQUEST_WEIGHT * requestComponent + 
                              SLA_WEIGHT * slaComponent + 
                              COLLABORATION_WEIGHT * collaborationComponent) / totalWeight;
 
-        logger.debug("Utility breakdown - Request: {}, SLA: {}, Collaboration: {}, Total: {}", 
-                   requestComponent, slaComponent, collaborationComponent, utilityScore);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Utility breakdown - Request: {}, SLA: {}, Collaboration: {}, Total: {}", 
+                       requestComponent, slaComponent, collaborationComponent, utilityScore);
+        }
 
         return Math.max(0.0, Math.min(1.0, utilityScore));
     }
@@ -42,7 +76,7 @@ public class UtilityAssessmentModule {
      * Request utility component - normalized request count
      */
     private double computeRequestUtility(int requestCount) {
-        return Math.min(1.0, requestCount / MAX_REQUESTS_PER_CYCLE);
+        return Math.min(1.0, requestCount / maxRequests);
     }
 
     /**
@@ -50,7 +84,7 @@ public class UtilityAssessmentModule {
      */
     private double computeCollaborationUtility(int dependentCount) {
         // Services with many dependents are more important
-        return Math.min(1.0, dependentCount / MAX_DEPENDENTS);
+        return Math.min(1.0, dependentCount / maxDependents);
     }
 
     /**
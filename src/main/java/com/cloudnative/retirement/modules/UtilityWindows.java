@@ -0,0 +1,124 @@
+package com.cloudnative.retirement.modules;
+
+/**
+ * Fixed-capacity utility history windows stored in plain double arrays.
+ * Each window occupies stride(capacity) consecutive slots: a small header holding the running
+ * sums Σy and Σxy, the ring head, the sample count and an append counter, followed by the ring
+ * of samples. x is the sample position in the window, oldest = 0, so Σx and Σx² follow from the
+ * count alone and both appending and the trend slope are O(1) and allocation-free.
+ *
+ * A window may live in its own array or back to back with others in one large array.
+ */
+public final class UtilityWindows {
+    private static final int SUM_Y = 0;
+    private static final int SUM_XY = 1;
+    private static final int HEAD = 2;
+    private static final int COUNT = 3;
+    private static final int APPENDS = 4;
+    private static final int HEADER = 5;
+
+    // Running sums are recomputed exactly every RESYNC_PERIOD full turns of the ring
+    private static final int RESYNC_PERIOD = 64;
+
+    private UtilityWindows() {
+    }
+
+    /**
+     * Gets the number of array slots one window of the given capacity needs.
+     */
+    public static int stride(int capacity) {
+        return HEADER + capacity;
+    }
+
+    /**
+     * Appends a sample, evicting the oldest one when the window is full.
+     */
+    public static void append(double[] data, int base, int capacity, double value) {
+        int count = (int) data[base + COUNT];
+        int head = (int) data[base + HEAD];
+        double sumY = data[base + SUM_Y];
+        double sumXY = data[base + SUM_XY];
+
+        if (count < capacity) {
+            data[base + HEADER + count] = value; // head stays 0 until the window is full
+            sumXY += count * value;
+            sumY += value;
+            count++;
+        } else {
+            int slot = base + HEADER + head;
+            double evicted = data[slot];
+            // Dropping x = 0 shifts every remaining x down by one
+            sumXY -= sumY - evicted;
+            sumY -= evicted;
+            sumXY += (capacity - 1) * value;
+            sumY += value;
+            data[slot] = value;
+            head = (head + 1 == capacity) ? 0 : head + 1;
+        }
+
+        data[base + SUM_Y] = sumY;
+        data[base + SUM_XY] = sumXY;
+        data[base + HEAD] = head;
+        data[base + COUNT] = count;
+
+        double appends = data[base + APPENDS] + 1;
+        if (appends >= (double) capacity * RESYNC_PERIOD) {
+            resync(data, base, capacity);
+            appends = 0;
+        }
+        data[base + APPENDS] = appends;
+    }
+
+    /**
+     * Recomputes the running sums from the samples to discard accumulated rounding error.
+     */
+    private static void resync(double[] data, int base, int capacity) {
+        int count = (int) data[base + COUNT];
+        double sumY = 0;
+        double sumXY = 0;
+        for (int x = 0; x < count; x++) {
+            double value = get(data, base, capacity, x);
+            sumY += value;
+            sumXY += x * value;
+        }
+        data[base + SUM_Y] = sumY;
+        data[base + SUM_XY] = sumXY;
+    }
+
+    public static int size(double[] data, int base) {
+        return (int) data[base + COUNT];
+    }
+
+    /**
+     * Gets the sample at position x, where 0 is the oldest sample in the window.
+     */
+    public static double get(double[] data, int base, int capacity, int x) {
+        int index = (int) data[base + HEAD] + x;
+        if (index >= capacity) {
+            index -= capacity;
+        }
+        return data[base + HEADER + index];
+    }
+
+    /**
+     * Gets the most recent sample. The window must not be empty.
+     */
+    public static double latest(double[] data, int base, int capacity) {
+        return get(data, base, capacity, size(data, base) - 1);
+    }
+
+    public static double sum(double[] data, int base) {
+        return data[base + SUM_Y];
+    }
+
+    /**
+     * Least-squares slope of the samples against their position in the window.
+     * The window must hold at least two samples.
+     */
+    public static double slope(double[] data, int base) {
+        double n = size(data, base);
+        double sumX = n * (n - 1) / 2.0;
+        double sumX2 = (n - 1) * n * (2 * n - 1) / 6.0;
+        return (n * data[base + SUM_XY] - sumX * data[base + SUM_Y]) / (n * sumX2 - sumX * sumX);
+    }
+}
@@ -0,0 +1,331 @@
+package com.cloudnative.retirement.simulation;
+
+import com.cloudnative.retirement.agent.MicroserviceRetirementAgent;
+import com.cloudnative.retirement.clock.SimulationClock;
+import com.cloudnative.retirement.modules.DependencyAwarenessModule;
+import com.cloudnative.retirement.modules.LifecycleLearningEngine;
+import com.cloudnative.retirement.modules.UtilityAssessmentModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Struct-of-arrays simulation engine for very large fleets.
+ * Keeps every per-service field in a primitive array indexed by an int service id instead of
+ * one Microservice and one agent object per service, and runs the same utility, lifecycle and
+ * dependency rules over sequential scans. Per-service memory is roughly 8 bytes per history
+ * sample plus about 130 bytes of state, so 1-10M services fit in a few GB of heap.
+ *
+ * Seeds, per-service workload streams and cycle ordering mirror MicroserviceRetirementSimulation,
+ * so both engines reach the same decisions for the same fleet size. The workload streams are the
+ * only per-service objects: each service gets a SplittableRandom split from the same root, exactly
+ * as in the object-based simulation, rather than a copy of its algorithm. Individual RETAIN decisions
+ * are counted rather than materialized as events.
+ */
+public class CompactFleetSimulation {
+    private static final Logger logger = LoggerFactory.getLogger(CompactFleetSimulation.class);
+
+    private static final long SEED = 42; // Same seed as the object-based simulation
+    private static final int DEFAULT_HISTORY_WINDOW = 20;
+    private static final int BASE_REQUESTS = 800;
+
+    private final UtilityAssessmentModule utilityModule;
+    private final LifecycleLearningEngine learningEngine;
+    private final DependencyAwarenessModule dependencyModule;
+
+    private final int numServices;
+    private final int totalCycles;
+    private final int historyStride;
+
+    // Workload metrics
+    private final int[] requestCount;
+    private final double[] utilizationRate;
+    private final double[] slaContribution;
+    private final int[] dependentCount; // Count last reported by the dependency check, as on Microservice
+
+    // Agent state
+    private final double[] utilityThreshold;
+    private final int[] retentionWindow;
+    private final int[] lowUtilityCount;
+    private final boolean[] retired;
+
+    // Dependency graph: the generator gives each service at most one provider
+    private final int[] providerOf;
+    private final int[] liveDependents;
+
+    // Lifecycle history, one ring-buffer window with running trend sums per service, historyStride apart
+    private final double[] utilityHistory;
+
+    // Per-service workload streams, split in service order from one root like the object simulation
+    private final SplittableRandom[] serviceRandoms;
+
+    private final int[] retiredThisCycle;
+    private final AtomicInteger retiredThisCycleCount;
+    private final ForkJoinPool pool;
+    private final SimulationClock clock;
+    private final long startTimeMillis;
+
+    private int currentCycle;
+    private int activeServices;
+    private long totalRetirements;
+    private long totalRetentions;
+    private double totalCpuFreed;
+
+    public CompactFleetSimulation(int numServices, int totalCycles, int parallelism) {
+        this(numServices, totalCycles, parallelism, DEFAULT_HISTORY_WINDOW);
+    }
+
+    public CompactFleetSimulation(int numServices, int totalCycles, int parallelism, int historyWindow) {
+        this(numServices, totalCycles, parallelism, historyWindow, SimulationClock.system());
+    }
+
+    public CompactFleetSimulation(int numServices, int totalCycles, int parallelism, int historyWindow,
+                                  SimulationClock clock) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
+        this.numServices = numServices;
+        this.totalCycles = totalCycles;
+
+        this.utilityModule = new UtilityAssessmentModule();
+        this.learningEngine = new LifecycleLearningEngine(historyWindow);
+        this.historyStride = learningEngine.getWindowStride();
+        this.dependencyModule = new DependencyAwarenessModule();
+
+        this.requestCount = new int[numServices];
+        this.utilizationRate = new double[numServices];
+        this.slaContribution = new double[numServices];
+        this.dependentCount = new int[numServices];
+        this.utilityThreshold = new double[numServices];
+        this.retentionWindow = new int[numServices];
+        this.lowUtilityCount = new int[numServices];
+        this.retired = new boolean[numServices];
+        this.providerOf = new int[numServices];
+        this.liveDependents = new int[numServices];
+        this.utilityHistory = new double[Math.multiplyExact(numServices, historyStride)];
+        this.serviceRandoms = new SplittableRandom[numServices];
+        this.retiredThisCycle = new int[numServices];
+        this.retiredThisCycleCount = new AtomicInteger();
+        this.pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        this.clock = clock;
+        this.startTimeMillis = clock.currentTimeMillis();
+
+        initializeServices();
+        logger.info("Compact simulation initialized with {} services, {} cycles and parallelism {}",
+                   numServices, totalCycles, parallelism);
+    }
+
+    /**
+     * Initializes service state, agent thresholds and random dependencies.
+     */
+    private void initializeServices() {
+        Random random = new Random(SEED);
+        SplittableRandom workloadRoot = new SplittableRandom(SEED);
+
+        Arrays.fill(utilizationRate, 0.5);
+        Arrays.fill(slaContribution, 0.5);
+        Arrays.fill(providerOf, -1);
+
+        for (int i = 0; i < numServices; i++) {
+            serviceRandoms[i] = workloadRoot.split();
+
+            utilityThreshold[i] = 0.25 + random.nextDouble() * 0.2; // 0.25-0.45
+            retentionWindow[i] = 5 + random.nextInt(5); // 5-10 cycles
+        }
+
+        int dependencies = 0;
+        for (int i = 1; i < numServices; i++) {
+            if (random.nextDouble() < 0.4) { // 40% chance of dependency
+                int provider = random.nextInt(i);
+                providerOf[i] = provider;
+                liveDependents[provider]++;
+                dependencies++;
+            }
+        }
+
+        activeServices = numServices;
+        logger.info("Service initialization complete: {} services, {} dependencies", numServices, dependencies);
+    }
+
+    /**
+     * Runs the simulation for the specified number of cycles.
+     */
+    public void run() {
+        logger.info("Starting compact simulation - {} cycles", totalCycles);
+
+        for (currentCycle = 0; currentCycle < totalCycles; currentCycle++) {
+            simulateCycle();
+            clock.advanceCycle();
+
+            if (currentCycle % 10 == 0) {
+                logger.info("Simulation cycle {}/{} - Active services: {}, Retired services: {}",
+                           currentCycle, totalCycles, getActiveServiceCount(), getRetiredServiceCount());
+            }
+        }
+
+        if (pool != null) {
+            pool.shutdown();
+        }
+        logger.info("Compact simulation complete after {} cycles: {}", totalCycles, getMetrics());
+    }
+
+    /**
+     * Simulates a single time cycle over all service arrays.
+     */
+    private void simulateCycle() {
+        int ageMinutes = (int) ((clock.currentTimeMillis() - startTimeMillis) / 60000);
+        double decayFactor = Math.pow(0.97, ageMinutes / 100.0);
+
+        // Step 1: Update service metrics (simulated workload)
+        ParallelRange.forEach(pool, numServices, i -> {
+            if (!retired[i]) {
+                updateServiceMetrics(i, decayFactor);
+            }
+        });
+
+        // Step 2: Evaluate every active service
+        int evaluated = activeServices;
+        retiredThisCycleCount.set(0);
+        ParallelRange.forEach(pool, numServices, i -> {
+            if (!retired[i]) {
+                evaluateRetirement(i);
+            }
+        });
+
+        // Step 3: Apply dependency cleanup in service order
+        int retiredCount = retiredThisCycleCount.get();
+        Arrays.sort(retiredThisCycle, 0, retiredCount);
+        for (int k = 0; k < retiredCount; k++) {
+            int i = retiredThisCycle[k];
+            totalCpuFreed += MicroserviceRetirementAgent.estimateCpuFreed(utilizationRate[i]);
+            int provider = providerOf[i];
+            if (provider >= 0 && !retired[provider]) {
+                liveDependents[provider]--;
+            }
+            liveDependents[i] = 0;
+        }
+
+        activeServices -= retiredCount;
+        totalRetirements += retiredCount;
+        totalRetentions += evaluated - retiredCount;
+    }
+
+    /**
+     * Simulates workload changes for one service, as in the object-based simulation.
+     */
+    private void updateServiceMetrics(int i, double decayFactor) {
+        int requests = (int) (BASE_REQUESTS * decayFactor * (0.5 + nextDouble(i)));
+        requestCount[i] = requests;
+        utilizationRate[i] = clamp(requests / 1000.0);
+
+        double slaDrift = 0.1 * (nextDouble(i) - 0.5); // +/- 5%
+        slaContribution[i] = clamp(Math.max(0, slaContribution[i] + slaDrift));
+    }
+
+    /**
+     * Runs the retirement agent decision for one service.
+     */
+    private void evaluateRetirement(int i) {
+        double utilityScore = utilityModule.computeUtility(requestCount[i], slaContribution[i], dependentCount[i]);
+        double predictedFutureUtility = learningEngine.predictFutureUtility(
+            utilityScore, utilityHistory, i * historyStride);
+
+        double threshold = utilityThreshold[i];
+        if (utilityScore < threshold && predictedFutureUtility < threshold) {
+            lowUtilityCount[i]++;
+        } else {
+            lowUtilityCount[i] = 0;
+        }
+
+        boolean retire = false;
+        if (lowUtilityCount[i] >= retentionWindow[i]) {
+            int dependents = liveDependents[i];
+            dependentCount[i] = dependents;
+            retire = dependencyModule.isSafeToRetire(dependents);
+        }
+
+        learningEngine.recordUtility(utilityHistory, i * historyStride, utilityScore);
+
+        if (retire) {
+            retired[i] = true;
+            retiredThisCycle[retiredThisCycleCount.getAndIncrement()] = i;
+        }
+    }
+
+    private double nextDouble(int i) {
+        return serviceRandoms[i].nextDouble();
+    }
+
+    private static double clamp(double value) {
+        return Math.max(0, Math.min(1, value));
+    }
+
+    /**
+     * Gets the service id used by the object-based simulation for the given index.
+     */
+    public String getServiceId(int index) {
+        return "S" + (index + 1);
+    }
+
+    public int getServiceCount() {
+        return numServices;
+    }
+
+    public boolean isRetired(int index) {
+        return retired[index];
+    }
+
+    public int getRequestCount(int index) {
+        return requestCount[index];
+    }
+
+    public double getSlaContribution(int index) {
+        return slaContribution[index];
+    }
+
+    public double getUtilizationRate(int index) {
+        return utilizationRate[index];
+    }
+
+    public int getActiveServiceCount() {
+        return activeServices;
+    }
+
+    public int getRetiredServiceCount() {
+        return numServices - activeServices;
+    }
+
+    /**
+     * Always 0: this engine counts a service as retired in its deciding cycle and does not model draining.
+     */
+    public int getRetiringServiceCount() {
+        return 0;
+    }
+
+    /**
+     * Gets simulation progress as percentage.
+     */
+    public double getProgress() {
+        return (currentCycle * 100.0) / totalCycles;
+    }
+
+    /**
+     * Gets performance metrics. Decision counts saturate at Integer.MAX_VALUE.
+     */
+    public MicroserviceRetirementSimulation.SimulationMetrics getMetrics() {
+        return new MicroserviceRetirementSimulation.SimulationMetrics(
+            numServices,
+            getActiveServiceCount(),
+            getRetiringServiceCount(),
+            getRetiredServiceCount(),
+            totalCpuFreed,
+            (int) Math.min(Integer.MAX_VALUE, totalRetirements),
+            (int) Math.min(Integer.MAX_VALUE, totalRetentions)
+        );
+    }
+}
@@ -0,0 +1,66 @@
+package com.cloudnative.retirement.simulation;
+
+import com.cloudnative.retirement.dataloaders.ServiceMetricsTimeSeries;
+import com.cloudnative.retirement.model.Microservice;
+
+import java.util.List;
+
+/**
+ * Feeds recorded metrics into simulated services, one cycle at a time.
+ * A simulated service replays the series recorded under its service id; cycle c shows the last
+ * recorded point at or before startMillis + c * cycleMillis. Each service has its own cursor, so
+ * services can be replayed concurrently.
+ */
+final class MetricsReplay {
+    private final ServiceMetricsTimeSeries.Cursor[] cursors; // By service index, null if not recorded
+    private final int replayedCount;
+    private final long startMillis;
+    private final long cycleMillis;
+
+    MetricsReplay(ServiceMetricsTimeSeries timeSeries, List<Microservice> services, long startMillis, long cycleMillis) {
+        if (cycleMillis <= 0) {
+            throw new IllegalArgumentException("Cycle length must be positive: " + cycleMillis);
+        }
+        this.cursors = new ServiceMetricsTimeSeries.Cursor[services.size()];
+        int replayed = 0;
+        for (int i = 0; i < cursors.length; i++) {
+            int series = timeSeries.indexOf(services.get(i).getServiceId());
+            if (series >= 0) {
+                cursors[i] = timeSeries.cursor(series);
+                replayed++;
+            }
+        }
+        this.replayedCount = replayed;
+        this.startMillis = startMillis;
+        this.cycleMillis = cycleMillis;
+    }
+
+    /**
+     * Gets the number of services that replay recorded metrics.
+     */
+    int getReplayedServiceCount() {
+        return replayedCount;
+    }
+
+    boolean replays(int index) {
+        return cursors[index] != null;
+    }
+
+    /**
+     * Applies the recorded values for a cycle to a service.
+     * Before the series' first point the service keeps its current values. The recorded dependent
+     * count is applied too; the dependency check replaces it with the live graph's count when the
+     * service is considered for retirement.
+     */
+    void apply(int index, Microservice service, int cycle) {
+        ServiceMetricsTimeSeries.Cursor cursor = cursors[index];
+        if (!cursor.advanceTo(startMillis + cycle * cycleMillis)) {
+            return;
+        }
+        // Same mapping as MicroserviceMetricsUpdater
+        service.setRequestCount(cursor.getRequestCount());
+        service.setUtilizationRate(cursor.getRequestCount() / 1000.0);
+        service.setSlaContribution(cursor.getSlaScore());
+        service.setDependentServiceCount(cursor.getDependentCount());
+    }
+}
@@ -1,6 +1,8 @@
 package com.cloudnative.retirement.simulation;
 
 import com.cloudnative.retirement.agent.MicroserviceRetirementAgent;
+import com.cloudnative.retirement.clock.SimulationClock;
+import com.cloudnative.retirement.dataloaders.ServiceMetricsTimeSeries;
 import com.cloudnative.retirement.model.Microservice;
 import com.cloudnative.retirement.model.RetirementEvent;
 import com.cloudnative.retirement.modules.*;
@@ -9,12 +11,32 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Microservice Retirement Simulation Framework
  * Simulates a cloud-native environment with multiple microservices,
  * each with autonomous retirement agents making independent decisions.
+ *
+ * With a parallelism above one, the metric-update and evaluation phases of each cycle
+ * are split across a ForkJoinPool. Every service draws from its own split random stream
+ * and cross-service side effects are applied in service order after each phase, so the
+ * decisions are the same whatever the thread count.
+ *
+ * Service ageing, event timestamps and report names come from a SimulationClock. With a
+ * LogicalClock the clock advances once per cycle, so runs are reproducible and simulated
+ * months pass at full CPU speed.
+ *
+ * runDiscreteEvent() is an alternative to the lock-step run(): each agent schedules its own next
+ * evaluation on a priority queue, further out the more its utility exceeds its threshold, so
+ * clearly healthy services are skipped for several cycles. A skipped service's metrics are
+ * caught up from its own random stream when it is next evaluated, so they match the lock-step
+ * values; only the evaluations themselves are sparser. A retired service's dependency edges are
+ * removed DRAIN_CYCLES after its decision, once it has drained.
+ *
+ * replayMetrics() swaps the synthetic workload for one recorded in a ServiceMetricsTimeSeries.
  */
 public class MicroserviceRetirementSimulation {
     private static final Logger logger = LoggerFactory.getLogger(MicroserviceRetirementSimulation.class);
@@ -25,39 +47,94 @@ public class MicroserviceRetirementSimulation {
     private final LifecycleLearningEngine learningEngine;
     private final DependencyAwarenessModule dependencyModule;
     private final EvidenceLogger logger_evidence;
+    private final SimulationClock clock;
+
+    private static final long SEED = 42; // Fixed seed for reproducibility
+    private static final double REEVALUATION_MARGIN_STEP = 0.03; // Utility margin per skipped cycle
+    private static final int MAX_REEVALUATION_INTERVAL = 16; // Cycles
+    private static final int DRAIN_CYCLES = 1; // A retiring service still serves its dependents for this long
 
     private int currentCycle;
     private final int totalCycles;
     private final Random random;
+    private final SplittableRandom[] serviceRandoms; // One workload stream per service, indexed like services
+    private final RetirementEvent[] cycleEvents; // Evaluation results of the current cycle, indexed like agents
+    private final int parallelism;
+    private final ForkJoinPool pool;
+    private final Map<String, Integer> serviceIndex;
+    private final List<CompletableFuture<RetirementEvent>> pendingDrains;
+
+    // Discrete-event mode state
+    private final PriorityQueue<SimulationEvent> eventQueue;
+    private final int[] lastMetricCycle;
+    private final int[] evaluationGeneration;
+    private long eventSequence;
+    private long evaluationCount;
+
+    private MetricsReplay replay; // Recorded workload, or null for the synthetic one
 
     public MicroserviceRetirementSimulation(int numServices, int totalCycles, String logDirectory) throws java.io.IOException {
+        this(numServices, totalCycles, logDirectory, 1);
+    }
+
+    /**
+     * Creates a simulation whose cycles run on the given number of worker threads.
+     * A parallelism of one runs every phase on the calling thread.
+     */
+    public MicroserviceRetirementSimulation(int numServices, int totalCycles, String logDirectory,
+                                            int parallelism) throws java.io.IOException {
+        this(numServices, totalCycles, logDirectory, parallelism, SimulationClock.system());
+    }
+
+    /**
+     * Creates a simulation that reads time from the given clock and advances it once per cycle.
+     */
+    public MicroserviceRetirementSimulation(int numServices, int totalCycles, String logDirectory,
+                                            int parallelism, SimulationClock clock) throws java.io.IOException {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
         this.services = new CopyOnWriteArrayList<>();
         this.agents = new CopyOnWriteArrayList<>();
         this.totalCycles = totalCycles;
         this.currentCycle = 0;
-        this.random = new Random(42); // Fixed seed for reproducibility
+        this.random = new Random(SEED);
+        this.serviceRandoms = new SplittableRandom[numServices];
+        this.cycleEvents = new RetirementEvent[numServices];
+        this.parallelism = parallelism;
+        this.pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        this.clock = clock;
+        this.serviceIndex = new HashMap<>();
+        this.pendingDrains = new ArrayList<>();
+        this.eventQueue = new PriorityQueue<>();
+        this.lastMetricCycle = new int[numServices];
+        this.evaluationGeneration = new int[numServices];
 
         // Initialize modules
         this.utilityModule = new UtilityAssessmentModule();
         this.learningEngine = new LifecycleLearningEngine(20);
         this.dependencyModule = new DependencyAwarenessModule();
-        this.logger_evidence = new EvidenceLogger(logDirectory);
+        this.logger_evidence = new EvidenceLogger(logDirectory, clock);
 
         // Initialize microservices
         initializeServices(numServices);
-        logger.info("Simulation initialized with {} services and {} cycles", numServices, totalCycles);
+        logger.info("Simulation initialized with {} services, {} cycles and parallelism {}",
+                   numServices, totalCycles, parallelism);
     }
 
     /**
      * Initializes microservices with agents and random dependencies.
      */
     private void initializeServices(int numServices) {
+        SplittableRandom workloadRoot = new SplittableRandom(SEED);
         for (int i = 0; i < numServices; i++) {
             String serviceId = "S" + (i + 1);
             String serviceName = "Service-" + (i + 1);
             
-            Microservice service = new Microservice(serviceId, serviceName);
+            Microservice service = new Microservice(serviceId, serviceName, clock);
             services.add(service);
+            serviceIndex.put(serviceId, i);
+            serviceRandoms[i] = workloadRoot.split();
 
             // Create retirement agent for this service
             double utilityThreshold = 0.25 + random.nextDouble() * 0.2; // 0.25-0.45
@@ -84,6 +161,7 @@ public class MicroserviceRetirementSimulation {
                 dependencyModule.registerDependency(dependent, provider);
             }
         }
+        dependencyModule.compact();
 
         logger.info("Service initialization complete: {}", dependencyModule.getDependencyStats());
     }
@@ -96,58 +174,253 @@ public class MicroserviceRetirementSimulation {
 
         for (currentCycle = 0; currentCycle < totalCycles; currentCycle++) {
             simulateCycle();
+            pendingDrains.removeIf(CompletableFuture::isDone);
+            logger_evidence.onCycleComplete();
+            clock.advanceCycle();
             
             if (currentCycle % 10 == 0) {
-                logger.info("Simulation cycle {}/{} - Active services: {}, Retired services: {}",
-                           currentCycle, totalCycles, getActiveServiceCount(), getRetiredServiceCount());
+                logger.info("Simulation cycle {}/{} - Active services: {}, Retiring services: {}, Retired services: {}",
+                           currentCycle, totalCycles, getActiveServiceCount(), getRetiringServiceCount(),
+                           getRetiredServiceCount());
             }
         }
 
         finalizeSim();
     }
 
+    /**
+     * Runs the simulation in discrete-event mode for the specified number of cycles.
+     * Only services with an event due in a cycle are touched in that cycle.
+     */
+    public void runDiscreteEvent() {
+        logger.info("Starting discrete-event simulation - {} cycles", totalCycles);
+
+        Arrays.fill(lastMetricCycle, -1);
+        for (int i = 0; i < agents.size(); i++) {
+            scheduleEvaluation(i, 0);
+        }
+
+        for (currentCycle = 0; currentCycle < totalCycles; currentCycle++) {
+            processEventsDue(currentCycle);
+            pendingDrains.removeIf(CompletableFuture::isDone);
+            logger_evidence.onCycleComplete();
+            clock.advanceCycle();
+
+            if (currentCycle % 10 == 0) {
+                logger.info("Simulation cycle {}/{} - Active services: {}, Retiring services: {}, Retired services: {}, "
+                           + "Pending events: {}", currentCycle, totalCycles, getActiveServiceCount(),
+                           getRetiringServiceCount(), getRetiredServiceCount(), eventQueue.size());
+            }
+        }
+
+        logger.info("Discrete-event run performed {} evaluations ({} in lock-step at most)",
+                   evaluationCount, (long) totalCycles * agents.size());
+        finalizeSim();
+    }
+
+    /**
+     * Schedules an external metric change for a service in discrete-event mode.
+     * The new values replace the simulated workload for that cycle and the service is re-evaluated
+     * in the same cycle, even if its next evaluation was further out.
+     */
+    public void scheduleMetricChange(String serviceId, int cycle, int requestCount, double slaContribution) {
+        Integer index = serviceIndex.get(serviceId);
+        if (index == null) {
+            throw new IllegalArgumentException("Unknown service: " + serviceId);
+        }
+        eventQueue.add(new SimulationEvent(cycle, SimulationEvent.Type.METRIC_CHANGE, index, 0,
+                                           eventSequence++, requestCount, slaContribution));
+    }
+
+    /**
+     * Replays recorded metrics instead of the synthetic workload.
+     * Each service follows the series recorded under its id (S1, S2, ...); services without a
+     * recorded series keep the synthetic workload. Cycle c shows the last recorded point at or before
+     * startMillis + c * cycleMillis. Call before run() or runDiscreteEvent().
+     */
+    public void replayMetrics(ServiceMetricsTimeSeries timeSeries, long startMillis, long cycleMillis) {
+        this.replay = new MetricsReplay(timeSeries, services, startMillis, cycleMillis);
+        logger.info("Replaying recorded metrics for {} of {} services", replay.getReplayedServiceCount(), services.size());
+    }
+
+    /**
+     * Processes every queued event scheduled for the given cycle.
+     */
+    private void processEventsDue(int cycle) {
+        long nowMillis = clock.currentTimeMillis();
+
+        while (!eventQueue.isEmpty() && eventQueue.peek().cycle <= cycle) {
+            SimulationEvent event = eventQueue.poll();
+            int index = event.serviceIndex;
+            Microservice service = services.get(index);
+
+            switch (event.type) {
+                case METRIC_CHANGE:
+                    if (!service.isActive()) {
+                        break;
+                    }
+                    catchUpServiceMetrics(index, cycle, nowMillis);
+                    service.setRequestCount(event.requestCount);
+                    service.setUtilizationRate(event.requestCount / 1000.0);
+                    service.setSlaContribution(event.slaContribution);
+                    scheduleEvaluation(index, cycle);
+                    break;
+
+                case REEVALUATE:
+                    if (event.generation == evaluationGeneration[index] && service.isActive()) {
+                        catchUpServiceMetrics(index, cycle, nowMillis);
+                        evaluateDiscrete(index, cycle);
+                    }
+                    break;
+
+                case DRAIN_COMPLETE:
+                    dependencyModule.clearDependenciesForRetiredService(service.getServiceId());
+                    break;
+
+                default:
+                    throw new IllegalStateException("Unhandled event type: " + event.type);
+            }
+        }
+    }
+
+    /**
+     * Applies the simulated workload updates a service skipped since it was last touched,
+     * or its recorded values for the cycle when replaying.
+     * Draws from the service's own stream in the same order as lock-step mode.
+     */
+    private void catchUpServiceMetrics(int index, int cycle, long nowMillis) {
+        Microservice service = services.get(index);
+        if (replay != null && replay.replays(index)) {
+            replay.apply(index, service, cycle);
+        } else {
+            for (int c = lastMetricCycle[index] + 1; c <= cycle; c++) {
+                updateServiceMetrics(service, serviceRandoms[index], nowMillis);
+            }
+        }
+        lastMetricCycle[index] = cycle;
+    }
+
+    /**
+     * Evaluates one agent and schedules its follow-up event.
+     */
+    private void evaluateDiscrete(int index, int cycle) {
+        MicroserviceRetirementAgent agent = agents.get(index);
+        RetirementEvent event = agent.evaluateRetirement();
+        evaluationCount++;
+        if (event == null) {
+            return;
+        }
+
+        String serviceId = agent.getMicroservice().getServiceId();
+        logger_evidence.recordEvent(event);
+        learningEngine.recordUtility(serviceId, event.getUtilityScore());
+
+        if ("RETIRE".equals(event.getDecision())) {
+            // Drains finish on a wall-clock timer; a fixed delay in cycles keeps logical-clock runs reproducible
+            trackDrain(event);
+            eventQueue.add(new SimulationEvent(cycle + DRAIN_CYCLES, SimulationEvent.Type.DRAIN_COMPLETE, index, 0,
+                                               eventSequence++));
+        } else {
+            scheduleEvaluation(index, cycle + reevaluationInterval(agent, event.getUtilityScore()));
+        }
+    }
+
+    /**
+     * Queues the next evaluation of a service, superseding any evaluation already queued.
+     */
+    private void scheduleEvaluation(int index, int cycle) {
+        int generation = ++evaluationGeneration[index];
+        eventQueue.add(new SimulationEvent(cycle, SimulationEvent.Type.REEVALUATE, index, generation, eventSequence++));
+    }
+
+    /**
+     * Cycles until an agent should be evaluated again.
+     * Agents below or near their threshold, or inside a low-utility streak, are evaluated every cycle.
+     */
+    private int reevaluationInterval(MicroserviceRetirementAgent agent, double utilityScore) {
+        double margin = utilityScore - agent.getUtilityThreshold();
+        if (agent.getLowUtilityCount() > 0 || margin <= 0) {
+            return 1;
+        }
+        return Math.min(MAX_REEVALUATION_INTERVAL, 1 + (int) (margin / REEVALUATION_MARGIN_STEP));
+    }
+
+    /**
+     * Gets the number of agent evaluations performed so far.
+     */
+    public long getEvaluationCount() {
+        return evaluationCount;
+    }
+
     /**
      * Simulates a single time cycle.
+     * Dependency cleanup for services retired in this cycle is applied after every agent
+     * has been evaluated, so agents never observe a half-finished cycle.
      */
     private void simulateCycle() {
         // Step 1: Update service metrics (simulated workload)
-        for (Microservice service : services) {
-            if (!service.isRetired()) {
-                updateServiceMetrics(service);
+        long nowMillis = clock.currentTimeMillis();
+        ParallelRange.forEach(pool, services.size(), i -> {
+            Microservice service = services.get(i);
+            if (!service.isActive()) {
+                return;
             }
-        }
+            if (replay != null && replay.replays(i)) {
+                replay.apply(i, service, currentCycle);
+            } else {
+                updateServiceMetrics(service, serviceRandoms[i], nowMillis);
+            }
+        });
 
         // Step 2: Run retirement evaluation for each agent
-        for (MicroserviceRetirementAgent agent : agents) {
-            if (!agent.getMicroservice().isRetired()) {
-                RetirementEvent event = agent.evaluateRetirement();
-                if (event != null) {
-                    logger_evidence.recordEvent(event);
-                    
-                    // Record utility in learning engine
-                    learningEngine.recordUtility(agent.getMicroservice().getServiceId(), event.getUtilityScore());
-                    
-                    // Clean up dependencies if retired
-                    if ("RETIRE".equals(event.getDecision())) {
-                        dependencyModule.clearDependenciesForRetiredService(agent.getMicroservice().getServiceId());
-                    }
-                }
+        ParallelRange.forEach(pool, agents.size(), i -> {
+            MicroserviceRetirementAgent agent = agents.get(i);
+            cycleEvents[i] = agent.getMicroservice().isActive() ? agent.evaluateRetirement() : null;
+        });
+
+        // Step 3: Apply shared side effects in service order
+        for (int i = 0; i < cycleEvents.length; i++) {
+            RetirementEvent event = cycleEvents[i];
+            if (event == null) {
+                continue;
+            }
+            evaluationCount++;
+            cycleEvents[i] = null;
+            String serviceId = agents.get(i).getMicroservice().getServiceId();
+            logger_evidence.recordEvent(event);
+
+            // Record utility in learning engine
+            learningEngine.recordUtility(serviceId, event.getUtilityScore());
+
+            // Clean up dependencies if retired; the service itself keeps draining in the background
+            if ("RETIRE".equals(event.getDecision())) {
+                dependencyModule.clearDependenciesForRetiredService(serviceId);
+                trackDrain(event);
             }
         }
     }
 
+    /**
+     * Remembers a retirement that is still draining so the run can wait for it before reporting.
+     */
+    private void trackDrain(RetirementEvent event) {
+        if (event.isPending()) {
+            pendingDrains.add(event.whenDrained());
+        }
+    }
+
     /**
      * Simulates workload changes and metric updates for a service.
+     * Draws only from the service's own random stream so updates can run concurrently.
      */
-    private void updateServiceMetrics(Microservice service) {
+    private void updateServiceMetrics(Microservice service, SplittableRandom serviceRandom, long nowMillis) {
         // Simulate feature churn and workload decay
-        int age = (int)(java.time.temporal.ChronoUnit.SECONDS
-                       .between(service.getCreatedAt(), java.time.LocalDateTime.now()) / 60);
+        int age = (int)((nowMillis - service.getCreatedAtMillis()) / 60000); // Age in minutes
         
         // Request count decays with age
         int baseRequests = 800;
         double decayFactor = Math.pow(0.97, age / 100.0); // Decays over time
-        int requests = (int)(baseRequests * decayFactor * (0.5 + random.nextDouble()));
+        int requests = (int)(baseRequests * decayFactor * (0.5 + serviceRandom.nextDouble()));
         service.setRequestCount(requests);
 
         // Utilization correlates with requests
@@ -155,7 +428,7 @@ public class MicroserviceRetirementSimulation {
         service.setUtilizationRate(utilization);
 
         // SLA contribution can vary
-        double slaDrift = 0.1 * (random.nextDouble() - 0.5); // +/- 5%
+        double slaDrift = 0.1 * (serviceRandom.nextDouble() - 0.5); // +/- 5%
         service.setSlaContribution(Math.max(0, service.getSlaContribution() + slaDrift));
     }
 
@@ -164,14 +437,21 @@ public class MicroserviceRetirementSimulation {
      */
     private void finalizeSim() {
         logger.info("Simulation complete after {} cycles", totalCycles);
+        if (!pendingDrains.isEmpty()) {
+            logger.info("Waiting for {} retiring services to drain", pendingDrains.size());
+            CompletableFuture.allOf(pendingDrains.toArray(new CompletableFuture<?>[0])).join();
+            pendingDrains.clear();
+        }
+        if (pool != null) {
+            pool.shutdown();
+        }
         
         // Log summary
         logger.info(logger_evidence.generateSummaryReport());
         logger_evidence.logDetailedStatistics();
 
         // Export CSV
-        String csvFilename = "retirement_events_" + System.currentTimeMillis() + ".csv";
-        logger_evidence.exportToCSV(csvFilename);
+        String csvFilename = logger_evidence.exportToCSV();
         logger.info("Results exported to: {}", csvFilename);
     }
 
@@ -179,7 +459,15 @@ public class MicroserviceRetirementSimulation {
      * Gets the count of active services.
      */
     public int getActiveServiceCount() {
-        return (int) services.stream().filter(s -> !s.isRetired()).count();
+        return (int) services.stream().filter(Microservice::isActive).count();
+    }
+
+    /**
+     * Gets the count of services still draining; they are counted as neither active nor retired.
+     */
+    public int getRetiringServiceCount() {
+        return (int) services.stream()
+            .filter(service -> service.getLifecycleState() == Microservice.LifecycleState.RETIRING).count();
     }
 
     /**
@@ -189,6 +477,28 @@ public class MicroserviceRetirementSimulation {
         return (int) services.stream().filter(Microservice::isRetired).count();
     }
 
+    /**
+     * Streams evidence to rolling CSV files during the run instead of exporting it at the end.
+     * @see EvidenceLogger#enableStreamingExport(long, int, boolean)
+     */
+    public void enableStreamingExport(long maxFileBytes, int cyclesPerFile, boolean retainEventsInMemory) {
+        logger_evidence.enableStreamingExport(maxFileBytes, cyclesPerFile, retainEventsInMemory);
+    }
+
+    /**
+     * Gets the number of worker threads used per cycle.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Gets a read-only view of the simulated services, in creation order.
+     */
+    public List<Microservice> getServices() {
+        return Collections.unmodifiableList(services);
+    }
+
     /**
      * Gets simulation progress as percentage.
      */
@@ -203,6 +513,7 @@ public class MicroserviceRetirementSimulation {
         return new SimulationMetrics(
             services.size(),
             getActiveServiceCount(),
+            getRetiringServiceCount(),
             getRetiredServiceCount(),
             logger_evidence.getTotalCpuFreed(),
             logger_evidence.getDecisionCount("RETIRE"),
@@ -212,18 +523,22 @@ public class MicroserviceRetirementSimulation {
 
     /**
      * Inner class for simulation metrics.
+     * Active, retiring (draining) and retired services add up to the total.
      */
     public static class SimulationMetrics {
         public final int totalServices;
         public final int activeServices;
+        public final int retiringServices;
         public final int retiredServices;
         public final double cpuFreed;
         public final int totalRetirements;
         public final int totalRetentions;
 
-        SimulationMetrics(int total, int active, int retired, double cpu, int retirements, int retentions) {
+        SimulationMetrics(int total, int active, int retiring, int retired, double cpu, int retirements,
+                          int retentions) {
             this.totalServices = total;
             this.activeServices = active;
+            this.retiringServices = retiring;
             this.retiredServices = retired;
             this.cpuFreed = cpu;
             this.totalRetirements = retirements;
@@ -233,8 +548,9 @@ public class MicroserviceRetirementSimulation {
         @Override
         public String toString() {
             return String.format(
-                "Metrics{total:%d, active:%d, retired:%d, cpuFreed:%.2f, retirements:%d, retentions:%d}",
-                totalServices, activeServices, retiredServices, cpuFreed, totalRetirements, totalRetentions
+                "Metrics{total:%d, active:%d, retiring:%d, retired:%d, cpuFreed:%.2f, retirements:%d, retentions:%d}",
+                totalServices, activeServices, retiringServices, retiredServices, cpuFreed, totalRetirements,
+                totalRetentions
             );
         }
     }
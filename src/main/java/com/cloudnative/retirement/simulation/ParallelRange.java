@@ -0,0 +1,67 @@
+package com.cloudnative.retirement.simulation;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Splits an index range into chunks and runs them on a ForkJoinPool.
+ * Without a pool the range is walked on the calling thread, so serial and
+ * parallel simulation modes share a single code path.
+ */
+final class ParallelRange {
+    private static final int MIN_CHUNK_SIZE = 256;
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    private ParallelRange() {
+    }
+
+    /**
+     * Invokes the action for every index in [0, size).
+     * Blocks until all indices have been processed.
+     */
+    static void forEach(ForkJoinPool pool, int size, IntConsumer action) {
+        if (pool == null || size <= MIN_CHUNK_SIZE) {
+            for (int i = 0; i < size; i++) {
+                action.accept(i);
+            }
+            return;
+        }
+
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, size / (pool.getParallelism() * CHUNKS_PER_WORKER));
+        pool.invoke(new RangeTask(0, size, chunkSize, action));
+    }
+
+    /**
+     * Recursively halves the range until it fits in a single chunk.
+     */
+    private static final class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+        private final IntConsumer action;
+
+        RangeTask(int from, int to, int chunkSize, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                for (int i = from; i < to; i++) {
+                    action.accept(i);
+                }
+                return;
+            }
+
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask(from, mid, chunkSize, action),
+                      new RangeTask(mid, to, chunkSize, action));
+        }
+    }
+}
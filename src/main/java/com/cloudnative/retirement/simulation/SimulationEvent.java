@@ -0,0 +1,60 @@
+package com.cloudnative.retirement.simulation;
+
+/**
+ * Timed event for the discrete-event simulation mode.
+ * Events are ordered by cycle, then by type, then by scheduling order, so a run is deterministic.
+ */
+final class SimulationEvent implements Comparable<SimulationEvent> {
+
+    /**
+     * Event types, in the order they are processed within one cycle.
+     */
+    enum Type {
+        METRIC_CHANGE,  // External workload change; pulls the service's next evaluation forward
+        REEVALUATE,     // Agent evaluation is due
+        DRAIN_COMPLETE  // Retired service has drained; its dependency edges can be removed
+    }
+
+    final long cycle;
+    final Type type;
+    final int serviceIndex;
+    final int generation; // Evaluation generation; stale REEVALUATE events are dropped
+    final long sequence;
+    final int requestCount;
+    final double slaContribution;
+
+    SimulationEvent(long cycle, Type type, int serviceIndex, int generation, long sequence) {
+        this(cycle, type, serviceIndex, generation, sequence, 0, 0);
+    }
+
+    SimulationEvent(long cycle, Type type, int serviceIndex, int generation, long sequence,
+                    int requestCount, double slaContribution) {
+        this.cycle = cycle;
+        this.type = type;
+        this.serviceIndex = serviceIndex;
+        this.generation = generation;
+        this.sequence = sequence;
+        this.requestCount = requestCount;
+        this.slaContribution = slaContribution;
+    }
+
+    @Override
+    public int compareTo(SimulationEvent other) {
+        if (cycle != other.cycle) {
+            return Long.compare(cycle, other.cycle);
+        }
+        if (type != other.type) {
+            return type.compareTo(other.type);
+        }
+        return Long.compare(sequence, other.sequence);
+    }
+
+    @Override
+    public String toString() {
+        return "SimulationEvent{" +
+                "cycle=" + cycle +
+                ", type=" + type +
+                ", serviceIndex=" + serviceIndex +
+                '}';
+    }
+}
@@ -8,6 +8,10 @@ import com.cloudnative.retirement.modules.UtilityAssessmentModule;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.Assert.*;
 
 public class MicroserviceRetirementAgentTest {
@@ -85,7 +89,7 @@ public class MicroserviceRetirementAgentTest {
     }
 
     @Test
-    public void testSafeRetirement() {
+    public void testSafeRetirement() throws Exception {
         // No dependencies
         service.setRequestCount(10);
         service.setUtilizationRate(0.05);
@@ -96,6 +100,33 @@ public class MicroserviceRetirementAgentTest {
             agent.evaluateRetirement();
         }
 
+        RetirementEvent event = agent.getLastRetirementEvent();
+        assertEquals("RETIRE", event.getDecision());
+        event.whenDrained().get(5, TimeUnit.SECONDS);
         assertTrue(service.isRetired());
     }
+
+    @Test
+    public void testRetirementReturnsBeforeDrainCompletes() throws Exception {
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+        try {
+            RetirementDrainScheduler slowDrain = new RetirementDrainScheduler(timer, 500);
+            agent = new MicroserviceRetirementAgent(
+                service, utilityModule, learningEngine, dependencyModule, 0.3, 1, slowDrain);
+            service.setRequestCount(10);
+            service.setSlaContribution(0.1);
+
+            RetirementEvent event = agent.evaluateRetirement();
+
+            assertEquals("RETIRE", event.getDecision());
+            assertTrue(event.isPending());
+            assertEquals(Microservice.LifecycleState.RETIRING, service.getLifecycleState());
+            assertNull(agent.evaluateRetirement()); // Draining services are not re-evaluated
+
+            assertSame(event, event.whenDrained().get(5, TimeUnit.SECONDS));
+            assertTrue(service.isRetired());
+        } finally {
+            timer.shutdownNow();
+        }
+    }
 }
@@ -2,7 +2,14 @@ package com.cloudnative.retirement.aws;
 
 import com.cloudnative.retirement.model.RetirementEvent;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 
 import static org.junit.Assert.*;
 
@@ -11,6 +18,9 @@ import static org.junit.Assert.*;
  */
 public class AWSIntegrationTest {
     
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     private AWSServiceConfig config;
     private AWSIntegrationFactory factory;
     
@@ -64,6 +74,22 @@ public class AWSIntegrationTest {
         assertTrue(maxDeps > 0);
     }
     
+    @Test
+    public void testExplicitSinkIsUsedAndClosedWhenAwsDisabled() throws Exception {
+        Path dir = folder.getRoot().toPath();
+        EmfMetricsWriter writer = new EmfMetricsWriter(config, dir, "metrics", 0);
+        AWSIntegrationFactory local = new AWSIntegrationFactory(config, writer);
+
+        local.processRetirementEvent(new RetirementEvent("test-service", 0.5, 2, "RETIRE", 10.0, "Test reason"));
+        local.shutdown();
+
+        assertSame(writer, local.getMetricsSink());
+        // Closing flushed the buffered line
+        List<String> lines = Files.readAllLines(dir.resolve(writer.getFiles().get(0)), StandardCharsets.UTF_8);
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).contains("\"ServiceId\":\"test-service\""));
+    }
+
     @Test
     public void testFactoryShutdown() {
         // Should not throw exception
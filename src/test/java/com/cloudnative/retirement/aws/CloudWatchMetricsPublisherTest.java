@@ -0,0 +1,165 @@
+package com.cloudnative.retirement.aws;
+
+import org.junit.Test;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.cloudwatch.CloudWatchClient;
+import software.amazon.awssdk.services.cloudwatch.model.Dimension;
+import software.amazon.awssdk.services.cloudwatch.model.MetricDatum;
+import software.amazon.awssdk.services.cloudwatch.model.PutMetricDataRequest;
+import software.amazon.awssdk.services.cloudwatch.model.PutMetricDataResponse;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the background flushing of CloudWatchMetricsPublisher against an in-memory client.
+ */
+public class CloudWatchMetricsPublisherTest {
+
+    private final AWSServiceConfig config =
+        new AWSServiceConfig(Region.US_EAST_1, "retirement-decisions", "", "", true);
+
+    @Test
+    public void testSamplesAreAggregatedPerSeries() {
+        RecordingClient client = new RecordingClient(null);
+        CloudWatchMetricsPublisher publisher = new CloudWatchMetricsPublisher(config, client, 10_000, 60_000);
+
+        for (int i = 0; i < 1000; i++) {
+            publisher.publishUtilityScore("service-" + i, i / 1000.0);
+            publisher.publishRetirementDecision("service-" + i, i % 4 == 0, "Reason " + i);
+        }
+        publisher.close();
+
+        assertEquals(2000, publisher.getAggregatedCount());
+        // One utility series and one per decision, unless the run straddled a minute boundary
+        assertTrue(publisher.getPublishedCount() >= 3 && publisher.getPublishedCount() <= 6);
+        double retired = 0;
+        double decisions = 0;
+        for (MetricDatum datum : client.datums) {
+            assertNull(datum.value());
+            assertFalse(hasDimension(datum, "ServiceId"));
+            if (datum.metricName().equals("RetirementDecision")) {
+                retired += datum.statisticValues().sum();
+                decisions += datum.statisticValues().sampleCount();
+            }
+        }
+        assertEquals(250.0, retired, 0.0);
+        assertEquals(1000.0, decisions, 0.0);
+    }
+
+    @Test
+    public void testSampledServiceSeriesAreBoundedByApiLimit() {
+        AWSServiceConfig sampled =
+            new AWSServiceConfig(Region.US_EAST_1, "retirement-decisions", "", "", true, 1.0);
+        RecordingClient client = new RecordingClient(null);
+        CloudWatchMetricsPublisher publisher = new CloudWatchMetricsPublisher(sampled, client, 10_000, 60_000);
+
+        for (int i = 0; i < 2500; i++) {
+            publisher.publishUtilityScore("service-" + i, 0.5);
+        }
+        publisher.close();
+
+        int total = 0;
+        for (int size : client.batchSizes) {
+            assertTrue("Batch of " + size + " exceeds the PutMetricData limit", size <= 1000);
+            total += size;
+        }
+        int perService = 0;
+        for (MetricDatum datum : client.datums) {
+            if (hasDimension(datum, "ServiceId")) {
+                perService++;
+            }
+        }
+        assertEquals(total, publisher.getPublishedCount());
+        assertTrue(perService >= 2500);
+        assertEquals(0, publisher.getDroppedCount());
+    }
+
+    @Test
+    public void testPartialBatchIsSentAfterMaxLatency() throws InterruptedException {
+        RecordingClient client = new RecordingClient(null);
+        CloudWatchMetricsPublisher publisher = new CloudWatchMetricsPublisher(config, client, 100, 20);
+
+        publisher.publishCpuFreed("service-a", 10.0);
+        publisher.publishDependencyCount("service-a", 2);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (publisher.getPublishedCount() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, publisher.getPublishedCount());
+        publisher.close();
+    }
+
+    @Test
+    public void testFullQueueDropsInsteadOfBlocking() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingClient client = new RecordingClient(release);
+        CloudWatchMetricsPublisher publisher = new CloudWatchMetricsPublisher(config, client, 10, 1);
+
+        publisher.publishUtilityScore("service-a", 0.1);
+        assertTrue(client.entered.await(5, TimeUnit.SECONDS));
+
+        // The flusher is stuck in PutMetricData, so only the queue capacity is accepted
+        for (int i = 0; i < 25; i++) {
+            publisher.publishUtilityScore("service-b", 0.2);
+        }
+        assertEquals(10, publisher.getQueuedCount());
+        assertEquals(15, publisher.getDroppedCount());
+
+        release.countDown();
+        publisher.close();
+        assertEquals(11, publisher.getAggregatedCount());
+    }
+
+    private static boolean hasDimension(MetricDatum datum, String name) {
+        for (Dimension dimension : datum.dimensions()) {
+            if (dimension.name().equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Records sent datums and batch sizes; optionally blocks inside PutMetricData until released.
+     */
+    private static class RecordingClient implements CloudWatchClient {
+        final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        final List<MetricDatum> datums = new CopyOnWriteArrayList<>();
+        final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release;
+
+        RecordingClient(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public PutMetricDataResponse putMetricData(PutMetricDataRequest request) {
+            entered.countDown();
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            batchSizes.add(request.metricData().size());
+            datums.addAll(request.metricData());
+            return PutMetricDataResponse.builder().build();
+        }
+
+        @Override
+        public String serviceName() {
+            return "cloudwatch";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.cloudnative.retirement.aws;
+
+import com.cloudnative.retirement.model.RetirementEvent;
+import org.junit.Test;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the batched DynamoDB writes and the decision queries against an in-process fake table.
+ */
+public class DynamoDBDecisionStoreTest {
+
+    private static final LocalDateTime CYCLE_TIME = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private final AWSServiceConfig config =
+        new AWSServiceConfig(Region.US_EAST_1, "retirement-decisions", "", "", true);
+
+    private static List<RetirementEvent> cycle(int services) {
+        List<RetirementEvent> events = new ArrayList<>();
+        for (int i = 0; i < services; i++) {
+            events.add(new RetirementEvent("service-" + i, CYCLE_TIME, 0.5, i % 3, "RETAIN", 0.0, "Above threshold"));
+        }
+        return events;
+    }
+
+    @Test
+    public void testUnprocessedItemsAreResubmitted() {
+        FakeDynamoDbClient client = new FakeDynamoDbClient().leaveUnprocessed(200);
+        DynamoDBDecisionStore store = new DynamoDBDecisionStore(config, client, 4);
+
+        store.storeRetirementDecisions(cycle(1000));
+
+        assertEquals(1000, client.items.size());
+        assertEquals(1000, store.getWrittenCount());
+        assertEquals(0, store.getFailedCount());
+        assertTrue(store.getRetryCount() > 0);
+        assertEquals(DynamoDBDecisionStore.MAX_BATCH_ITEMS, client.maxBatchSize.get());
+        store.close();
+    }
+
+    @Test
+    public void testThrottledBatchesRetryWithinInFlightLimit() {
+        FakeDynamoDbClient client = new FakeDynamoDbClient().throttle(5).withLatency(5);
+        DynamoDBDecisionStore store = new DynamoDBDecisionStore(config, client, 3);
+
+        store.storeRetirementDecisions(cycle(300));
+
+        assertEquals(300, client.items.size());
+        assertEquals(0, store.getFailedCount());
+        assertEquals(5, store.getRetryCount());
+        assertTrue(client.maxConcurrentCalls.get() <= 3);
+        store.close();
+    }
+
+    @Test
+    public void testPartialBatchIsWrittenWithoutFlush() throws InterruptedException {
+        FakeDynamoDbClient client = new FakeDynamoDbClient();
+        DynamoDBDecisionStore store = new DynamoDBDecisionStore(config, client, 2, false, 50);
+
+        for (RetirementEvent event : cycle(3)) {
+            store.storeRetirementDecision(event);
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        while (client.items.size() < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(3, client.items.size());
+        assertEquals(1, client.batchWriteCalls.get());
+        store.close();
+    }
+
+    @Test
+    public void testCoalescingStoresOnlyTransitions() {
+        FakeDynamoDbClient client = new FakeDynamoDbClient();
+        DynamoDBDecisionStore store = new DynamoDBDecisionStore(config, client, 4, true);
+
+        for (int cycle = 0; cycle < 10; cycle++) {
+            List<RetirementEvent> events = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                events.add(new RetirementEvent("service-" + i, CYCLE_TIME.plusMinutes(cycle),
+                    0.51 + cycle * 0.001, 1, "RETAIN", 0.0, "Above threshold"));
+            }
+            store.storeRetirementDecisions(events);
+        }
+        assertEquals(200, client.putItemCalls.get());
+        assertEquals(200, store.getWrittenCount());
+        assertEquals(1800, store.getCoalescedCount());
+
+        store.storeRetirementDecision(
+            new RetirementEvent("service-7", CYCLE_TIME.plusMinutes(10), 0.1, 0, "RETIRE", 4.0, "Below threshold"));
+        store.flush();
+        assertEquals(201, client.putItemCalls.get());
+        assertEquals(201, store.getWrittenCount());
+        assertEquals("RETIRE",
+            client.items.get("service-7\u0000" + DynamoDBDecisionStore.LATEST_SORT_KEY).get("decision").s());
+        assertEquals(0, store.getFailedCount());
+        store.close();
+    }
+
+    @Test
+    public void testConcurrentWriterIsNotClobbered() {
+        FakeDynamoDbClient client = new FakeDynamoDbClient();
+        DynamoDBDecisionStore first = new DynamoDBDecisionStore(config, client, 1, true);
+        DynamoDBDecisionStore second = new DynamoDBDecisionStore(config, client, 1, true);
+
+        first.storeRetirementDecision(new RetirementEvent("svc", CYCLE_TIME, 0.5, 1, "RETAIN", 0.0, "Steady"));
+        first.flush();
+        // The second writer reads the stored state instead of writing a duplicate
+        second.storeRetirementDecision(new RetirementEvent("svc", CYCLE_TIME.plusMinutes(1), 0.5, 1, "RETAIN", 0.0, "Steady"));
+        second.flush();
+        assertEquals(1, second.getCoalescedCount());
+
+        first.storeRetirementDecision(new RetirementEvent("svc", CYCLE_TIME.plusMinutes(2), 0.2, 1, "RETAIN", 0.0, "Declining"));
+        first.flush();
+        // The second writer's cached version is stale, so its conditional put fails and it re-reads
+        second.storeRetirementDecision(new RetirementEvent("svc", CYCLE_TIME.plusMinutes(3), 0.1, 0, "RETIRE", 3.0, "Idle"));
+        second.flush();
+
+        assertEquals(1, second.getConflictCount());
+        assertEquals(0, second.getFailedCount());
+        Map<String, AttributeValue> latest = client.items.get("svc\u0000" + DynamoDBDecisionStore.LATEST_SORT_KEY);
+        assertEquals("RETIRE", latest.get("decision").s());
+        assertEquals("3", latest.get("version").n());
+        // LATEST plus three history items
+        assertEquals(4, client.items.size());
+        first.close();
+        second.close();
+    }
+
+    @Test
+    public void testOlderTransitionDoesNotOverwriteNewerOne() {
+        FakeDynamoDbClient client = new FakeDynamoDbClient().withLatency(2);
+        DynamoDBDecisionStore store = new DynamoDBDecisionStore(config, client, 4, true);
+        store.storeRetirementDecisions(cycle(50));
+
+        // Both transitions race on the writer threads; the older one arrives second
+        for (int i = 0; i < 50; i++) {
+            store.storeRetirementDecision(
+                new RetirementEvent("service-" + i, CYCLE_TIME.plusMinutes(2), 0.1, 0, "RETIRE", 2.0, "Idle"));
+            store.storeRetirementDecision(
+                new RetirementEvent("service-" + i, CYCLE_TIME.plusMinutes(1), 0.6, 0, "RETAIN", 0.0, "Recovered"));
+        }
+        store.flush();
+
+        for (int i = 0; i < 50; i++) {
+            Map<String, AttributeValue> latest =
+                client.items.get("service-" + i + "\u0000" + DynamoDBDecisionStore.LATEST_SORT_KEY);
+            assertEquals("RETIRE", latest.get("decision").s());
+            assertEquals(CYCLE_TIME.plusMinutes(2).toString(), latest.get("decidedAt").s());
+        }
+        // The cached states agree, so repeating the newest decision is coalesced
+        int puts = client.putItemCalls.get();
+        for (int i = 0; i < 50; i++) {
+            store.storeRetirementDecision(
+                new RetirementEvent("service-" + i, CYCLE_TIME.plusMinutes(3), 0.1, 0, "RETIRE", 2.0, "Idle"));
+        }
+        store.flush();
+        assertEquals(puts, client.putItemCalls.get());
+        assertEquals(50, store.getCoalescedCount());
+        assertEquals(0, store.getFailedCount());
+        store.close();
+    }
+
+    @Test
+    public void testQueryPagesLazilyThroughTimeRange() {
+        FakeDynamoDbClient client = new FakeDynamoDbClient().withPageSize(7);
+        DynamoDBDecisionStore store = new DynamoDBDecisionStore(config, client, 2);
+        List<RetirementEvent> events = new ArrayList<>();
+        for (int minute = 0; minute < 50; minute++) {
+            events.add(new RetirementEvent("svc", CYCLE_TIME.plusMinutes(minute), 0.5, 2, "RETAIN", 0.0, "Steady"));
+            events.add(new RetirementEvent("other", CYCLE_TIME.plusMinutes(minute), 0.5, 2, "RETAIN", 0.0, "Steady"));
+        }
+        store.storeRetirementDecisions(events);
+
+        List<RetirementEvent> range;
+        try (Stream<RetirementEvent> decisions =
+                 store.queryDecisions("svc", CYCLE_TIME.plusMinutes(10), CYCLE_TIME.plusMinutes(29), "decision")) {
+            range = decisions.collect(Collectors.toList());
+        }
+        assertEquals(20, range.size());
+        assertEquals(3, client.queryCalls.get());
+        assertEquals(CYCLE_TIME.plusMinutes(10), range.get(0).getTimestamp());
+        assertEquals(CYCLE_TIME.plusMinutes(29), range.get(19).getTimestamp());
+        assertEquals("RETAIN", range.get(0).getDecision());
+        assertNull(range.get(0).getReason()); // Not projected
+
+        try (Stream<RetirementEvent> decisions = store.queryDecisions("svc", null, null)) {
+            assertEquals("Steady", decisions.findFirst().get().getReason());
+        }
+        assertEquals(4, client.queryCalls.get());
+        store.close();
+    }
+
+    @Test
+    public void testCachedLookupsAreInvalidatedByWrites() {
+        FakeDynamoDbClient client = new FakeDynamoDbClient();
+        DynamoDBDecisionStore store = new DynamoDBDecisionStore(config, client, 2);
+        List<RetirementEvent> events = new ArrayList<>();
+        for (int minute = 0; minute < 5; minute++) {
+            events.add(new RetirementEvent("svc", CYCLE_TIME.plusMinutes(minute), 0.5, 2, "RETAIN", 0.0, "Steady"));
+        }
+        store.storeRetirementDecisions(events);
+
+        assertEquals(5, store.queryDecisionsForService("svc").size());
+        assertEquals(5, store.queryDecisionsForService("svc").size());
+        assertEquals(1, client.queryCalls.get());
+        assertEquals(1, store.getCacheHitCount());
+
+        store.storeRetirementDecision(new RetirementEvent("svc", CYCLE_TIME.plusMinutes(5), 0.1, 0, "RETIRE", 2.0, "Idle"));
+        store.flush();
+        List<RetirementEvent> decisions = store.queryDecisionsForService("svc");
+        assertEquals(6, decisions.size());
+        assertEquals("RETIRE", decisions.get(5).getDecision());
+        assertEquals(2, client.queryCalls.get());
+        store.close();
+    }
+
+    @Test
+    public void testCachedLookupsExpireForOtherWriters() throws InterruptedException {
+        FakeDynamoDbClient client = new FakeDynamoDbClient();
+        DynamoDBDecisionStore writer = new DynamoDBDecisionStore(config, client, 2);
+        DynamoDBDecisionStore reader = new DynamoDBDecisionStore(config, client, 2);
+        reader.setCacheTtlMillis(50);
+
+        writer.storeRetirementDecisions(cycle(2));
+        assertEquals(1, reader.queryDecisionsForService("service-1").size());
+
+        // The reader never sees this write, so only the TTL brings the entry up to date
+        writer.storeRetirementDecision(
+            new RetirementEvent("service-1", CYCLE_TIME.plusMinutes(1), 0.1, 0, "RETIRE", 2.0, "Idle"));
+        writer.flush();
+        assertEquals(1, reader.queryDecisionsForService("service-1").size());
+        Thread.sleep(100);
+        assertEquals(2, reader.queryDecisionsForService("service-1").size());
+        assertEquals(1, reader.getCacheHitCount());
+        writer.close();
+        reader.close();
+    }
+
+    @Test
+    public void testParallelScanExportsHistoryItems() {
+        FakeDynamoDbClient client = new FakeDynamoDbClient().withPageSize(16);
+        DynamoDBDecisionStore store = new DynamoDBDecisionStore(config, client, 4, true);
+        store.storeRetirementDecisions(cycle(300));
+
+        Queue<RetirementEvent> exported = new ConcurrentLinkedQueue<>();
+        assertEquals(300, store.scanDecisions(4, exported::add));
+        assertEquals(300, exported.size());
+        assertEquals(600, client.items.size()); // History plus LATEST items
+        assertTrue(client.scanCalls.get() >= 4);
+        store.close();
+    }
+
+    @Test
+    public void testDuplicateKeysInOneBatchKeepLatestDecision() {
+        FakeDynamoDbClient client = new FakeDynamoDbClient();
+        DynamoDBDecisionStore store = new DynamoDBDecisionStore(config, client, 1);
+
+        store.storeRetirementDecision(new RetirementEvent("svc", CYCLE_TIME, 0.5, 1, "RETAIN", 0.0, "First"));
+        store.storeRetirementDecision(new RetirementEvent("svc", CYCLE_TIME, 0.1, 0, "RETIRE", 5.0, "Second"));
+        store.flush();
+
+        assertEquals(1, client.items.size());
+        assertEquals("RETIRE", client.items.values().iterator().next().get("decision").s());
+        store.close();
+    }
+}
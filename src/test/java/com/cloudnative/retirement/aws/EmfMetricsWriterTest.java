@@ -0,0 +1,166 @@
+package com.cloudnative.retirement.aws;
+
+import com.cloudnative.retirement.model.RetirementEvent;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import software.amazon.awssdk.regions.Region;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Parses the EMF lines written by EmfMetricsWriter.
+ */
+public class EmfMetricsWriterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testEventIsWrittenAsOneEmfLine() throws IOException {
+        AWSServiceConfig config = new AWSServiceConfig(Region.US_EAST_1, "retirement-decisions", "", "", true);
+        Path dir = folder.getRoot().toPath();
+        EmfMetricsWriter writer = new EmfMetricsWriter(config, dir, "metrics", 0);
+
+        writer.publishRetirementEvent(
+            new RetirementEvent("legacy \"v1\"", 0.12, 0, "RETIRE", 7.5, "Low utility\nno dependents"));
+        writer.close();
+
+        List<JsonObject> lines = readLines(dir, writer.getFiles());
+        assertEquals(1, lines.size());
+        JsonObject line = lines.get(0);
+        assertEquals("legacy \"v1\"", line.get("ServiceId").getAsString());
+        assertEquals("RETIRED", line.get("Decision").getAsString());
+        assertEquals("Low utility\nno dependents", line.get("Reason").getAsString());
+        assertEquals(0.12, line.get("ServiceUtilityScore").getAsDouble(), 0.0);
+        assertEquals(1, line.get("RetirementDecision").getAsInt());
+        assertEquals(7.5, line.get("CPUFreed").getAsDouble(), 0.0);
+        assertEquals(0, line.get("DependencyCount").getAsInt());
+
+        JsonObject aws = line.getAsJsonObject("_aws");
+        assertTrue(aws.get("Timestamp").getAsLong() > 0);
+        JsonArray directives = aws.getAsJsonArray("CloudWatchMetrics");
+        assertEquals(2, directives.size());
+        for (int i = 0; i < directives.size(); i++) {
+            JsonObject directive = directives.get(i).getAsJsonObject();
+            assertEquals("MicroserviceRetirementSystem", directive.get("Namespace").getAsString());
+            // Not sampled, so only the fleet-wide dimension set
+            assertEquals(1, directive.getAsJsonArray("Dimensions").size());
+        }
+        JsonObject decision = directives.get(1).getAsJsonObject();
+        assertEquals("Decision", decision.getAsJsonArray("Dimensions").get(0).getAsJsonArray().get(0).getAsString());
+        assertEquals("RetirementDecision",
+            decision.getAsJsonArray("Metrics").get(0).getAsJsonObject().get("Name").getAsString());
+    }
+
+    @Test
+    public void testSampledServicesAddServiceDimensionAndFilesRoll() throws IOException {
+        AWSServiceConfig config =
+            new AWSServiceConfig(Region.US_EAST_1, "retirement-decisions", "", "", true, 1.0);
+        Path dir = folder.getRoot().toPath();
+        EmfMetricsWriter writer = new EmfMetricsWriter(config, dir, "metrics", 4096);
+
+        for (int i = 0; i < 100; i++) {
+            writer.publishUtilityScore("service-" + i, i / 100.0);
+        }
+        writer.close();
+
+        assertTrue(writer.getFiles().size() > 1);
+        List<JsonObject> lines = readLines(dir, writer.getFiles());
+        assertEquals(100, lines.size());
+        assertEquals(100, writer.getLineCount());
+        for (int i = 0; i < lines.size(); i++) {
+            JsonObject line = lines.get(i);
+            assertEquals("service-" + i, line.get("ServiceId").getAsString());
+            JsonArray dimensions = line.getAsJsonObject("_aws").getAsJsonArray("CloudWatchMetrics")
+                .get(0).getAsJsonObject().getAsJsonArray("Dimensions");
+            assertEquals(2, dimensions.size());
+            assertEquals("ServiceId", dimensions.get(1).getAsJsonArray().get(0).getAsString());
+        }
+    }
+
+    @Test
+    public void testEachLineReachesStdoutStreamInOneWrite() {
+        AWSServiceConfig config = new AWSServiceConfig(Region.US_EAST_1, "retirement-decisions", "", "", true);
+        List<String> writes = new ArrayList<>();
+        OutputStream stream = new OutputStream() {
+            @Override
+            public void write(int b) {
+                fail("EMF lines must not be written byte by byte");
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                writes.add(new String(b, off, len, StandardCharsets.UTF_8));
+            }
+        };
+        EmfMetricsWriter writer = new EmfMetricsWriter(config, stream, 1000);
+
+        writer.publishUtilityScore("svc-1", 0.5);
+        writer.publishRetirementEvent(new RetirementEvent("svc-ü", 0.1, 0, "RETIRE", 2.0, "Geringe Auslastung – idle"));
+        writer.close();
+
+        assertEquals(2, writes.size());
+        for (String write : writes) {
+            assertTrue(write.endsWith("}\n"));
+        }
+        JsonObject event = JsonParser.parseString(writes.get(1)).getAsJsonObject();
+        assertEquals("svc-ü", event.get("ServiceId").getAsString());
+        assertEquals("Geringe Auslastung – idle", event.get("Reason").getAsString());
+    }
+
+    @Test
+    public void testFileLinesAreFlushedWithinInterval() throws Exception {
+        AWSServiceConfig config = new AWSServiceConfig(Region.US_EAST_1, "retirement-decisions", "", "", true);
+        Path dir = folder.getRoot().toPath();
+        EmfMetricsWriter writer = new EmfMetricsWriter(config, dir, "metrics", 0, 20);
+
+        writer.publishUtilityScore("svc-1", 0.5);
+        Path file = dir.resolve(writer.getFiles().get(0));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (Files.size(file) == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, readLines(dir, writer.getFiles()).size());
+        writer.close();
+    }
+
+    @Test
+    public void testRestartContinuesAfterExistingParts() throws IOException {
+        AWSServiceConfig config = new AWSServiceConfig(Region.US_EAST_1, "retirement-decisions", "", "", true);
+        Path dir = folder.getRoot().toPath();
+        EmfMetricsWriter first = new EmfMetricsWriter(config, dir, "metrics", 0);
+        first.publishUtilityScore("svc-1", 0.5);
+        first.close();
+
+        EmfMetricsWriter second = new EmfMetricsWriter(config, dir, "metrics", 0);
+        second.publishUtilityScore("svc-2", 0.25);
+        second.close();
+
+        assertEquals("metrics_part0001.jsonl", first.getFiles().get(0));
+        assertEquals("metrics_part0002.jsonl", second.getFiles().get(0));
+        assertEquals("svc-1", readLines(dir, first.getFiles()).get(0).get("ServiceId").getAsString());
+        assertEquals("svc-2", readLines(dir, second.getFiles()).get(0).get("ServiceId").getAsString());
+    }
+
+    private static List<JsonObject> readLines(Path dir, List<String> files) throws IOException {
+        List<JsonObject> lines = new ArrayList<>();
+        for (String file : files) {
+            for (String line : Files.readAllLines(dir.resolve(file), StandardCharsets.UTF_8)) {
+                lines.add(JsonParser.parseString(line).getAsJsonObject());
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,293 @@
+package com.cloudnative.retirement.aws;
+
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process stand-in for the decision table, keyed by serviceId and timestamp.
+ * Evaluates the store's conditional puts and pages queries and scans. Can leave items unprocessed, throttle calls and add latency to exercise the store's retries
+ * and concurrency limits.
+ */
+class FakeDynamoDbClient implements DynamoDbClient {
+    final ConcurrentSkipListMap<String, Map<String, AttributeValue>> items = new ConcurrentSkipListMap<>();
+    final AtomicInteger batchWriteCalls = new AtomicInteger();
+    final AtomicInteger maxBatchSize = new AtomicInteger();
+    final AtomicInteger maxConcurrentCalls = new AtomicInteger();
+    final AtomicInteger putItemCalls = new AtomicInteger();
+    final AtomicInteger getItemCalls = new AtomicInteger();
+    final AtomicInteger queryCalls = new AtomicInteger();
+    final AtomicInteger scanCalls = new AtomicInteger();
+
+    private final AtomicInteger concurrentCalls = new AtomicInteger();
+    private final AtomicInteger unprocessedBudget = new AtomicInteger();
+    private final Set<String> bounced = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger throttleBudget = new AtomicInteger();
+    private volatile long latencyMillis;
+    private volatile int pageSize = 100;
+
+    /**
+     * Leaves up to this many items in total unprocessed, a few per call and each item at most once.
+     */
+    FakeDynamoDbClient leaveUnprocessed(int count) {
+        unprocessedBudget.set(count);
+        return this;
+    }
+
+    /**
+     * Rejects this many calls with a throughput-exceeded error.
+     */
+    FakeDynamoDbClient throttle(int calls) {
+        throttleBudget.set(calls);
+        return this;
+    }
+
+    /**
+     * Sets how many items a query or scan page holds.
+     */
+    FakeDynamoDbClient withPageSize(int items) {
+        pageSize = items;
+        return this;
+    }
+
+    FakeDynamoDbClient withLatency(long millis) {
+        latencyMillis = millis;
+        return this;
+    }
+
+    static String key(Map<String, AttributeValue> item) {
+        return item.get("serviceId").s() + '\u0000' + item.get("timestamp").s();
+    }
+
+    @Override
+    public BatchWriteItemResponse batchWriteItem(BatchWriteItemRequest request) {
+        int concurrent = concurrentCalls.incrementAndGet();
+        maxConcurrentCalls.accumulateAndGet(concurrent, Math::max);
+        try {
+            batchWriteCalls.incrementAndGet();
+            pause();
+            if (throttleBudget.getAndDecrement() > 0) {
+                throw ProvisionedThroughputExceededException.builder()
+                    .awsErrorDetails(AwsErrorDetails.builder().errorCode("ProvisionedThroughputExceededException").build())
+                    .statusCode(400)
+                    .build();
+            }
+
+            String table = request.requestItems().keySet().iterator().next();
+            List<WriteRequest> writes = request.requestItems().get(table);
+            if (writes.size() > DynamoDBDecisionStore.MAX_BATCH_ITEMS) {
+                throw DynamoDbException.builder().message("Too many items: " + writes.size()).statusCode(400).build();
+            }
+            maxBatchSize.accumulateAndGet(writes.size(), Math::max);
+            Set<String> keys = new HashSet<>();
+            for (WriteRequest write : writes) {
+                if (!keys.add(key(write.putRequest().item()))) {
+                    throw DynamoDbException.builder().message("Duplicate key in batch").statusCode(400).build();
+                }
+            }
+
+            List<WriteRequest> unprocessed = new ArrayList<>();
+            for (WriteRequest write : writes) {
+                String key = key(write.putRequest().item());
+                if (unprocessed.size() < 3 && !bounced.contains(key) && unprocessedBudget.getAndDecrement() > 0) {
+                    bounced.add(key);
+                    unprocessed.add(write);
+                } else {
+                    Map<String, AttributeValue> item = write.putRequest().item();
+                    synchronized (items) {
+                        items.put(key(item), item);
+                    }
+                }
+            }
+            return BatchWriteItemResponse.builder()
+                .unprocessedItems(unprocessed.isEmpty()
+                    ? Collections.emptyMap() : Collections.singletonMap(table, unprocessed))
+                .build();
+        } finally {
+            concurrentCalls.decrementAndGet();
+        }
+    }
+
+    /**
+     * Supports the two conditions the store uses: attribute_not_exists on the key and an
+     * equality check on one attribute.
+     */
+    @Override
+    public PutItemResponse putItem(PutItemRequest request) {
+        pause();
+        Map<String, AttributeValue> item = request.item();
+        String key = key(item);
+        synchronized (items) {
+            Map<String, AttributeValue> current = items.get(key);
+            String condition = request.conditionExpression();
+            boolean passes;
+            if (condition == null) {
+                passes = true;
+            } else if (condition.startsWith("attribute_not_exists(")) {
+                passes = current == null;
+            } else {
+                // Comparisons joined by AND: "#name = :value" or "#name < :value" on string attributes
+                passes = current != null;
+                for (String clause : condition.split(" AND ")) {
+                    String[] parts = clause.split(" ");
+                    AttributeValue stored = current == null ? null
+                        : current.get(request.expressionAttributeNames().get(parts[0]));
+                    AttributeValue expected = request.expressionAttributeValues().get(parts[2]);
+                    if (stored == null) {
+                        passes = false;
+                    } else if (parts[1].equals("<")) {
+                        passes &= stored.s().compareTo(expected.s()) < 0;
+                    } else {
+                        passes &= expected.equals(stored);
+                    }
+                }
+            }
+            if (!passes) {
+                throw ConditionalCheckFailedException.builder().message("The conditional request failed")
+                    .statusCode(400).build();
+            }
+            putItemCalls.incrementAndGet();
+            items.put(key, item);
+        }
+        return PutItemResponse.builder().build();
+    }
+
+    @Override
+    public GetItemResponse getItem(GetItemRequest request) {
+        pause();
+        getItemCalls.incrementAndGet();
+        Map<String, AttributeValue> item = items.get(key(request.key()));
+        return item == null ? GetItemResponse.builder().build() : GetItemResponse.builder().item(item).build();
+    }
+
+    /**
+     * Supports the store's key condition: a service id and an inclusive timestamp range.
+     */
+    @Override
+    public QueryResponse query(QueryRequest request) {
+        pause();
+        queryCalls.incrementAndGet();
+        Map<String, AttributeValue> values = request.expressionAttributeValues();
+        String serviceId = values.get(":serviceId").s();
+        String from = serviceId + '\u0000' + values.get(":from").s();
+        String to = serviceId + '\u0000' + values.get(":to").s();
+        String start = request.hasExclusiveStartKey() ? key(request.exclusiveStartKey()) : null;
+
+        List<Map<String, AttributeValue>> page = new ArrayList<>();
+        String last = null;
+        boolean more = false;
+        for (Map.Entry<String, Map<String, AttributeValue>> entry
+                : items.subMap(from, true, to, true).entrySet()) {
+            if (start != null && entry.getKey().compareTo(start) <= 0) {
+                continue;
+            }
+            if (page.size() == pageSize) {
+                more = true;
+                break;
+            }
+            page.add(project(entry.getValue(), request.projectionExpression(), request.expressionAttributeNames()));
+            last = entry.getKey();
+        }
+        QueryResponse.Builder response = QueryResponse.builder().items(page).count(page.size());
+        if (more) {
+            response.lastEvaluatedKey(keyOf(items.get(last)));
+        }
+        return response.build();
+    }
+
+    /**
+     * Splits items into segments by key hash and pages through each segment in key order.
+     */
+    @Override
+    public ScanResponse scan(ScanRequest request) {
+        pause();
+        scanCalls.incrementAndGet();
+        String start = request.hasExclusiveStartKey() ? key(request.exclusiveStartKey()) : null;
+        List<Map<String, AttributeValue>> page = new ArrayList<>();
+        String last = null;
+        boolean more = false;
+        for (Map.Entry<String, Map<String, AttributeValue>> entry : items.entrySet()) {
+            if (Math.floorMod(entry.getKey().hashCode(), request.totalSegments()) != request.segment()
+                    || (start != null && entry.getKey().compareTo(start) <= 0)) {
+                continue;
+            }
+            if (page.size() == pageSize) {
+                more = true;
+                break;
+            }
+            page.add(project(entry.getValue(), request.projectionExpression(), request.expressionAttributeNames()));
+            last = entry.getKey();
+        }
+        ScanResponse.Builder response = ScanResponse.builder().items(page).count(page.size());
+        if (more) {
+            response.lastEvaluatedKey(keyOf(items.get(last)));
+        }
+        return response.build();
+    }
+
+    private static Map<String, AttributeValue> keyOf(Map<String, AttributeValue> item) {
+        Map<String, AttributeValue> key = new HashMap<>();
+        key.put("serviceId", item.get("serviceId"));
+        key.put("timestamp", item.get("timestamp"));
+        return key;
+    }
+
+    private static Map<String, AttributeValue> project(Map<String, AttributeValue> item, String projection,
+                                                       Map<String, String> names) {
+        if (projection == null) {
+            return item;
+        }
+        Map<String, AttributeValue> projected = new HashMap<>();
+        for (String placeholder : projection.split(", ")) {
+            String name = names.getOrDefault(placeholder, placeholder);
+            if (item.containsKey(name)) {
+                projected.put(name, item.get(name));
+            }
+        }
+        return projected;
+    }
+
+    private void pause() {
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public String serviceName() {
+        return "dynamodb";
+    }
+
+    @Override
+    public void close() {
+    }
+}
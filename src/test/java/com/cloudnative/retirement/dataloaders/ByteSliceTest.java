@@ -0,0 +1,35 @@
+package com.cloudnative.retirement.dataloaders;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class ByteSliceTest {
+
+    @Test
+    public void testParseDoubleAgreesWithDoubleParseDouble() {
+        String[] fields = {
+            "0.75", "-12.5", "+3", ".5", "5.", "1e3", "2.5E-4", "-1.5e+10", "123456789012345678901234",
+            "0.12345678901234567890", "1.5f", "2d", "NaN", "-Infinity", "1.0 ",
+            "", "-", ".", "e5", "1e", "1e+", "1.2.3", "12abc", "abc", "N/A", "Inf", "NaNd", "--1", "1 2", "0x1p3"
+        };
+        ByteSlice slice = new ByteSlice();
+        for (String field : fields) {
+            byte[] bytes = field.getBytes(StandardCharsets.UTF_8);
+            double parsed = slice.set(ByteBuffer.wrap(bytes), 0, bytes.length).parseDouble();
+            Double expected;
+            try {
+                expected = field.startsWith("0x") ? null : Double.parseDouble(field);
+            } catch (NumberFormatException e) {
+                expected = null;
+            }
+            assertEquals(field, expected != null, slice.isValid());
+            if (expected != null) {
+                assertEquals(field, expected, parsed, 0.0);
+            }
+        }
+    }
+}
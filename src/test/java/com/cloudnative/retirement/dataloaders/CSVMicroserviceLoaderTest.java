@@ -0,0 +1,232 @@
+package com.cloudnative.retirement.dataloaders;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class CSVMicroserviceLoaderTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testStreamingFormsMatchLoadFromCSV() throws Exception {
+        String filename = tempFolder.newFile("services.csv").getPath();
+        CSVMicroserviceLoader.createSampleCSV(filename);
+
+        List<ServiceMetrics> loaded = CSVMicroserviceLoader.loadFromCSV(filename);
+        assertEquals(12, loaded.size());
+
+        List<ServiceMetrics> streamed;
+        try (Stream<ServiceMetrics> stream = CSVMicroserviceLoader.streamFromCSV(filename)) {
+            streamed = stream.collect(Collectors.toList());
+        }
+        assertSameRows(loaded, streamed);
+
+        List<ServiceMetrics> pulled = new ArrayList<>();
+        try (ServiceMetricsReader reader = CSVMicroserviceLoader.openCSV(filename)) {
+            while (reader.hasNext()) {
+                pulled.add(reader.next());
+            }
+            assertEquals(12, reader.getLineCount());
+            assertEquals(0, reader.getErrorCount());
+        }
+        assertSameRows(loaded, pulled);
+
+        List<ServiceMetrics> sunk = new ArrayList<>();
+        assertEquals(12, CSVMicroserviceLoader.forEachFromCSV(filename, sunk::add));
+        assertSameRows(loaded, sunk);
+    }
+
+    @Test
+    public void testParallelMappedLoadMatchesSequentialLoad() throws Exception {
+        File file = tempFolder.newFile("trace.csv");
+        Random random = new Random(17);
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            writer.print("service_id,request_count,sla_score,dependents\n");
+            for (int i = 0; i < 120_000; i++) {
+                switch (random.nextInt(8)) {
+                    case 0:
+                        writer.print("job-" + i + ", " + random.nextInt(40) + " ," + random.nextDouble() * 8
+                                     + "," + random.nextDouble() * 120 + ",m" + i + "\n");
+                        break;
+                    case 1:
+                        writer.print(i % 2 == 0 ? "# comment line " + i + "\n" : "  \n");
+                        break;
+                    case 2:
+                        writer.print("svc-" + i + "," + random.nextInt(5000) + "," + (i % 3 == 0 ? "1e-3" : "0.9")
+                                     + "," + random.nextInt(20) + ",,\r\n");
+                        break;
+                    case 3:
+                        writer.print("bad-" + i + ",12x,0.5,1\n");
+                        break;
+                    default:
+                        writer.print("svc-" + i + "," + random.nextInt(5000) + "," + random.nextDouble()
+                                     + "," + (random.nextInt(20) - 2) + "\n");
+                }
+            }
+        }
+
+        List<ServiceMetrics> sequential = CSVMicroserviceLoader.loadFromCSV(file.getPath());
+        List<ServiceMetrics> parallel = CSVMicroserviceLoader.loadFromCSVParallel(file.getPath(), 4);
+
+        assertTrue(file.length() > 2 << 20); // Spans several 1 MB chunks
+        assertSameRows(sequential, parallel);
+    }
+
+    @Test
+    public void testLoneCarriageReturnEndsLine() throws Exception {
+        File file = tempFolder.newFile("mac.csv");
+        String[] terminators = {"\r", "\n", "\r\n", "\r\r"}; // The last adds a blank line
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            writer.print("service_id,request_count,sla_score,dependents\r");
+            for (int i = 0; i < 120_000; i++) {
+                writer.print("svc-" + i + "," + i + ",0.95," + (i % 7) + terminators[i % terminators.length]);
+            }
+        }
+
+        List<ServiceMetrics> sequential = CSVMicroserviceLoader.loadFromCSV(file.getPath());
+        assertEquals(120_000, sequential.size());
+        assertEquals("svc-119999", sequential.get(119_999).getServiceId());
+        assertTrue(file.length() > 2 << 20); // Chunk boundaries fall inside \r\n pairs too
+        assertSameRows(sequential, CSVMicroserviceLoader.loadFromCSVParallel(file.getPath(), 4));
+    }
+
+    @Test
+    public void testDetectsGoogleTaskLayoutOnceAndSkipsComments() throws Exception {
+        File file = tempFolder.newFile("google.csv");
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            writer.print("# Google cluster trace sample\n");
+            writer.print("\n");
+            writer.print("job_id,task_index,cpu_count,memory_gb,machine_id\n");
+            writer.print("job-1,0,0.5,40,m1\n");
+            writer.print("# mid-file comment\n");
+            writer.print("job-1,1,1.25,250,m2\n");
+            writer.print("svc-9,100,0.9,2\n"); // Service layout row in a Google file
+        }
+
+        try (ServiceMetricsReader reader = CSVMicroserviceLoader.openCSV(file.getPath())) {
+            List<ServiceMetrics> rows = new ArrayList<>();
+            reader.forEachRemaining(rows::add);
+
+            assertEquals(CsvFormat.GOOGLE_TASKS, reader.getFormat());
+            assertEquals(2, rows.size());
+            assertEquals("job-1-0", rows.get(0).getServiceId());
+            assertEquals(500, rows.get(0).getRequestCount());
+            assertEquals(0.4, rows.get(0).getSlaScore(), 1e-9);
+            assertEquals(0, rows.get(0).getDependentCount()); // The task table has no dependency column
+            assertEquals(1.0, rows.get(1).getSlaScore(), 0.0);
+            assertEquals(1, reader.getErrorCount());
+            assertEquals(1, reader.getSkippedCount());
+        }
+        assertSameRows(CSVMicroserviceLoader.loadFromCSV(file.getPath()),
+                       CSVMicroserviceLoader.loadFromCSVParallel(file.getPath(), 2));
+    }
+
+    @Test
+    public void testHeaderlessFileStartsWithData() throws Exception {
+        File file = tempFolder.newFile("headerless.csv");
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            writer.print("# exported without a header\n");
+            writer.print("svc-1,850,0.99,5\n");
+            writer.print("svc-2,150,0.70,0\n");
+        }
+
+        List<ServiceMetrics> loaded = CSVMicroserviceLoader.loadFromCSV(file.getPath());
+        assertEquals(2, loaded.size());
+        assertEquals("svc-1", loaded.get(0).getServiceId());
+        assertSameRows(loaded, CSVMicroserviceLoader.loadFromCSVParallel(file.getPath(), 2));
+    }
+
+    @Test
+    public void testCachedLoadUsesSnapshotUntilSourceChanges() throws Exception {
+        File file = tempFolder.newFile("cached.csv");
+        CSVMicroserviceLoader.createSampleCSV(file.getPath());
+        List<ServiceMetrics> parsed = CSVMicroserviceLoader.loadFromCSV(file.getPath());
+
+        assertSameRows(parsed, CSVMicroserviceLoader.loadFromCSVCached(file.getPath()));
+        assertTrue(DatasetSnapshot.snapshotPath(file.toPath()).toFile().exists());
+        assertSameRows(parsed, DatasetSnapshot.read(file.toPath()));
+        assertSameRows(parsed, CSVMicroserviceLoader.loadFromCSVCached(file.getPath()));
+
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file, true))) {
+            writer.println("ünïcode-service,7,0.25,0");
+        }
+        assertNull(DatasetSnapshot.read(file.toPath()));
+        List<ServiceMetrics> reloaded = CSVMicroserviceLoader.loadFromCSVCached(file.getPath());
+        assertEquals(13, reloaded.size());
+        assertSameRows(reloaded, DatasetSnapshot.read(file.toPath()));
+    }
+
+    @Test
+    public void testCachedLoadKeepsTraceTimestamps() throws Exception {
+        File file = tempFolder.newFile("timestamped.csv");
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            writer.print("timestamp,service_id,request_count,sla_score,dependents\n");
+            writer.print("1767268800000,svc-1,850,0.99,5\n");
+            writer.print("1767268860000,svc-2,150,0.70,0\n");
+        }
+        List<ServiceMetrics> parsed = CSVMicroserviceLoader.loadFromCSV(file.getPath());
+
+        assertSameRows(parsed, CSVMicroserviceLoader.loadFromCSVCached(file.getPath()));
+        List<ServiceMetrics> cached = CSVMicroserviceLoader.loadFromCSVCached(file.getPath());
+        assertSameRows(parsed, cached);
+        assertEquals(1767268800000L, cached.get(0).getTimestamp());
+        assertEquals(1767268860000L, cached.get(1).getTimestamp());
+    }
+
+    @Test
+    public void testSnapshotRejectsStaleKeyAndCorruptIdOffsets() throws Exception {
+        File file = tempFolder.newFile("corrupt.csv");
+        CSVMicroserviceLoader.createSampleCSV(file.getPath());
+        List<ServiceMetrics> parsed = CSVMicroserviceLoader.loadFromCSV(file.getPath());
+        long size = file.length();
+        long modified = Files.getLastModifiedTime(file.toPath()).toMillis();
+
+        // Keyed by the file as it was before a change made during the parse
+        DatasetSnapshot.write(file.toPath(), size - 1, modified, parsed);
+        assertNull(DatasetSnapshot.read(file.toPath()));
+
+        DatasetSnapshot.write(file.toPath(), size, modified, parsed);
+        assertSameRows(parsed, DatasetSnapshot.read(file.toPath()));
+        try (RandomAccessFile snapshot = new RandomAccessFile(DatasetSnapshot.snapshotPath(file.toPath()).toFile(), "rw")) {
+            snapshot.seek(12);
+            int idPoolBytes = Integer.reverseBytes(snapshot.readInt());
+            snapshot.seek(snapshot.length() - idPoolBytes - 4); // Last id end offset
+            snapshot.writeInt(Integer.reverseBytes(idPoolBytes + 1));
+        }
+        assertNull(DatasetSnapshot.read(file.toPath()));
+    }
+
+    @Test
+    public void testMissingFileStreamsNothing() throws Exception {
+        String missing = tempFolder.getRoot().getPath() + "/missing.csv";
+        try (Stream<ServiceMetrics> stream = CSVMicroserviceLoader.streamFromCSV(missing)) {
+            assertEquals(0, stream.count());
+        }
+        assertTrue(CSVMicroserviceLoader.loadFromCSV(missing).isEmpty());
+    }
+
+    static void assertSameRows(List<ServiceMetrics> expected, List<ServiceMetrics> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getServiceId(), actual.get(i).getServiceId());
+            assertEquals(expected.get(i).getRequestCount(), actual.get(i).getRequestCount());
+            assertEquals(expected.get(i).getSlaScore(), actual.get(i).getSlaScore(), 0.0);
+            assertEquals(expected.get(i).getDependentCount(), actual.get(i).getDependentCount());
+        }
+    }
+}
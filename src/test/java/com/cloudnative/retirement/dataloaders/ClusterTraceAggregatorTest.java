@@ -0,0 +1,90 @@
+package com.cloudnative.retirement.dataloaders;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.*;
+
+public class ClusterTraceAggregatorTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testAggregatesCallGraphShards() throws Exception {
+        File dir = tempFolder.newFolder("trace");
+        for (int shard = 0; shard < 6; shard++) {
+            try (PrintWriter writer = gzipWriter(new File(dir, "MSCallGraph_" + shard + ".csv.gz"))) {
+                writer.print("traceid,timestamp,rpcid,um,rpctype,dm,interface,rt\n");
+                for (int i = 0; i < 1000; i++) {
+                    String upstream = i % 2 == 0 ? "gateway" : "frontend-" + shard;
+                    int rt = i % 10 == 0 ? 900 : 20;
+                    writer.print("t" + i + "," + i + ",0.1," + upstream + ",rpc,orders,/get," + rt + "\n");
+                }
+                writer.print("# trailing comment\n");
+                writer.print("broken-row\n");
+            }
+        }
+        try (PrintWriter writer = new PrintWriter(new File(dir, "extra.csv"), "UTF-8")) {
+            writer.print("traceid,timestamp,rpcid,um,rpctype,dm,interface,rt\n");
+            writer.print("t0,0,0.1,orders,db,orders-db,/q,5\n");
+            writer.print("t1,1,0.1,orders,db,orders-db,/q,n/a\n"); // Unparseable latency misses the SLO
+        }
+        new File(dir, "README.txt").createNewFile();
+
+        ClusterTraceAggregator aggregator = new ClusterTraceAggregator(TraceSchema.ALIBABA_MS_CALL_GRAPH, 3);
+        List<ServiceMetrics> services = aggregator.aggregateDirectory(dir.toPath());
+
+        assertEquals(2, services.size());
+        ServiceMetrics orders = services.get(0);
+        assertEquals("orders", orders.getServiceId());
+        assertEquals(6000, orders.getRequestCount());
+        assertEquals(0.9, orders.getSlaScore(), 1e-9);
+        assertEquals(7, orders.getDependentCount()); // gateway + six frontends
+        assertEquals("orders-db", services.get(1).getServiceId());
+        assertEquals(1, services.get(1).getDependentCount());
+        assertEquals(0.5, services.get(1).getSlaScore(), 1e-9);
+        assertEquals(6002, aggregator.getSampleCount());
+        assertEquals(6, aggregator.getErrorCount());
+        assertEquals(1, aggregator.getInvalidLatencyCount());
+
+        List<ServiceMetrics> sequential = new ClusterTraceAggregator(TraceSchema.ALIBABA_MS_CALL_GRAPH, 1)
+            .aggregateDirectory(dir.toPath());
+        CSVMicroserviceLoaderTest.assertSameRows(sequential, services);
+    }
+
+    @Test
+    public void testFailureStatusesLowerSla() throws Exception {
+        File shard = tempFolder.newFile("batch_instance.csv.gz");
+        try (PrintWriter writer = gzipWriter(shard)) {
+            writer.print("inst-1,task-1,job-7,1,Terminated,0,10,m1,1,1,50,80,0.2,0.3\n");
+            writer.print("inst-2,task-1,job-7,1,Failed,0,10,m1,1,1,50,80,0.2,0.3\n");
+            writer.print("inst-3,task-1,job-7,1,Terminated,0,10,m1,1,1,50,80,0.2,0.3\n");
+            writer.print("inst-4,task-1,job-7,1,Terminated,0,10,m1,1,1,50,80,0.2,0.3\n");
+        }
+
+        List<ServiceMetrics> services = new ClusterTraceAggregator(TraceSchema.ALIBABA_BATCH_INSTANCE, 2)
+            .aggregate(Collections.singletonList(shard.toPath()));
+
+        assertEquals(1, services.size());
+        assertEquals("job-7", services.get(0).getServiceId());
+        assertEquals(4, services.get(0).getRequestCount());
+        assertEquals(0.75, services.get(0).getSlaScore(), 1e-9);
+        assertEquals(0, services.get(0).getDependentCount());
+    }
+
+    private static PrintWriter gzipWriter(File file) throws Exception {
+        return new PrintWriter(new OutputStreamWriter(
+            new GZIPOutputStream(new FileOutputStream(file)), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,114 @@
+package com.cloudnative.retirement.dataloaders;
+
+import com.cloudnative.retirement.model.Microservice;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.*;
+
+public class LiveMetricsTailerTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testDecodesOnlyAppendedCompleteLines() throws Exception {
+        File file = new File(tempFolder.getRoot(), "live.csv");
+        List<ServiceMetrics> received = new ArrayList<>();
+        try (LiveMetricsTailer tailer = new LiveMetricsTailer(file.toPath(), received::addAll)) {
+            assertEquals(0, tailer.poll()); // Not created yet
+
+            append(file, "# exporter started\nservice_id,request_count,sla_score,dependents\nsvc-a,10,0.9,1\nsvc-b,2");
+            assertEquals(1, tailer.poll());
+            assertEquals(CsvFormat.SERVICE_METRICS, tailer.getFormat());
+            assertEquals("svc-a", received.get(0).getServiceId());
+
+            append(file, "0,0.5,0\r\nsvc-c,x,0.5,0\n");
+            assertEquals(1, tailer.poll());
+            assertEquals("svc-b", received.get(1).getServiceId());
+            assertEquals(20, received.get(1).getRequestCount());
+            assertEquals(1, tailer.getErrorCount());
+            assertEquals(file.length(), tailer.getPosition());
+            assertEquals(0, tailer.poll());
+
+            // Rotated to a shorter file: start over and detect the layout again
+            try (FileOutputStream out = new FileOutputStream(file)) {
+                out.write("svc-d,5,0.4,0\n".getBytes(StandardCharsets.UTF_8));
+            }
+            assertEquals(1, tailer.poll());
+            assertEquals("svc-d", received.get(2).getServiceId());
+        }
+    }
+
+    @Test
+    public void testLargeBacklogIsDeliveredPerReadBuffer() throws Exception {
+        File file = new File(tempFolder.getRoot(), "backlog.csv");
+        StringBuilder lines = new StringBuilder("service_id,request_count,sla_score,dependents\n");
+        for (int i = 0; i < 100_000; i++) {
+            lines.append("svc-").append(i).append(",100,0.9,1\n"); // About 2 MB in all
+        }
+        char[] longId = new char[3 << 20];
+        Arrays.fill(longId, 'x');
+        lines.append(longId).append(",1,0.5,0\nsvc-last,1,0.5,0\n");
+        append(file, lines.toString());
+
+        List<Integer> batchSizes = new ArrayList<>();
+        try (LiveMetricsTailer tailer = new LiveMetricsTailer(file.toPath(), batch -> batchSizes.add(batch.size()))) {
+            assertEquals(100_002, tailer.poll());
+            assertEquals(file.length(), tailer.getPosition());
+        }
+        assertTrue(batchSizes.size() > 2);
+        assertEquals(100_002, batchSizes.stream().mapToInt(Integer::intValue).sum());
+    }
+
+    @Test
+    public void testBackgroundTailerUpdatesRunningServices() throws Exception {
+        File file = new File(tempFolder.getRoot(), "metrics.csv");
+        append(file, "service_id,request_count,sla_score,dependents\n");
+
+        Map<String, Microservice> services = new ConcurrentHashMap<>();
+        Microservice orders = new Microservice("orders", "Orders");
+        Microservice retired = new Microservice("legacy", "Legacy");
+        retired.retire();
+        services.put("orders", orders);
+        services.put("legacy", retired);
+
+        List<Microservice> reevaluated = new CopyOnWriteArrayList<>();
+        MicroserviceMetricsUpdater updater = new MicroserviceMetricsUpdater(services, reevaluated::add);
+        try (LiveMetricsTailer tailer = new LiveMetricsTailer(file.toPath(), updater)) {
+            tailer.start(50);
+            append(file, "orders,640,0.97,3\nlegacy,1,0.1,0\nunknown,5,0.5,0\n");
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while (updater.getUpdatedCount() + updater.getIgnoredCount() < 3 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+        }
+
+        assertEquals(1, updater.getUpdatedCount());
+        assertEquals(2, updater.getIgnoredCount());
+        assertEquals(640, orders.getRequestCount());
+        assertEquals(0.64, orders.getUtilizationRate(), 1e-9);
+        assertEquals(0.97, orders.getSlaContribution(), 1e-9);
+        assertEquals(3, orders.getDependentServiceCount());
+        assertEquals(1, reevaluated.size());
+        assertSame(orders, reevaluated.get(0));
+    }
+
+    private static void append(File file, String text) throws Exception {
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.cloudnative.retirement.dataloaders;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.PrintWriter;
+
+import static org.junit.Assert.*;
+
+public class ServiceMetricsTimeSeriesTest {
+    private static final long START = 1_700_000_000_000L;
+    private static final long MINUTE = 60_000;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testKeepsFullSpanWithinBudgetByMergingBuckets() {
+        int services = 3;
+        long budget = services * (ServiceMetricsTimeSeries.BYTES_PER_SERVICE + 64L * ServiceMetricsTimeSeries.BYTES_PER_SLOT);
+        ServiceMetricsTimeSeries store = new ServiceMetricsTimeSeries(services, budget);
+        assertEquals(64, store.getSlotsPerService());
+
+        int samples = 30 * 24 * 60; // A month of per-minute samples
+        for (int m = 0; m < samples; m++) {
+            for (int s = 0; s < services; s++) {
+                store.append("svc-" + s, START + m * MINUTE, 100 * s + 10, 0.5, m);
+            }
+        }
+
+        int series = store.indexOf("svc-2");
+        assertTrue(store.size(series) <= 64 + 1);
+        assertEquals(1024, store.getBucketWidth(series));
+
+        ServiceMetricsTimeSeries.Cursor cursor = store.cursor(series);
+        assertTrue(cursor.next());
+        assertEquals(START, cursor.getTimestamp());
+        long previous = cursor.getTimestamp();
+        int points = 1;
+        while (cursor.next()) {
+            assertEquals(previous + 1024 * MINUTE, cursor.getTimestamp());
+            assertEquals(210, cursor.getRequestCount());
+            assertEquals(0.5, cursor.getSlaScore(), 1e-6);
+            previous = cursor.getTimestamp();
+            points++;
+        }
+        assertEquals(store.size(series), points);
+        assertEquals(samples - 1, cursor.getDependentCount()); // Last sample of the last bucket
+
+        ServiceMetricsTimeSeries.Cursor replay = store.cursor(series);
+        assertFalse(replay.advanceTo(START - 1));
+        assertTrue(replay.advanceTo(START + 5000 * MINUTE));
+        assertEquals(START + 4096 * MINUTE, replay.getTimestamp());
+    }
+
+    @Test
+    public void testCursorFollowsMergesWhileAppending() {
+        ServiceMetricsTimeSeries store = new ServiceMetricsTimeSeries(1, ServiceMetricsTimeSeries.BYTES_PER_SERVICE
+                                                                         + 4 * ServiceMetricsTimeSeries.BYTES_PER_SLOT);
+        for (int m = 0; m < 4; m++) {
+            store.append("svc", START + m * MINUTE, m * 10, 1.0, 0);
+        }
+        ServiceMetricsTimeSeries.Cursor cursor = store.cursor(0);
+        assertTrue(cursor.advanceTo(START + 2 * MINUTE));
+        assertEquals(20, cursor.getRequestCount());
+
+        store.append("svc", START + 4 * MINUTE, 40, 1.0, 0); // Merges into buckets of two
+        assertTrue(cursor.advanceTo(START + 3 * MINUTE));
+        assertEquals(START + 2 * MINUTE, cursor.getTimestamp());
+        assertEquals(25, cursor.getRequestCount());
+        assertTrue(cursor.next());
+        assertEquals(START + 4 * MINUTE, cursor.getTimestamp()); // Partly filled bucket
+        assertEquals(40, cursor.getRequestCount());
+        assertFalse(cursor.next());
+    }
+
+    @Test
+    public void testMergedBucketsSpanMoreThanIntMillis() {
+        ServiceMetricsTimeSeries store = new ServiceMetricsTimeSeries(1, ServiceMetricsTimeSeries.BYTES_PER_SERVICE
+                                                                         + 4 * ServiceMetricsTimeSeries.BYTES_PER_SLOT);
+        long day = 24 * 60 * MINUTE;
+        for (int d = 0; d < 16; d++) {
+            store.append("svc", START + d * 20 * day, d, 1.0, 0); // Merged gaps reach 160 days
+        }
+
+        ServiceMetricsTimeSeries.Cursor cursor = store.cursor(0);
+        for (int k = 0; k < 4; k++) {
+            assertTrue(cursor.next());
+            assertEquals(START + k * 80 * day, cursor.getTimestamp());
+        }
+        assertFalse(cursor.next());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsOutOfOrderSamples() {
+        ServiceMetricsTimeSeries store = new ServiceMetricsTimeSeries(1, 4096);
+        store.append("svc", START, 1, 1.0, 0);
+        store.append("svc", START - 1, 1, 1.0, 0);
+    }
+
+    @Test
+    public void testLoadsTimestampedCsv() throws Exception {
+        File file = tempFolder.newFile("trace.csv");
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            writer.println("timestamp,service_id,request_count,sla_score,dependents");
+            writer.println(START + ",orders,120,0.99,2");
+            writer.println((START + MINUTE) + ",orders,80,0.95,2");
+            writer.println(START + ",billing,15,0.7,0");
+        }
+
+        ServiceMetricsTimeSeries store = new ServiceMetricsTimeSeries(10, 1 << 20);
+        assertEquals(3, CSVMicroserviceLoader.forEachFromCSV(file.getPath(), store::append));
+
+        assertEquals(2, store.getServiceCount());
+        ServiceMetricsTimeSeries.Cursor orders = store.cursor(store.indexOf("orders"));
+        assertTrue(orders.advanceTo(START + MINUTE));
+        assertEquals(80, orders.getRequestCount());
+        assertEquals(0.95, orders.getSlaScore(), 1e-6);
+        assertEquals(START + MINUTE, orders.toServiceMetrics().getTimestamp());
+    }
+}
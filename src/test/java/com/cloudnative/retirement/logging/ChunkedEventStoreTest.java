@@ -0,0 +1,75 @@
+package com.cloudnative.retirement.logging;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+public class ChunkedEventStoreTest {
+
+    @Test
+    public void testConcurrentAppendsAreAllPublished() throws Exception {
+        int writers = 4;
+        int perWriter = 50_000;
+        ChunkedEventStore<Integer> store = new ChunkedEventStore<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perWriter; i++) {
+                    store.add(writer * perWriter + i);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        start.countDown();
+        // Snapshots taken mid-run must be gap-free prefixes
+        while (threads.stream().anyMatch(Thread::isAlive)) {
+            int size = store.size();
+            int seen = 0;
+            for (Integer value : store) {
+                assertNotNull(value);
+                seen++;
+            }
+            assertTrue(seen >= size);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(writers * perWriter, store.size());
+        boolean[] present = new boolean[writers * perWriter];
+        for (Integer value : store) {
+            assertFalse(present[value]);
+            present[value] = true;
+        }
+    }
+
+    @Test
+    public void testPreservesAppendOrder() {
+        ChunkedEventStore<Integer> store = new ChunkedEventStore<>();
+        for (int i = 0; i < 10_000; i++) {
+            store.add(i);
+        }
+
+        List<Integer> events = store.toList();
+        assertEquals(10_000, events.size());
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(Integer.valueOf(i), events.get(i));
+        }
+        assertEquals(10_000, store.stream().count());
+    }
+}
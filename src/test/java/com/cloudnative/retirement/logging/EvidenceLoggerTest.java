@@ -0,0 +1,153 @@
+package com.cloudnative.retirement.logging;
+
+import com.cloudnative.retirement.clock.LogicalClock;
+import com.cloudnative.retirement.model.RetirementEvent;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class EvidenceLoggerTest {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 9, 23, 59, 58);
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testStreamedRowsMatchBatchExport() throws Exception {
+        File batchDir = tempFolder.newFolder("batch");
+        File streamDir = tempFolder.newFolder("stream");
+        EvidenceLogger batch = new EvidenceLogger(batchDir.getPath(), new LogicalClock(Duration.ofMinutes(1)));
+        EvidenceLogger streaming = new EvidenceLogger(streamDir.getPath(), new LogicalClock(Duration.ofMinutes(1)));
+        streaming.enableStreamingExport(0, 2, false);
+
+        Random random = new Random(11);
+        for (int cycle = 0; cycle < 5; cycle++) {
+            for (int i = 0; i < 20; i++) {
+                RetirementEvent event = randomEvent(random, cycle, i);
+                batch.recordEvent(event);
+                streaming.recordEvent(event);
+            }
+            streaming.onCycleComplete();
+        }
+
+        batch.exportToCSV("batch.csv");
+        String lastFile = streaming.exportToCSV();
+
+        List<String> expected = Files.readAllLines(new File(batchDir, "batch.csv").toPath(), StandardCharsets.UTF_8);
+        List<String> streamed = new ArrayList<>();
+        File[] parts = streamDir.listFiles((dir, name) -> name.endsWith(".csv"));
+        Arrays.sort(parts);
+        assertEquals(3, parts.length); // Two cycles per file
+        assertEquals(parts[2].getName(), lastFile);
+        for (File part : parts) {
+            List<String> lines = Files.readAllLines(part.toPath(), StandardCharsets.UTF_8);
+            assertEquals(expected.get(0), lines.get(0));
+            streamed.addAll(lines.subList(1, lines.size()));
+        }
+
+        assertEquals(expected.subList(1, expected.size()), streamed);
+        assertTrue(streaming.getEvents().isEmpty());
+        assertEquals(batch.getDecisionCount("RETIRE"), streaming.getDecisionCount("RETIRE"));
+        assertEquals(batch.getTotalCpuFreed(), streaming.getTotalCpuFreed(), 1e-9);
+    }
+
+    @Test
+    public void testAggregatesMatchFullScan() throws Exception {
+        EvidenceLogger evidence = new EvidenceLogger(tempFolder.newFolder("aggregates").getPath());
+        Random random = new Random(5);
+        for (int i = 0; i < 5_000; i++) {
+            RetirementEvent event = new RetirementEvent("S" + random.nextInt(300), START, random.nextDouble(),
+                random.nextInt(40), random.nextInt(3) == 0 ? "RETIRE" : "RETAIN", random.nextDouble() * 20,
+                "Reason " + random.nextInt(4));
+            evidence.recordEvent(event);
+        }
+
+        List<RetirementEvent> events = evidence.getEvents();
+        assertEquals(events.size(), evidence.getEventCount());
+        assertEquals(events.stream().filter(e -> "RETIRE".equals(e.getDecision())).count(),
+                     evidence.getDecisionCount("RETIRE"));
+        assertEquals(events.stream().filter(e -> "RETIRE".equals(e.getDecision()))
+                           .mapToDouble(RetirementEvent::getCpuFreed).sum(),
+                     evidence.getTotalCpuFreed(), 1e-6);
+
+        Map<String, Long> reasons = events.stream().filter(e -> "RETIRE".equals(e.getDecision()))
+            .collect(Collectors.groupingBy(RetirementEvent::getReason, Collectors.counting()));
+        assertEquals(reasons, evidence.getRetirementsByReason());
+
+        Map<String, Integer> maxDependents = events.stream().collect(Collectors.toMap(
+            RetirementEvent::getServiceId, RetirementEvent::getDependencyCount, Math::max));
+        List<Integer> expectedTop = maxDependents.values().stream()
+            .sorted(Comparator.reverseOrder()).limit(5).collect(Collectors.toList());
+        List<Map.Entry<String, Integer>> top = evidence.getTopDependentServices();
+        assertEquals(expectedTop, top.stream().map(Map.Entry::getValue).collect(Collectors.toList()));
+        for (Map.Entry<String, Integer> entry : top) {
+            assertEquals(maxDependents.get(entry.getKey()), entry.getValue());
+        }
+    }
+
+    @Test
+    public void testRowEncodingMatchesFormatter() {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        CsvRowEncoder encoder = new CsvRowEncoder();
+        Random random = new Random(3);
+        StringBuilder row = new StringBuilder();
+
+        for (int i = 0; i < 10_000; i++) {
+            RetirementEvent event = randomEvent(random, i, i);
+            row.setLength(0);
+            encoder.encode(event, row);
+            String expected = String.format("%s,%s,%.2f,%d,%s,%.2f,\"%s\"\n",
+                formatter.format(event.getTimestamp()), event.getServiceId(), event.getUtilityScore(),
+                event.getDependencyCount(), event.getDecision(), event.getCpuFreed(), event.getReason());
+            assertEquals(expected, row.toString());
+        }
+    }
+
+    @Test
+    public void testFixedDecimalsMatchFormatter() {
+        Random random = new Random(11);
+        StringBuilder row = new StringBuilder();
+        List<Double> values = new ArrayList<>();
+        for (double value : new double[] {1.005, 0.285, 2.675, 0.125, -1.005, -0.001, -0.0, 0.0, 0.995, 99.995}) {
+            values.add(value);
+        }
+        for (int cents = 0; cents < 100_000; cents++) {
+            values.add(cents / 1000.0); // Every third decimal, including each half cent
+            values.add(-cents / 1000.0 - 0.005);
+        }
+        for (int i = 0; i < 100_000; i++) {
+            values.add((random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(14)));
+        }
+
+        for (double value : values) {
+            row.setLength(0);
+            CsvRowEncoder.appendFixed2(value, row);
+            assertEquals(String.valueOf(value), String.format("%.2f", value), row.toString());
+        }
+    }
+
+    private static RetirementEvent randomEvent(Random random, int cycle, int i) {
+        boolean retire = random.nextInt(4) == 0;
+        double utility = random.nextDouble();
+        return new RetirementEvent("S" + i, START.plusSeconds(cycle * 37L + i / 3), utility,
+                                   random.nextInt(4), retire ? "RETIRE" : "RETAIN",
+                                   retire ? random.nextDouble() * 20 : 0.0,
+                                   retire ? "Low utility sustained" : "Utility above threshold");
+    }
+}
@@ -0,0 +1,70 @@
+package com.cloudnative.retirement.modules;
+
+import com.cloudnative.retirement.dataloaders.CSVMicroserviceLoader;
+import com.cloudnative.retirement.dataloaders.ServiceMetrics;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class BatchRetirementScorerTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testParallelCsvScoringMatchesInMemoryScoring() throws Exception {
+        File file = tempFolder.newFile("fleet.csv");
+        Random random = new Random(5);
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            writer.println("service_id,request_count,sla_score,dependents");
+            for (int i = 0; i < 150_000; i++) {
+                writer.println("svc-" + i + "," + random.nextInt(2500) + "," + random.nextInt(1000) / 1000.0
+                               + "," + (random.nextInt(4) == 0 ? random.nextInt(15) : 0));
+            }
+        }
+
+        BatchRetirementScorer scorer = new BatchRetirementScorer(new UtilityAssessmentModule(2000, 15), 0.30, 25);
+        BatchRetirementScorer.Summary parallel = scorer.scoreCSV(file.getPath(), 4);
+        BatchRetirementScorer.Summary sequential = scorer.score(CSVMicroserviceLoader.loadFromCSV(file.getPath()));
+
+        assertEquals(150_000, parallel.getScoredCount());
+        assertEquals(sequential.getRetirementCount(), parallel.getRetirementCount());
+        assertEquals(sequential.getCpuFreed(), parallel.getCpuFreed(), 1e-6);
+        assertEquals(sequential.getMeanUtility(), parallel.getMeanUtility(), 1e-9);
+        assertEquals(sequential.getMinUtility(), parallel.getMinUtility(), 0.0);
+
+        List<BatchRetirementScorer.Candidate> expected = sequential.getTopCandidates();
+        List<BatchRetirementScorer.Candidate> actual = parallel.getTopCandidates();
+        assertEquals(25, actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getServiceId(), actual.get(i).getServiceId());
+        }
+        for (int i = 1; i < actual.size(); i++) {
+            assertTrue(BatchRetirementScorer.BEST_FIRST.compare(actual.get(i - 1), actual.get(i)) < 0);
+        }
+    }
+
+    @Test
+    public void testRealWorldNormalization() {
+        BatchRetirementScorer scorer = new BatchRetirementScorer(new UtilityAssessmentModule(2000, 15), 0.30, 3);
+        ServiceMetrics service = new ServiceMetrics("svc", 500, 0.8, 3);
+        // 0.40 * 500/2000 + 0.35 * 0.8 + 0.25 * 3/15
+        assertEquals(0.43, scorer.computeUtility(service), 1e-9);
+
+        ServiceMetrics idle = new ServiceMetrics("idle", 10, 0.1, 0);
+        ServiceMetrics needed = new ServiceMetrics("needed", 10, 0.1, 1);
+        BatchRetirementScorer.Summary summary = scorer.score(Arrays.asList(service, idle, needed));
+        assertEquals(1, summary.getRetirementCount());
+        assertEquals("idle", summary.getTopCandidates().get(0).getServiceId());
+        assertEquals(1.0, summary.getCpuFreed(), 0.0);
+    }
+}
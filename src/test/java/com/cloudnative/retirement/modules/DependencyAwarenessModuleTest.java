@@ -0,0 +1,82 @@
+package com.cloudnative.retirement.modules;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+
+public class DependencyAwarenessModuleTest {
+    private DependencyAwarenessModule dependencyModule;
+
+    @Before
+    public void setUp() {
+        dependencyModule = new DependencyAwarenessModule();
+        // S2 and S3 depend on S1; S1 depends on S4
+        dependencyModule.registerDependency("S2", "S1");
+        dependencyModule.registerDependency("S3", "S1");
+        dependencyModule.registerDependency("S1", "S4");
+    }
+
+    @Test
+    public void testClearRemovesEdgesInBothDirections() {
+        dependencyModule.clearDependenciesForRetiredService("S1");
+
+        assertTrue(dependencyModule.getDependents("S1").isEmpty());
+        assertTrue(dependencyModule.getDependents("S4").isEmpty());
+        assertTrue(dependencyModule.getProviders("S1").isEmpty());
+        assertTrue(dependencyModule.getProviders("S2").isEmpty());
+        assertTrue(dependencyModule.getProviders("S3").isEmpty());
+    }
+
+    @Test
+    public void testUnregisterKeepsIndexesInSync() {
+        assertEquals(new HashSet<>(Arrays.asList("S2", "S3")), dependencyModule.getDependents("S1"));
+        assertEquals(Collections.singleton("S4"), dependencyModule.getProviders("S1"));
+
+        dependencyModule.unregisterDependency("S2", "S1");
+
+        assertEquals(Collections.singleton("S3"), dependencyModule.getDependents("S1"));
+        assertTrue(dependencyModule.getProviders("S2").isEmpty());
+    }
+
+    @Test
+    public void testCompactedGraphMatchesRegisteredEdges() {
+        dependencyModule.compact();
+        dependencyModule.registerDependency("S5", "S1");
+        dependencyModule.unregisterDependency("S2", "S1");
+        dependencyModule.registerDependency("S2", "S1");
+        dependencyModule.registerDependency("S2", "S1");
+
+        assertEquals(new HashSet<>(Arrays.asList("S2", "S3", "S5")), dependencyModule.getDependents("S1"));
+        assertEquals(3, dependencyModule.getDependentCount("S1"));
+        assertEquals(Collections.singleton("S1"), dependencyModule.getProviders("S5"));
+
+        dependencyModule.compact();
+        dependencyModule.clearDependenciesForRetiredService("S3");
+
+        assertEquals(new HashSet<>(Arrays.asList("S2", "S5")), dependencyModule.getDependents("S1"));
+        assertEquals("Dependency Stats - Services: 2, Total Dependencies: 3, Critical Services: 1",
+                     dependencyModule.getDependencyStats());
+    }
+
+    @Test
+    public void testRetirementWaveOnLargeGraph() {
+        int numServices = 200_000;
+        DependencyAwarenessModule module = new DependencyAwarenessModule();
+        for (int i = 1; i < numServices; i++) {
+            module.registerDependency("S" + i, "S" + (i / 2));
+        }
+        module.compact();
+
+        for (int i = numServices / 2; i < numServices; i++) {
+            module.clearDependenciesForRetiredService("S" + i);
+        }
+
+        assertTrue(module.getDependents("S" + (numServices / 4)).isEmpty());
+        assertEquals(2, module.getDependentCount("S" + (numServices / 4 - 1)));
+    }
+}
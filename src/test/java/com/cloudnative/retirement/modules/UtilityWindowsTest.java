@@ -0,0 +1,67 @@
+package com.cloudnative.retirement.modules;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class UtilityWindowsTest {
+    private static final int CAPACITY = 20;
+
+    @Test
+    public void testRunningSlopeMatchesFullRegression() {
+        double[] window = new double[UtilityWindows.stride(CAPACITY)];
+        Deque<Double> reference = new ArrayDeque<>();
+        Random random = new Random(7);
+
+        // Long enough to wrap the ring many times and pass several resyncs
+        for (int i = 0; i < CAPACITY * 500; i++) {
+            double value = random.nextDouble();
+            UtilityWindows.append(window, 0, CAPACITY, value);
+            reference.addLast(value);
+            if (reference.size() > CAPACITY) {
+                reference.removeFirst();
+            }
+
+            assertEquals(reference.size(), UtilityWindows.size(window, 0));
+            assertEquals(reference.peekLast(), UtilityWindows.latest(window, 0, CAPACITY), 0.0);
+            if (reference.size() >= 2) {
+                assertEquals(regressionSlope(reference), UtilityWindows.slope(window, 0), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testWindowsShareOneArray() {
+        int stride = UtilityWindows.stride(CAPACITY);
+        double[] windows = new double[stride * 2];
+
+        for (int i = 0; i < CAPACITY + 5; i++) {
+            UtilityWindows.append(windows, 0, CAPACITY, i);
+            UtilityWindows.append(windows, stride, CAPACITY, -i);
+        }
+
+        assertEquals(CAPACITY, UtilityWindows.size(windows, 0));
+        assertEquals(5.0, UtilityWindows.get(windows, 0, CAPACITY, 0), 0.0);
+        assertEquals(-(CAPACITY + 4.0), UtilityWindows.latest(windows, stride, CAPACITY), 0.0);
+        assertEquals(1.0, UtilityWindows.slope(windows, 0), 1e-12);
+        assertEquals(-1.0, UtilityWindows.slope(windows, stride), 1e-12);
+    }
+
+    private static double regressionSlope(Deque<Double> values) {
+        int n = values.size();
+        double sumX = 0, sumY = 0, sumXY = 0, sumX2 = 0;
+        int x = 0;
+        for (double value : values) {
+            sumX += x;
+            sumY += value;
+            sumXY += x * value;
+            sumX2 += x * x;
+            x++;
+        }
+        return (n * sumXY - sumX * sumY) / (n * sumX2 - sumX * sumX);
+    }
+}
@@ -0,0 +1,68 @@
+package com.cloudnative.retirement.simulation;
+
+import com.cloudnative.retirement.clock.LogicalClock;
+import com.cloudnative.retirement.model.Microservice;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CompactFleetSimulationTest {
+    private static final int NUM_SERVICES = 600;
+    private static final int TOTAL_CYCLES = 40;
+    private static final Duration CYCLE_LENGTH = Duration.ofHours(1);
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testMatchesObjectSimulation() throws Exception {
+        MicroserviceRetirementSimulation objectSimulation = new MicroserviceRetirementSimulation(
+            NUM_SERVICES, TOTAL_CYCLES, tempFolder.getRoot().getPath(), 1, new LogicalClock(CYCLE_LENGTH));
+        CompactFleetSimulation compactSimulation = new CompactFleetSimulation(
+            NUM_SERVICES, TOTAL_CYCLES, 1, 20, new LogicalClock(CYCLE_LENGTH));
+
+        objectSimulation.run();
+        compactSimulation.run();
+
+        List<Microservice> services = objectSimulation.getServices();
+        for (int i = 0; i < NUM_SERVICES; i++) {
+            Microservice service = services.get(i);
+            assertEquals(service.getServiceId(), compactSimulation.getServiceId(i));
+            assertEquals(service.getRequestCount(), compactSimulation.getRequestCount(i));
+            assertEquals(service.getSlaContribution(), compactSimulation.getSlaContribution(i), 0.0);
+            assertEquals(service.isRetired(), compactSimulation.isRetired(i));
+        }
+
+        MicroserviceRetirementSimulation.SimulationMetrics expected = objectSimulation.getMetrics();
+        MicroserviceRetirementSimulation.SimulationMetrics actual = compactSimulation.getMetrics();
+        assertTrue(expected.totalRetirements > 0);
+        assertEquals(expected.retiredServices, actual.retiredServices);
+        assertEquals(0, expected.retiringServices); // Drains are awaited when the run ends
+        assertEquals(expected.totalServices,
+                     expected.activeServices + expected.retiringServices + expected.retiredServices);
+        assertEquals(expected.totalRetirements, actual.totalRetirements);
+        assertEquals(expected.totalRetentions, actual.totalRetentions);
+        assertEquals(expected.cpuFreed, actual.cpuFreed, 1e-9);
+    }
+
+    @Test
+    public void testParallelRunMatchesSerialRun() {
+        CompactFleetSimulation serial = new CompactFleetSimulation(5000, TOTAL_CYCLES, 1);
+        CompactFleetSimulation parallel = new CompactFleetSimulation(5000, TOTAL_CYCLES, 4);
+
+        serial.run();
+        parallel.run();
+
+        for (int i = 0; i < serial.getServiceCount(); i++) {
+            assertEquals(serial.isRetired(i), parallel.isRetired(i));
+            assertEquals(serial.getRequestCount(i), parallel.getRequestCount(i));
+        }
+        assertEquals(serial.getMetrics().cpuFreed, parallel.getMetrics().cpuFreed, 0.0);
+        assertEquals(serial.getMetrics().totalRetentions, parallel.getMetrics().totalRetentions);
+    }
+}
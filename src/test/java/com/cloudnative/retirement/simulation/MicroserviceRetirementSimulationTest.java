@@ -0,0 +1,103 @@
+package com.cloudnative.retirement.simulation;
+
+import com.cloudnative.retirement.clock.LogicalClock;
+import com.cloudnative.retirement.dataloaders.ServiceMetricsTimeSeries;
+import com.cloudnative.retirement.model.Microservice;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MicroserviceRetirementSimulationTest {
+    private static final int NUM_SERVICES = 600;
+    private static final int TOTAL_CYCLES = 12;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testParallelRunMatchesSerialRun() throws Exception {
+        MicroserviceRetirementSimulation serial = new MicroserviceRetirementSimulation(
+            NUM_SERVICES, TOTAL_CYCLES, tempFolder.newFolder("serial").getPath(), 1);
+        MicroserviceRetirementSimulation parallel = new MicroserviceRetirementSimulation(
+            NUM_SERVICES, TOTAL_CYCLES, tempFolder.newFolder("parallel").getPath(), 4);
+
+        serial.run();
+        parallel.run();
+
+        List<Microservice> serialServices = serial.getServices();
+        List<Microservice> parallelServices = parallel.getServices();
+        assertEquals(serialServices.size(), parallelServices.size());
+        for (int i = 0; i < serialServices.size(); i++) {
+            Microservice expected = serialServices.get(i);
+            Microservice actual = parallelServices.get(i);
+            assertEquals(expected.getServiceId(), actual.getServiceId());
+            assertEquals(expected.getRequestCount(), actual.getRequestCount());
+            assertEquals(expected.getSlaContribution(), actual.getSlaContribution(), 0.0);
+            assertEquals(expected.isRetired(), actual.isRetired());
+        }
+
+        MicroserviceRetirementSimulation.SimulationMetrics serialMetrics = serial.getMetrics();
+        MicroserviceRetirementSimulation.SimulationMetrics parallelMetrics = parallel.getMetrics();
+        assertEquals(serialMetrics.totalRetirements, parallelMetrics.totalRetirements);
+        assertEquals(serialMetrics.totalRetentions, parallelMetrics.totalRetentions);
+        assertEquals(serialMetrics.cpuFreed, parallelMetrics.cpuFreed, 1e-9);
+    }
+
+    @Test
+    public void testDiscreteEventModeSkipsHealthyServices() throws Exception {
+        int numServices = 200;
+        int totalCycles = 40;
+        MicroserviceRetirementSimulation simulation = new MicroserviceRetirementSimulation(
+            numServices, totalCycles, tempFolder.newFolder("discrete").getPath(), 1,
+            new LogicalClock(Duration.ofHours(1)));
+
+        simulation.runDiscreteEvent();
+
+        MicroserviceRetirementSimulation.SimulationMetrics metrics = simulation.getMetrics();
+        assertTrue(metrics.totalRetirements > 0);
+        assertEquals(metrics.totalRetirements + metrics.totalRetentions, simulation.getEvaluationCount());
+        assertTrue(simulation.getEvaluationCount() < (long) numServices * totalCycles / 2);
+    }
+
+    @Test
+    public void testReplayFeedsRecordedMetrics() throws Exception {
+        long start = 1_700_000_000_000L;
+        long cycleMillis = 60_000;
+        ServiceMetricsTimeSeries recorded = new ServiceMetricsTimeSeries(3, 1 << 20);
+        for (int cycle = 0; cycle < 30; cycle++) {
+            long timestamp = start + cycle * cycleMillis;
+            recorded.append("S2", timestamp, 0, 0.0, 0); // Recorded in a different order
+            recorded.append("S1", timestamp, 1500, 0.99, 4);
+            recorded.append("S9", timestamp, 1500, 0.99, 4); // Not in the simulation
+        }
+
+        MicroserviceRetirementSimulation simulation = new MicroserviceRetirementSimulation(
+            4, 30, tempFolder.newFolder("replay").getPath(), 1, new LogicalClock(Duration.ofMinutes(1)));
+        simulation.replayMetrics(recorded, start, cycleMillis);
+        simulation.run();
+
+        List<Microservice> services = simulation.getServices();
+        assertEquals(1500, services.get(0).getRequestCount());
+        assertEquals(0.99, services.get(0).getSlaContribution(), 1e-6);
+        assertFalse(services.get(0).isRetired());
+        assertEquals(0, services.get(1).getRequestCount());
+        assertEquals(0.0, services.get(1).getSlaContribution(), 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMetricChangeForUnknownServiceIsRejected() throws Exception {
+        MicroserviceRetirementSimulation simulation = new MicroserviceRetirementSimulation(
+            10, 5, tempFolder.newFolder("unknown").getPath());
+        simulation.scheduleMetricChange("missing-service", 1, 0, 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsNonPositiveParallelism() throws Exception {
+        new MicroserviceRetirementSimulation(10, 1, tempFolder.newFolder("invalid").getPath(), 0);
+    }
+}